@@ -0,0 +1,33 @@
+package org.loamok.jobs.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.ingestion.FileOfficialOfferSource;
+import org.loamok.jobs.ingestion.OfficialOfferSource;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(IngestionProperties.class)
+public class IngestionConfig {
+
+    @Bean
+    public OfficialOfferSource officialOfferSource(IngestionProperties properties, ObjectMapper objectMapper) {
+        if (properties.getBatchSize() < 1 || properties.getWorkers() < 1 || properties.getQueueCapacity() < 1) {
+            throw new IllegalStateException("loamok.jobs.ingestion : batch-size, workers et queue-capacity doivent être positifs");
+        }
+
+        OfficialOfferSource source = switch (properties.getSource()) {
+            case FILE -> new FileOfficialOfferSource(properties.getFile().getLocation(), objectMapper);
+        };
+        log.info("Source des offres officielles : {}", source.name());
+
+        return source;
+    }
+}
@@ -0,0 +1,55 @@
+package org.loamok.jobs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+/**
+ * Réglages de l'ingestion des offres officielles (préfixe loamok.jobs.ingestion).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.ingestion")
+public class IngestionProperties {
+
+    /**
+     * ### SOURCE_OFFRES
+     * - `FILE` : fichier JSON d'offres (export, jeu d'essai hors ligne)
+     */
+    public enum SourceType {
+        FILE;
+    }
+
+    private SourceType source = SourceType.FILE;
+
+    /**
+     * Offres lues auprès de la source puis enregistrées par transaction.
+     */
+    private int batchSize = 200;
+
+    /**
+     * Lots enregistrés en parallèle.
+     */
+    private int workers = 4;
+
+    /**
+     * Lots lus en attente d'un ouvrier ; file pleine, la lecture de la source
+     * attend (le lot est enregistré par le thread de lecture).
+     */
+    private int queueCapacity = 8;
+
+    private final File file = new File();
+
+    /**
+     * Source FILE (loamok.jobs.ingestion.file).
+     */
+    @Data
+    public static class File {
+
+        /**
+         * Tableau JSON d'offres (voir OfficialOffer), classpath: ou file:.
+         */
+        private Resource location;
+    }
+}
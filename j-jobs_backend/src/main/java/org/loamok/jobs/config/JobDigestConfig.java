@@ -0,0 +1,40 @@
+package org.loamok.jobs.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import org.loamok.jobs.mail.JobDigestTemplates;
+import org.loamok.jobs.mail.MailTemplate;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Configuration
+@EnableConfigurationProperties(JobDigestProperties.class)
+public class JobDigestConfig {
+
+    /**
+     * Modèles analysés au démarrage : un modèle mal formé empêche le
+     * lancement au lieu d'échouer au premier envoi.
+     */
+    @Bean
+    public JobDigestTemplates jobDigestTemplates(JobDigestProperties properties) {
+        JobDigestProperties.Delivery delivery = properties.getDelivery();
+        if (properties.getUserBatchSize() < 1 || delivery.getBatchSize() < 1 || delivery.getWorkers() < 1
+                || delivery.getQueueCapacity() < 1 || delivery.getMaxAttempts() < 1) {
+            throw new IllegalStateException("loamok.jobs.digest : user-batch-size, batch-size, workers, queue-capacity "
+                    + "et max-attempts doivent être positifs");
+        }
+
+        try {
+            return new JobDigestTemplates(MailTemplate.compile(properties.getSubject()),
+                    MailTemplate.compile(properties.getTemplate().getContentAsString(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Modèle du récapitulatif illisible : " + properties.getTemplate(), e);
+        }
+    }
+}
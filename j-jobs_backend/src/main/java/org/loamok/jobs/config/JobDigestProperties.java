@@ -0,0 +1,106 @@
+package org.loamok.jobs.config;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+/**
+ * Réglages du récapitulatif quotidien par courriel (préfixe loamok.jobs.digest).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.digest")
+public class JobDigestProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Planification de la préparation des récapitulatifs (expression cron Spring).
+     */
+    private String cron = "0 0 7 * * *";
+
+    /**
+     * Fuseau du jour d'un récapitulatif et des dates affichées.
+     */
+    private ZoneId zone = ZoneId.of("Europe/Paris");
+
+    /**
+     * Utilisateurs dont les offres sont lues par requête (et par transaction).
+     */
+    private int userBatchSize = 200;
+
+    /**
+     * Entretiens repris dans le récapitulatif : ceux des prochains jours.
+     */
+    private Duration interviewHorizon = Duration.ofDays(7);
+
+    /**
+     * Conservation des récapitulatifs envoyés ou abandonnés dans la table d'envoi.
+     */
+    private Duration retention = Duration.ofDays(30);
+
+    /**
+     * Modèle du corps du courriel (voir MailTemplate), classpath: ou file:.
+     */
+    private Resource template;
+
+    /**
+     * Modèle de l'objet du courriel.
+     */
+    private String subject = "{{application_name}} : vos offres à traiter";
+
+    /**
+     * Expéditeur des récapitulatifs.
+     */
+    private String from;
+
+    /**
+     * Nom et adresse de l'application cités dans le courriel.
+     */
+    private String applicationName = "Jobs";
+    private String baseUrl;
+
+    private final Delivery delivery = new Delivery();
+
+    /**
+     * Envoi des récapitulatifs préparés (loamok.jobs.digest.delivery).
+     */
+    @Data
+    public static class Delivery {
+
+        /**
+         * Délai entre deux passages d'envoi ; les nouvelles tentatives
+         * attendent le passage suivant leur échéance.
+         */
+        private Duration interval = Duration.ofMinutes(5);
+
+        /**
+         * Courriels lus par passage avant d'être confiés aux ouvriers.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Connexions SMTP simultanées.
+         */
+        private int workers = 2;
+
+        /**
+         * Courriels en attente d'un ouvrier ; file pleine, le courriel est
+         * envoyé par le thread du passage.
+         */
+        private int queueCapacity = 16;
+
+        /**
+         * Tentatives avant abandon d'un courriel.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Attente avant la première nouvelle tentative, doublée à chaque échec.
+         */
+        private Duration retryDelay = Duration.ofMinutes(15);
+    }
+}
@@ -0,0 +1,28 @@
+package org.loamok.jobs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Réglages de la détection des offres en double (préfixe loamok.jobs.duplicates).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.duplicates")
+public class JobDuplicatesProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Similarité estimée (0 à 1) de l'intitulé, de l'entreprise et de la ville
+     * à partir de laquelle deux offres sont signalées comme doublons probables.
+     */
+    private double similarityThreshold = 0.7;
+
+    /**
+     * Nombre total d'offres indexées au-delà duquel les partitions
+     * d'utilisateurs les moins récemment servies sont écartées.
+     */
+    private int maxIndexedJobs = 100_000;
+}
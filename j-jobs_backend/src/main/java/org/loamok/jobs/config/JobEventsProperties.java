@@ -0,0 +1,34 @@
+package org.loamok.jobs.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Réglages du flux d'évènements /jobs/events (préfixe loamok.jobs.events).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.events")
+public class JobEventsProperties {
+
+    /**
+     * Flux ouverts simultanément par un utilisateur ; au-delà, le plus ancien
+     * est fermé.
+     */
+    private int maxStreamsPerUser = 3;
+
+    /**
+     * Évènements en attente d'envoi sur un flux ; au-delà (client lent), ils
+     * sont remplacés par un unique évènement resync.
+     */
+    private int maxPendingEvents = 32;
+
+    private Duration heartbeat = Duration.ofSeconds(25);
+
+    /**
+     * Durée de vie d'un flux, le client se reconnecte ensuite.
+     */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+}
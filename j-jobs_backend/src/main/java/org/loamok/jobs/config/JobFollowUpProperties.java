@@ -0,0 +1,32 @@
+package org.loamok.jobs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Réglages des relances automatiques (préfixe loamok.jobs.follow-up).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.follow-up")
+public class JobFollowUpProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Planification du passage (expression cron Spring).
+     */
+    private String cron = "0 15 * * * *";
+
+    /**
+     * Jours sans nouvelle d'une candidature avant relance, pour les
+     * utilisateurs qui n'ont pas fixé le leur.
+     */
+    private int defaultDays = 7;
+
+    /**
+     * Offres examinées par transaction.
+     */
+    private int chunkSize = 500;
+}
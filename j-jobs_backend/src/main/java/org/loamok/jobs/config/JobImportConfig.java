@@ -0,0 +1,13 @@
+package org.loamok.jobs.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Configuration
+@EnableConfigurationProperties(JobImportProperties.class)
+public class JobImportConfig {
+}
@@ -0,0 +1,30 @@
+package org.loamok.jobs.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Réglages de l'import d'offres en masse /jobs/import (préfixe loamok.jobs.import).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.import")
+public class JobImportProperties {
+
+    /**
+     * Offres enregistrées par transaction ; un lot en échec n'annule que ses
+     * propres lignes.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Lignes lues au plus par import, les suivantes sont ignorées.
+     */
+    private int maxRows = 10000;
+
+    /**
+     * Erreurs détaillées dans le rapport ; au-delà, elles sont seulement comptées.
+     */
+    private int maxReportedErrors = 200;
+}
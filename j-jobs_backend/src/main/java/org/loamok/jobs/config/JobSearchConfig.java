@@ -0,0 +1,57 @@
+package org.loamok.jobs.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.loamok.jobs.repository.FullTextJobTextualSearch;
+import org.loamok.jobs.repository.JobTextualSearch;
+import org.loamok.jobs.repository.LikeJobTextualSearch;
+import org.loamok.jobs.repository.TrigramJobTextualSearch;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(JobSearchProperties.class)
+public class JobSearchConfig {
+
+    private boolean isPostgres(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @Bean
+    public JobTextualSearch jobTextualSearch(JobSearchProperties properties, EntityManagerFactory entityManagerFactory) {
+        boolean postgres = isPostgres(entityManagerFactory);
+
+        if (properties.getSimilarityThreshold() < 0 || properties.getSimilarityThreshold() > 1) {
+            throw new IllegalStateException("loamok.jobs.search.similarity-threshold doit être compris entre 0 et 1");
+        }
+
+        JobTextualSearch engine = switch (properties.getTextualEngine()) {
+            case LIKE -> new LikeJobTextualSearch();
+            case FULLTEXT, AUTO -> postgres ? new FullTextJobTextualSearch() : new LikeJobTextualSearch();
+            case TRIGRAM -> postgres
+                    ? new TrigramJobTextualSearch(
+                            SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                            properties.getSimilarityThreshold())
+                    : new LikeJobTextualSearch();
+        };
+
+        if (properties.getTextualEngine() != JobSearchProperties.TextualEngine.AUTO
+                && properties.getTextualEngine() != JobSearchProperties.TextualEngine.LIKE && !postgres) {
+            log.warn("Moteur de recherche {} indisponible hors PostgreSQL, repli sur LIKE", properties.getTextualEngine());
+        }
+        log.info("Moteur de recherche libre : {}", engine.getClass().getSimpleName());
+
+        return engine;
+    }
+}
@@ -0,0 +1,72 @@
+package org.loamok.jobs.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Réglages de la recherche d'offres (préfixe loamok.jobs.search).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.search")
+public class JobSearchProperties {
+
+    /**
+     * ### MOTEUR_RECHERCHE_LIBRE
+     * - `AUTO` : plein texte sous PostgreSQL, LIKE sinon
+     * - `LIKE` : LIKE '%x%' sur les colonnes texte
+     * - `FULLTEXT` : tsvector français + index GIN (PostgreSQL uniquement)
+     * - `TRIGRAM` : fragments et fautes de frappe via pg_trgm (PostgreSQL uniquement)
+     */
+    public enum TextualEngine {
+        AUTO,
+        LIKE,
+        FULLTEXT,
+        TRIGRAM;
+    }
+
+    private TextualEngine textualEngine = TextualEngine.AUTO;
+
+    /**
+     * Seuil de similarité de mot (0 à 1) du moteur TRIGRAM : plus il est bas,
+     * plus la recherche tolère de fautes.
+     */
+    private double similarityThreshold = 0.4;
+
+    private final InMemoryIndex inMemoryIndex = new InMemoryIndex();
+
+    /**
+     * Index inversé en mémoire de la recherche libre (loamok.jobs.search.in-memory-index).
+     */
+    @Data
+    public static class InMemoryIndex {
+
+        private boolean enabled = false;
+
+        /**
+         * Nombre total d'offres indexées au-delà duquel les partitions
+         * d'utilisateurs les moins récemment servies sont écartées.
+         */
+        private int maxIndexedJobs = 100_000;
+    }
+
+    private final ResultCache resultCache = new ResultCache();
+
+    /**
+     * Cache des réponses de recherche par utilisateur (loamok.jobs.search.result-cache).
+     */
+    @Data
+    public static class ResultCache {
+
+        private boolean enabled = true;
+
+        private long maxEntries = 10_000;
+
+        /**
+         * Durée de vie d'une réponse mémorisée, même sans écriture de l'utilisateur.
+         */
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,27 @@
+package org.loamok.jobs.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Réglages de /labels (préfixe loamok.jobs.labels).
+ *
+ * @author Huby Franck
+ */
+@Data
+@ConfigurationProperties(prefix = "loamok.jobs.labels")
+public class LabelsProperties {
+
+    /**
+     * Langues servies ; la première est la langue par défaut.
+     */
+    private List<Locale> locales = List.of(Locale.FRENCH, Locale.ENGLISH);
+
+    /**
+     * Durée de mise en cache côté client ; le contenu ne change qu'au déploiement.
+     */
+    private Duration maxAge = Duration.ofDays(1);
+}
@@ -0,0 +1,42 @@
+package org.loamok.jobs.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.loamok.jobs.repository.AdvisoryScheduledTaskLock;
+import org.loamok.jobs.repository.LocalScheduledTaskLock;
+import org.loamok.jobs.repository.ScheduledTaskLock;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tâches planifiées de l'application (rapprochements, maintenance, relances).
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(JobFollowUpProperties.class)
+public class SchedulingConfig {
+
+    /**
+     * Sous PostgreSQL, une tâche exclusive ne tourne que sur une instance à la
+     * fois ; ailleurs l'exclusion ne couvre que l'instance courante.
+     */
+    @Bean
+    public ScheduledTaskLock scheduledTaskLock(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        boolean postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+
+        ScheduledTaskLock lock = postgres ? new AdvisoryScheduledTaskLock(dataSource) : new LocalScheduledTaskLock();
+        log.info("Exclusion des tâches planifiées : {}", lock.getClass().getSimpleName());
+
+        return lock;
+    }
+}
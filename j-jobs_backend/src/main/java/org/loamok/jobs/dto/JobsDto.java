@@ -1,6 +1,12 @@
 package org.loamok.jobs.dto;
 
+import java.time.Instant;
+import java.util.Map;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.JobStatusEnum;
 import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
 
 /**
  *
@@ -8,4 +14,64 @@ import org.loamok.jobs.entity.enums.OfferStatusEnum;
  */
 public class JobsDto {
     public record StatusCountProjection(OfferStatusEnum status, long count) {}
+
+    /**
+     * Ligne de la liste de recherche : colonnes affichées, sans la description.
+     */
+    public record JobListingProjection(
+            Integer id,
+            String position,
+            String compagny,
+            String city,
+            boolean fromOfficialDom,
+            Instant applicationDate,
+            Instant createdAt,
+            Instant updatedAt,
+            ContractEnum contract,
+            WorkTimeEnum workTime,
+            WorkModeEnum workMode,
+            OfferStatusEnum offerStatus
+    ) {}
+
+    /**
+     * Offre passée d'un statut à l'autre par une transition de masse.
+     */
+    public record StatusTransition(
+            Integer jobId,
+            Integer userId,
+            OfferStatusEnum from,
+            OfferStatusEnum to
+    ) {}
+
+    /**
+     * Offre de la liste « à faire », par échéance de la prochaine action.
+     */
+    public record JobActionProjection(
+            Integer id,
+            String position,
+            String compagny,
+            String city,
+            OfferStatusEnum offerStatus,
+            Instant interviewAt,
+            Instant nextActionAt
+    ) {}
+
+    public record JobStatusProjection(
+            Integer jobId,
+            Integer id,
+            JobStatusEnum jobStatus,
+            OfferStatusEnum offerStatus,
+            Instant appliedAt
+    ) {}
+
+    /**
+     * Nombre d'offres par valeur de chaque critère, sous les filtres courants.
+     * Toutes les valeurs des énumérations sont présentes (0 compris).
+     */
+    public record SearchFacets(
+            Map<ContractEnum, Long> contract,
+            Map<WorkModeEnum, Long> workMode,
+            Map<WorkTimeEnum, Long> workTime,
+            Map<OfferStatusEnum, Long> offerStatus
+    ) {}
 }
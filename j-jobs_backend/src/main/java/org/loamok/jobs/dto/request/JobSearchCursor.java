@@ -0,0 +1,53 @@
+package org.loamok.jobs.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Curseur opaque de la pagination par clé (keyset) de la recherche.
+ *
+ * Il porte l'ordre de tri pour lequel il a été émis, le sens de parcours
+ * et les valeurs des clés de tri de la ligne de bord (id_job en dernier).
+ *
+ * @author Huby Franck
+ */
+public record JobSearchCursor(String sort, boolean backward, List<String> keys) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = ".";
+
+    public String encode() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringBuilder token = new StringBuilder(VERSION)
+                .append(SEPARATOR).append(encoder.encodeToString(sort.getBytes(StandardCharsets.UTF_8)))
+                .append(SEPARATOR).append(backward ? "b" : "f");
+
+        for (String key : keys) {
+            token.append(SEPARATOR).append(encoder.encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        return token.toString();
+    }
+
+    public static JobSearchCursor decode(String token) {
+        String[] parts = token.split("\\" + SEPARATOR, -1);
+
+        if (parts.length < 4 || !VERSION.equals(parts[0]) || !(parts[2].equals("f") || parts[2].equals("b"))) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        List<String> keys = new ArrayList<>();
+        for (int i = 3; i < parts.length; i++) {
+            keys.add(new String(decoder.decode(parts[i]), StandardCharsets.UTF_8));
+        }
+
+        return new JobSearchCursor(
+                new String(decoder.decode(parts[1]), StandardCharsets.UTF_8),
+                parts[2].equals("b"),
+                List.copyOf(keys)
+        );
+    }
+}
@@ -28,7 +28,7 @@ public class JobSearchRequest {
     private boolean officialdom;
     @Schema(description = "Status de l'offre", example = "A_EN_COURS", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
     private OfferStatusEnum offerStatus;
-    @Schema(description = "Ordre de tri", example = "A-Z", requiredMode = Schema.RequiredMode.REQUIRED)
+    @Schema(description = "Ordre de tri (A-Z, Z-A, DATE_ASC, DATE_DESC, RELEVANCE)", example = "A-Z", requiredMode = Schema.RequiredMode.REQUIRED)
     @NotBlank
     private String sort;
     @Schema(description = "Recherche libre", example = "...", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
@@ -52,4 +52,20 @@ public class JobSearchRequest {
         }
         return eventBefore.atTime(23, 59, 59).toInstant(ZoneOffset.UTC);
     }
+
+    /**
+     * Forme du filtre (critères hors tri), clé des totaux mémorisés.
+     */
+    public String filterShape() {
+        return String.join("|",
+                String.valueOf(contract),
+                String.valueOf(workMode),
+                String.valueOf(workTime),
+                String.valueOf(offerStatus),
+                String.valueOf(officialdom),
+                String.valueOf(eventAfter),
+                String.valueOf(eventBefore),
+                textual == null ? "" : textual.trim().toLowerCase()
+        );
+    }
 }
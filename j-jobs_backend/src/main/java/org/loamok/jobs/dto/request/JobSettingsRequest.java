@@ -0,0 +1,23 @@
+package org.loamok.jobs.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Réglages du suivi des candidatures de l'utilisateur")
+@Data
+public class JobSettingsRequest {
+    @Schema(description = "Jours sans nouvelle avant relance automatique (0 : jamais, absent : délai par défaut)", example = "10",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    @Min(0)
+    @Max(365)
+    private Integer followUpDays;
+    @Schema(description = "Récapitulatif quotidien par courriel des offres à traiter (absent : non)", example = "true",
+            requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private Boolean digestOptIn;
+}
@@ -0,0 +1,23 @@
+package org.loamok.jobs.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import java.util.Set;
+import lombok.Data;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Changement de statut de plusieurs offres : par identifiants, par critères de recherche, ou les deux")
+@Data
+public class JobStatusTransitionRequest {
+    @Schema(description = "Identifiants des offres", example = "[12, 15, 18]", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private Set<Integer> ids;
+    @Schema(description = "Critères de sélection (ceux de la recherche, tri ignoré)", requiredMode = Schema.RequiredMode.NOT_REQUIRED)
+    private JobSearchRequest selector;
+    @Schema(description = "Nouveau status des offres", example = "B_RELANCE_A", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull
+    private OfferStatusEnum offerStatus;
+}
@@ -0,0 +1,18 @@
+package org.loamok.jobs.dto.request;
+
+/**
+ *
+ * ### MODE_PAGINATION
+ * - `OFFSET` : pagination classique par numéro de page
+ * - `KEYSET` : pagination par curseur (seek), coût constant quelle que soit la page
+ * - `SLICE` : pagination par numéro de page sans comptage, seule l'existence d'une page suivante est connue
+ * - `ESTIMATED` : pagination par numéro de page, total mémorisé jusqu'à la prochaine écriture
+ *
+ * @author Huby Franck
+ */
+public enum PaginationModeEnum {
+    OFFSET,
+    KEYSET,
+    SLICE,
+    ESTIMATED;
+}
@@ -0,0 +1,29 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Bilan d'un passage d'ingestion des offres officielles (/jobs/ingestion).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Bilan de l'ingestion des offres officielles")
+public record IngestionReport(
+        @Schema(description = "Source interrogée", example = "file")
+        String source,
+        @Schema(description = "Offres reçues de la source depuis le dernier point de reprise", example = "40")
+        long fetched,
+        @Schema(description = "Offres créées", example = "12")
+        long created,
+        @Schema(description = "Offres modifiées chez la source et mises à jour", example = "3")
+        long updated,
+        @Schema(description = "Offres déjà saisies, rattachées sans doublon", example = "2")
+        long linked,
+        @Schema(description = "Offres inchangées ou en double dans le flux", example = "21")
+        long unchanged,
+        @Schema(description = "Offres incomplètes ou lots en échec", example = "2")
+        long rejected,
+        @Schema(description = "Tous les lots ont été enregistrés : le point de reprise est à jour", example = "true")
+        boolean complete
+) {
+}
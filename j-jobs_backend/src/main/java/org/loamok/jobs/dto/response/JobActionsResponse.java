@@ -0,0 +1,48 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Offres en attente d'une action, par échéance (/jobs/actions).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Liste « à faire » de l'utilisateur, de l'échéance la plus proche à la plus lointaine")
+public record JobActionsResponse(
+        @Schema(description = "Offres en attente d'une action")
+        List<Action> actions
+) {
+
+    /**
+     * ### ACTION
+     * - `FOLLOW_UP` : relance nécessaire
+     * - `INTERVIEW` : entretien programmé
+     * - `STALE_APPLICATION` : candidature sans nouvelle depuis le délai de relance
+     */
+    public enum ActionType {
+        FOLLOW_UP, INTERVIEW, STALE_APPLICATION;
+    }
+
+    @Schema(description = "Offre en attente d'une action")
+    public record Action(
+            @Schema(description = "Identifiant de l'offre", example = "42")
+            Integer id,
+            @Schema(description = "Intitulé", example = "Développeur Java")
+            String position,
+            @Schema(description = "Entreprise", example = "ACME")
+            String compagny,
+            @Schema(description = "Ville", example = "Lyon")
+            String city,
+            @Schema(description = "Status", example = "B_RELANCE_A")
+            String offerStatus,
+            @Schema(description = "Action attendue", example = "FOLLOW_UP")
+            ActionType action,
+            @Schema(description = "Échéance de l'action")
+            Instant dueAt,
+            @Schema(description = "Échéance dépassée")
+            boolean overdue
+    ) {
+    }
+}
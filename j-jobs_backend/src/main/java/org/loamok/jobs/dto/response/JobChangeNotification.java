@@ -0,0 +1,17 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Donnée de l'évènement job-changed du flux /jobs/events.
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Notification de modification d'une offre")
+public record JobChangeNotification(
+        @Schema(description = "Identifiant de l'offre, absent pour un lot d'offres", example = "42")
+        Integer jobId,
+        @Schema(description = "Nature de la modification (CREATED, UPDATED, DELETED, IMPORTED, STATUS_CHANGED)", example = "UPDATED")
+        String type
+) {
+}
@@ -0,0 +1,41 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Groupes d'offres probablement saisies plusieurs fois (/jobs/duplicates).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Groupes de doublons probables parmi les offres de l'utilisateur")
+public record JobDuplicatesResponse(
+        @Schema(description = "Groupes de doublons, du plus ancien au plus récent")
+        List<Cluster> clusters
+) {
+
+    @Schema(description = "Offres probablement identiques entre elles")
+    public record Cluster(
+            @Schema(description = "Offres du groupe, de la plus ancienne à la plus récente")
+            List<Member> jobs
+    ) {
+    }
+
+    @Schema(description = "Offre d'un groupe de doublons")
+    public record Member(
+            @Schema(description = "Identifiant de l'offre", example = "42")
+            Integer id,
+            @Schema(description = "Intitulé", example = "Développeur Java")
+            String position,
+            @Schema(description = "Entreprise", example = "ACME")
+            String compagny,
+            @Schema(description = "Ville", example = "Lyon")
+            String city,
+            @Schema(description = "Status", example = "B_EN_ATTENTE")
+            String offerStatus,
+            @Schema(description = "Date de création")
+            Instant createdAt
+    ) {
+    }
+}
@@ -0,0 +1,38 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/**
+ * Rapport d'un import d'offres en masse (/jobs/import).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Rapport d'import : offres enregistrées et lignes rejetées")
+public record JobImportReport(
+        @Schema(description = "Lignes lues (hors en-tête)", example = "120")
+        long rows,
+        @Schema(description = "Offres enregistrées", example = "117")
+        long imported,
+        @Schema(description = "Lignes rejetées", example = "3")
+        long rejected,
+        @Schema(description = "Le fichier dépasse le nombre de lignes autorisé, la fin n'a pas été lue", example = "false")
+        boolean truncated,
+        @Schema(description = "Détail des lignes rejetées (borné)")
+        List<RowError> errors
+) {
+
+    /**
+     * Ligne rejetée : numéro de ligne de données (1 = première offre) et motif.
+     */
+    @Schema(description = "Ligne rejetée")
+    public record RowError(
+            @Schema(description = "Numéro de la ligne de données, en-tête exclu", example = "12")
+            long row,
+            @Schema(description = "Champ manquant ou invalide, si connu", example = "contract")
+            String field,
+            @Schema(description = "Motif du rejet", example = "Champ obligatoire manquant")
+            String message
+    ) {
+    }
+}
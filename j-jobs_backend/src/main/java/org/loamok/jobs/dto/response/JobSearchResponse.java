@@ -0,0 +1,96 @@
+package org.loamok.jobs.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réponse HAL de la recherche d'offres.
+ *
+ * Les noms JSON sont explicites (ils ne passent pas par la stratégie
+ * SNAKE_CASE) et reproduisent le contrat GetJobsResponse du frontend,
+ * y compris les clés historiquement en camelCase (workTime, workMode, offerStatus).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Réponse HAL de la recherche d'offres")
+public record JobSearchResponse(
+        @JsonProperty("_embedded") Embedded embedded,
+        @JsonProperty("_links") Links links,
+        @JsonProperty("page") PageInfo page,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        @JsonProperty("facets") Facets facets
+) {
+
+    public JobSearchResponse(Embedded embedded, Links links, PageInfo page) {
+        this(embedded, links, page, null);
+    }
+
+    public JobSearchResponse withFacets(Facets facets) {
+        return new JobSearchResponse(embedded, links, page, facets);
+    }
+
+    public record Embedded(@JsonProperty("jobs") List<JobItem> jobs) {}
+
+    public record Link(@JsonProperty("href") String href) {}
+
+    public record SelfLink(@JsonProperty("self") Link self) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Links(
+            @JsonProperty("self") Link self,
+            @JsonProperty("first") Link first,
+            @JsonProperty("last") Link last,
+            @JsonProperty("prev") Link prev,
+            @JsonProperty("next") Link next
+    ) {}
+
+    public record JobItem(
+            @JsonProperty("position") String position,
+            @JsonProperty("compagny") String compagny,
+            @JsonProperty("city") String city,
+            @JsonProperty("from_official_dom") boolean fromOfficialDom,
+            @JsonProperty("application_date") Instant applicationDate,
+            @JsonProperty("created_at") Instant createdAt,
+            @JsonProperty("updated_at") Instant updatedAt,
+            @JsonProperty("contract") String contract,
+            @JsonProperty("workTime") String workTime,
+            @JsonProperty("workMode") String workMode,
+            @JsonProperty("offerStatus") String offerStatus,
+            @JsonInclude(JsonInclude.Include.NON_EMPTY)
+            @JsonProperty("job_has_statuses") List<StatusItem> jobHasStatuses,
+            @JsonProperty("_links") SelfLink links
+    ) {}
+
+    public record StatusItem(
+            @JsonProperty("id") Integer id,
+            @JsonProperty("job_status") String jobStatus,
+            @JsonProperty("offer_status") String offerStatus,
+            @JsonProperty("applied_at") Instant appliedAt
+    ) {}
+
+    /**
+     * Seule la taille est toujours présente : les modes SLICE et KEYSET
+     * n'exposent pas de total.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PageInfo(
+            @JsonProperty("size") Integer size,
+            @JsonProperty("total_elements") Long totalElements,
+            @JsonProperty("total_pages") Integer totalPages,
+            @JsonProperty("number") Integer number
+    ) {}
+
+    /**
+     * Compteurs par valeur de critère (facets=true), sous les filtres courants.
+     */
+    public record Facets(
+            @JsonProperty("contract") Map<String, Long> contract,
+            @JsonProperty("workMode") Map<String, Long> workMode,
+            @JsonProperty("workTime") Map<String, Long> workTime,
+            @JsonProperty("offerStatus") Map<String, Long> offerStatus
+    ) {}
+}
@@ -0,0 +1,19 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Réglages du suivi des candidatures de l'utilisateur (/jobs/settings).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Réglages du suivi des candidatures")
+public record JobSettingsResponse(
+        @Schema(description = "Délai de relance choisi par l'utilisateur, null s'il suit le délai par défaut", example = "10")
+        Integer followUpDays,
+        @Schema(description = "Délai de relance appliqué, en jours (0 : pas de relance automatique)", example = "7")
+        int effectiveFollowUpDays,
+        @Schema(description = "Récapitulatif quotidien par courriel des offres à traiter", example = "true")
+        boolean digestOptIn
+) {
+}
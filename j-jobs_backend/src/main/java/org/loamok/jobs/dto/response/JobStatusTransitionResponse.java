@@ -0,0 +1,29 @@
+package org.loamok.jobs.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+/**
+ * Résultat d'un changement de statut de masse (/jobs/transition).
+ *
+ * @author Huby Franck
+ */
+@Schema(description = "Offres dont le statut a changé")
+public record JobStatusTransitionResponse(
+        @Schema(description = "Nombre d'offres modifiées (celles déjà au statut demandé sont ignorées)", example = "12")
+        int updated,
+        @Schema(description = "Détail des offres modifiées")
+        List<Transition> jobs
+) {
+
+    @Schema(description = "Offre modifiée")
+    public record Transition(
+            @Schema(description = "Identifiant de l'offre", example = "42")
+            Integer id,
+            @Schema(description = "Ancien status", example = "B_EN_ATTENTE")
+            String from,
+            @Schema(description = "Nouveau status", example = "B_RELANCE_A")
+            String to
+    ) {
+    }
+}
@@ -2,7 +2,13 @@ package org.loamok.jobs.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import lombok.Data;
+import org.loamok.jobs.dto.JobsDto;
+import org.loamok.jobs.entity.enums.LogicalStatusEnum;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
 
 /**
  *
@@ -23,4 +29,34 @@ public class StatusCountResponse {
     @JsonProperty("REFUSE")
     @Schema(name = "REFUSE", description = "Compteur d'offres << refusées (candidature ou offre) >>", example = "2")
     private long REFUSE;
+
+    /**
+     * Regroupe les compteurs par statut d'offre en statuts logiques.
+     */
+    public static StatusCountResponse of(List<JobsDto.StatusCountProjection> dbCounts) {
+        StatusCountResponse response = new StatusCountResponse();
+
+        Map<OfferStatusEnum, Long> countMap = dbCounts.stream()
+                .collect(Collectors.toMap(
+                        JobsDto.StatusCountProjection::status,
+                        JobsDto.StatusCountProjection::count
+                ));
+
+        for (LogicalStatusEnum logicalStatus : LogicalStatusEnum.values()) {
+            long totalCount = 0;
+
+            for (OfferStatusEnum offerStatus : logicalStatus.getOfferStatuses()) {
+                totalCount += countMap.getOrDefault(offerStatus, 0L);
+            }
+
+            switch (logicalStatus) {
+                case EN_COURS -> response.setEN_COURS(totalCount);
+                case EN_ATTENTE -> response.setEN_ATTENTE(totalCount);
+                case ENTRETIEN -> response.setENTRETIEN(totalCount);
+                case REFUSE -> response.setREFUSE(totalCount);
+            }
+        }
+
+        return response;
+    }
 }
@@ -0,0 +1,59 @@
+package org.loamok.jobs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Offre officielle déjà reçue par un utilisateur : offre créée ou rapprochée
+ * et empreinte de la dernière version appliquée. Une offre renvoyée à
+ * l'identique par la source n'est pas réécrite.
+ *
+ * @author Huby Franck
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(IngestedOffer.Key.class)
+@Table(name = "ingested_offers", indexes = {
+    @Index(name = "idx_ingested_offers_job", columnList = "id_job")
+})
+public class IngestedOffer {
+
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+    @Id
+    @Column(name = "source", nullable = false, length = 50)
+    private String source;
+    @Id
+    @Column(name = "external_id", nullable = false, length = 100)
+    private String externalId;
+    @Column(name = "id_job", nullable = false)
+    private Integer jobId;
+    @Column(name = "revision_hash", nullable = false, length = 32)
+    private String revisionHash;
+    @Column(name = "ingested_at", nullable = false)
+    private Instant ingestedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Integer userId;
+        private String source;
+        private String externalId;
+    }
+}
@@ -0,0 +1,49 @@
+package org.loamok.jobs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point de reprise de l'ingestion d'une source pour un utilisateur : position
+ * (opaque, fournie par la source) de la dernière offre traitée.
+ *
+ * @author Huby Franck
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(IngestionCheckpoint.Key.class)
+@Table(name = "ingestion_checkpoints")
+public class IngestionCheckpoint {
+
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+    @Id
+    @Column(name = "source", nullable = false, length = 50)
+    private String source;
+    @Column(name = "position", nullable = false, length = 150)
+    private String position;
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Integer userId;
+        private String source;
+    }
+}
@@ -1,11 +1,12 @@
 package org.loamok.jobs.entity;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,9 +14,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AccessLevel;
@@ -26,12 +35,18 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.loamok.jobs.entity.converter.ContractConverter;
+import org.loamok.jobs.entity.converter.OfferStatusConverter;
+import org.loamok.jobs.entity.converter.WorkModeConverter;
+import org.loamok.jobs.entity.converter.WorkTimeConverter;
 import org.loamok.jobs.entity.enums.ContractEnum;
 import org.loamok.jobs.entity.enums.OfferStatusEnum;
 import org.loamok.jobs.entity.enums.WorkModeEnum;
 import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.loamok.jobs.event.JobDataVersionListener;
 import org.loamok.libs.o2springsecurity.entity.User;
 
 /**
@@ -42,16 +57,30 @@ import org.loamok.libs.o2springsecurity.entity.User;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EqualsAndHashCode(exclude = {"jobHasStatuses", "user"})
+@EqualsAndHashCode(exclude = {"jobHasStatuses", "user", "probableDuplicates"})
 @Entity
-@ToString(exclude = {"jobHasStatuses", "user"})
+@EntityListeners(JobDataVersionListener.class)
+@ToString(exclude = {"jobHasStatuses", "user", "probableDuplicates"})
 @Table(name = "jobs", indexes = {
-    @Index(columnList = "position")
+    @Index(columnList = "position"),
+    @Index(name = "idx_jobs_user_last_activity", columnList = "id_user, last_activity_at"),
+    @Index(name = "idx_jobs_user_first_activity", columnList = "id_user, first_activity_at"),
+    @Index(name = "idx_jobs_offer_status_code_id", columnList = "offer_status_code, id_job"),
+    @Index(name = "idx_jobs_user_offer_status_code", columnList = "id_user, offer_status_code"),
+    @Index(name = "idx_jobs_user_next_action", columnList = "id_user, next_action_at")
 })
+@NamedEntityGraph(name = Job.GRAPH_WITH_STATUSES, attributeNodes = @NamedAttributeNode("jobHasStatuses"))
 public class Job {
+
+    public static final String GRAPH_WITH_STATUSES = "Job.jobHasStatuses";
     
+    /**
+     * Identifiants tirés d'une séquence par blocs de 50 (optimiseur pooled) :
+     * contrairement à IDENTITY, les insertions peuvent être groupées en lots JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jobs_seq")
+    @SequenceGenerator(name = "jobs_seq", sequenceName = "jobs_seq", allocationSize = 50)
     @Column(name = "id_job")
     private Integer id;
     @Column(name = "position", length = 200, nullable = false)
@@ -63,39 +92,93 @@ public class Job {
     @Column(name = "city", length = 200, nullable = false)
     private String city;
     
-    // cas particulier Enums ...
+    // cas particulier Enums : codes smallint (LabelledEnum#getCode), colonnes
+    // rendues NOT NULL par JobSchemaBackfill après reprise des anciennes
     @Setter(AccessLevel.NONE)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "contract", nullable = false, length = 50)
+    @Convert(converter = ContractConverter.class)
+    @Column(name = "contract_code")
     private ContractEnum contract;
     @Setter(AccessLevel.NONE)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "work_time", nullable = false, length = 50)
+    @Convert(converter = WorkTimeConverter.class)
+    @Column(name = "work_time_code")
     private WorkTimeEnum workTime;
     @Setter(AccessLevel.NONE)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "work_mode", nullable = false, length = 50)
+    @Convert(converter = WorkModeConverter.class)
+    @Column(name = "work_mode_code")
     private WorkModeEnum workMode;
     @Setter(AccessLevel.NONE)
-    @Enumerated(EnumType.STRING)
-    @Column(name = "offer_status", nullable = false, length = 50)
+    @Convert(converter = OfferStatusConverter.class)
+    @Column(name = "offer_status_code")
     private OfferStatusEnum offerStatus;
     
     @Column(name = "from_officialdom", nullable = true)
     private boolean fromOfficialDom;
     @Column(name = "application_date", nullable = true)
     private Instant applicationDate;
+    /**
+     * Date de l'entretien programmé, reprise dans le récapitulatif quotidien
+     * tant qu'elle est à venir.
+     */
+    @Column(name = "interview_at", nullable = true)
+    private Instant interviewAt;
     @CreationTimestamp
     private Instant createdAt;
     @UpdateTimestamp
     private Instant updatedAt;
+    /**
+     * Version de l'offre, servie en ETag par Spring Data REST : un PUT/PATCH
+     * porteur d'un If-Match périmé, ou validé après une écriture concurrente,
+     * est refusé (412) au lieu d'écraser l'autre modification.
+     * Nullable dans le mapping pour la mise à jour de schéma, rattrapée à 0
+     * puis rendue NOT NULL côté PostgreSQL au démarrage par JobSchemaBackfill.
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "version")
+    private Long version;
+    /**
+     * Dates dénormalisées : plus récente et plus ancienne des dates de création,
+     * de modification et de candidature. Elles portent les filtres d'évènements
+     * et le tri par dates (index avec id_user).
+     * Nullables dans le mapping pour la mise à jour de schéma, rattrapées puis
+     * rendues NOT NULL côté PostgreSQL au démarrage par JobSchemaBackfill.
+     */
+    @Setter(AccessLevel.NONE)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "last_activity_at")
+    private Instant lastActivityAt;
+    @Setter(AccessLevel.NONE)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "first_activity_at")
+    private Instant firstActivityAt;
+    /**
+     * Dernier changement de statut (date de la dernière ligne d'historique).
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "status_changed_at")
+    private Instant statusChangedAt;
+    /**
+     * Échéance de la prochaine action attendue sur l'offre (voir
+     * {@link #nextActionAt}), null s'il n'y en a pas : porte la liste « à
+     * faire » par l'index id_user, next_action_at. Tenue à jour à chaque
+     * changement de statut ou de date d'entretien et à chaque changement du
+     * délai de relance de l'utilisateur (JobNextActions).
+     * Nullables dans le mapping pour la mise à jour de schéma, rattrapées
+     * côté PostgreSQL au démarrage par JobSchemaBackfill.
+     */
+    @Setter(AccessLevel.NONE)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "next_action_at")
+    private Instant nextActionAt;
     
     // relations 
     /**
      * Relation avec JobHasStatus *
      */
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
-    @OneToMany(mappedBy = "job", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "job", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<JobHasStatus> jobHasStatuses = new ArrayList<>();
     /**
@@ -106,6 +189,65 @@ public class Job {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private User user;
 
+    /**
+     * Offres de l'utilisateur probablement identiques, relevées à
+     * l'enregistrement : présentes dans la seule réponse du POST /jobs.
+     */
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<Integer> probableDuplicates;
+
+    /**
+     * Les horodatages Hibernate ne sont pas encore posés à ce stade : l'instant
+     * courant tient lieu de date de création (insertion) et de modification.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void refreshActivityDates() {
+        Instant now = Instant.now();
+        Instant created = createdAt == null ? now : createdAt;
+
+        lastActivityAt = applicationDate != null && applicationDate.isAfter(now) ? applicationDate : now;
+        firstActivityAt = applicationDate != null && applicationDate.isBefore(created) ? applicationDate : created;
+
+        if (statusChangedAt == null) {
+            statusChangedAt = created;
+        }
+    }
+
+    /**
+     * Recalcule l'échéance de la prochaine action.
+     *
+     * @param followUpDays délai de relance du propriétaire (0 : pas de relance)
+     */
+    public void refreshNextAction(int followUpDays) {
+        nextActionAt = nextActionAt(offerStatus, statusChangedAt, interviewAt, followUpDays);
+    }
+
+    /**
+     * Échéance de la prochaine action selon le statut :
+     * - relance nécessaire : dès le passage dans ce statut ;
+     * - entretien : la date de l'entretien, si elle est connue ;
+     * - candidature en cours ou en attente : la fin du délai de relance,
+     * compté depuis le dernier changement de statut ;
+     * - autres statuts : aucune.
+     */
+    public static Instant nextActionAt(OfferStatusEnum offerStatus, Instant statusChangedAt, Instant interviewAt, int followUpDays) {
+        if (offerStatus == null) {
+            return null;
+        }
+
+        return switch (offerStatus) {
+            case B_RELANCE_A -> statusChangedAt;
+            case D_ENTRETIEN -> interviewAt;
+            case A_EN_COURS, B_EN_ATTENTE -> followUpDays > 0 && statusChangedAt != null
+                    ? statusChangedAt.plus(followUpDays, ChronoUnit.DAYS)
+                    : null;
+            default -> null;
+        };
+    }
+
     // encore une couche sur les enums
     public void setOfferStatus(OfferStatusEnum status) {
         this.offerStatus = status;
@@ -0,0 +1,32 @@
+package org.loamok.jobs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version des données d'offres d'un utilisateur, avancée dans la transaction
+ * de chaque écriture (voir JobDataVersions) : partagée par toutes les
+ * instances de l'application.
+ *
+ * @author Huby Franck
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "job_data_versions")
+public class JobDataVersion {
+
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+    @Column(name = "version", nullable = false)
+    private long version;
+}
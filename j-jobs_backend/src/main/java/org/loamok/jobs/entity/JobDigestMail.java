@@ -0,0 +1,81 @@
+package org.loamok.jobs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Récapitulatif quotidien préparé pour un utilisateur, en attente d'envoi
+ * (table d'envoi différé) : un par utilisateur et par jour, rendu à la
+ * préparation, envoyé puis retenté en cas d'échec par JobDigestSender.
+ *
+ * @author Huby Franck
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(JobDigestMail.Key.class)
+@Table(name = "job_digest_outbox", indexes = {
+    @Index(name = "idx_job_digest_outbox_due", columnList = "state, next_attempt_at")
+})
+public class JobDigestMail {
+
+    /**
+     * ### ETAT_ENVOI
+     * - `PENDING` : à envoyer (première tentative ou nouvelle tentative)
+     * - `SENT` : envoyé
+     * - `FAILED` : abandonné après le nombre maximal de tentatives
+     */
+    public enum State {
+        PENDING, SENT, FAILED;
+    }
+
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+    @Id
+    @Column(name = "digest_date", nullable = false)
+    private LocalDate digestDate;
+    @Column(name = "recipient", nullable = false, length = 255)
+    private String recipient;
+    @Column(name = "subject", nullable = false, length = 255)
+    private String subject;
+    @Column(name = "body", columnDefinition = "TEXT", nullable = false)
+    private String body;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private State state;
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+    @Column(name = "last_error", nullable = true, length = 500)
+    private String lastError;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "sent_at", nullable = true)
+    private Instant sentAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Integer userId;
+        private LocalDate digestDate;
+    }
+}
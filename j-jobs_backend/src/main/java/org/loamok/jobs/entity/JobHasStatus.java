@@ -1,13 +1,17 @@
 package org.loamok.jobs.entity;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
@@ -17,8 +21,11 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.loamok.jobs.entity.converter.JobStatusConverter;
+import org.loamok.jobs.entity.converter.OfferStatusConverter;
 import org.loamok.jobs.entity.enums.JobStatusEnum;
 import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.event.JobDataVersionListener;
 
 /**
  *
@@ -30,16 +37,22 @@ import org.loamok.jobs.entity.enums.OfferStatusEnum;
 @Builder
 @EqualsAndHashCode(exclude = {"job"})
 @Entity
+@EntityListeners(JobDataVersionListener.class)
 @ToString(exclude = {"job"})
-@Table(name = "JOBS_HAS_STATUS")
+@Table(name = "JOBS_HAS_STATUS", indexes = {
+    @Index(name = "idx_jobs_has_status_job_applied", columnList = "job_id, applied_at")
+})
 public class JobHasStatus {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jobs_has_status_seq")
+    @SequenceGenerator(name = "jobs_has_status_seq", sequenceName = "jobs_has_status_seq", allocationSize = 50)
     @Column(name = "id_jhs")
     private Integer id;
-    @Column(name = "job_status", nullable = false, length = 50)
+    @Convert(converter = JobStatusConverter.class)
+    @Column(name = "job_status", nullable = false)
     private JobStatusEnum jobStatus;
-    @Column(name = "offer_status", nullable = false, length = 50)
+    @Convert(converter = OfferStatusConverter.class)
+    @Column(name = "offer_status", nullable = false)
     private OfferStatusEnum offerStatus;
     @CreationTimestamp
     private Instant appliedAt;
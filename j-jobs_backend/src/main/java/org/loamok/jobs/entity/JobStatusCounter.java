@@ -0,0 +1,50 @@
+package org.loamok.jobs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+
+/**
+ * Nombre d'offres d'un utilisateur par statut, tenu à jour dans la transaction
+ * qui crée, modifie ou supprime l'offre (voir JobStatusCounterListener).
+ *
+ * @author Huby Franck
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(JobStatusCounter.Key.class)
+@Table(name = "job_status_counters")
+public class JobStatusCounter {
+
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "offer_status", nullable = false, length = 50)
+    private OfferStatusEnum offerStatus;
+    @Column(name = "job_count", nullable = false)
+    private long jobCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Integer userId;
+        private OfferStatusEnum offerStatus;
+    }
+}
@@ -0,0 +1,45 @@
+package org.loamok.jobs.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+/**
+ * Réglages du suivi des candidatures propres à un utilisateur ; sans ligne,
+ * les valeurs par défaut de l'application s'appliquent.
+ *
+ * @author Huby Franck
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_job_settings")
+public class UserJobSettings {
+
+    @Id
+    @Column(name = "id_user", nullable = false)
+    private Integer userId;
+    /**
+     * Jours sans nouvelle d'une candidature avant qu'elle passe en relance
+     * nécessaire ; null : délai par défaut, 0 : pas de relance automatique.
+     */
+    @Column(name = "follow_up_days", nullable = true)
+    private Integer followUpDays;
+    /**
+     * Récapitulatif quotidien par courriel des offres à traiter (relances,
+     * entretiens à venir) ; null : pas de récapitulatif.
+     */
+    @Column(name = "digest_opt_in", nullable = true)
+    private Boolean digestOptIn;
+    @UpdateTimestamp
+    private Instant updatedAt;
+}
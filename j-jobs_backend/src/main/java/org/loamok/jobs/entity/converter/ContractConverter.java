@@ -0,0 +1,16 @@
+package org.loamok.jobs.entity.converter;
+
+import jakarta.persistence.Converter;
+import org.loamok.jobs.entity.enums.ContractEnum;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Converter
+public class ContractConverter extends LabelledEnumConverter<ContractEnum> {
+
+    public ContractConverter() {
+        super(ContractEnum.class);
+    }
+}
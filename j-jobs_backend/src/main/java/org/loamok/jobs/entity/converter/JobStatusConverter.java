@@ -0,0 +1,16 @@
+package org.loamok.jobs.entity.converter;
+
+import jakarta.persistence.Converter;
+import org.loamok.jobs.entity.enums.JobStatusEnum;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Converter
+public class JobStatusConverter extends LabelledEnumConverter<JobStatusEnum> {
+
+    public JobStatusConverter() {
+        super(JobStatusEnum.class);
+    }
+}
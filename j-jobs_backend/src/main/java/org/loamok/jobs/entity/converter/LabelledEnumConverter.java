@@ -0,0 +1,55 @@
+package org.loamok.jobs.entity.converter;
+
+import jakarta.persistence.AttributeConverter;
+import java.util.HashMap;
+import java.util.Map;
+import org.loamok.jobs.entity.enums.LabelledEnum;
+
+/**
+ * Stockage d'une énumération par son code (smallint) plutôt que par son nom
+ * (VARCHAR) ou son rang : lignes et index plus courts, et ordre des
+ * constantes libre.
+ *
+ * Les codes sont vérifiés au chargement : deux constantes de même code
+ * empêchent le démarrage. Le tri sur une colonne convertie suit les codes :
+ * ceux des énumérations de jobs suivent l'ordre alphabétique des noms, que
+ * tout nouveau code doit respecter (préfixes de OfferStatusEnum).
+ *
+ * @author Huby Franck
+ */
+public abstract class LabelledEnumConverter<E extends Enum<E> & LabelledEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> enumClass;
+    private final Map<Short, E> byCode = new HashMap<>();
+
+    protected LabelledEnumConverter(Class<E> enumClass) {
+        this.enumClass = enumClass;
+
+        for (E constant : enumClass.getEnumConstants()) {
+            E previous = byCode.put(constant.getCode(), constant);
+            if (previous != null) {
+                throw new IllegalStateException("Code " + constant.getCode() + " en double dans "
+                        + enumClass.getSimpleName() + " : " + previous.name() + ", " + constant.name());
+            }
+        }
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E attribute) {
+        return attribute == null ? null : attribute.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short dbData) {
+        if (dbData == null) {
+            return null;
+        }
+
+        E constant = byCode.get(dbData);
+        if (constant == null) {
+            throw new IllegalArgumentException("Code inconnu pour " + enumClass.getSimpleName() + " : " + dbData);
+        }
+
+        return constant;
+    }
+}
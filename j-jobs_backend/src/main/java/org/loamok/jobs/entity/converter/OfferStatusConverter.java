@@ -0,0 +1,16 @@
+package org.loamok.jobs.entity.converter;
+
+import jakarta.persistence.Converter;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Converter
+public class OfferStatusConverter extends LabelledEnumConverter<OfferStatusEnum> {
+
+    public OfferStatusConverter() {
+        super(OfferStatusEnum.class);
+    }
+}
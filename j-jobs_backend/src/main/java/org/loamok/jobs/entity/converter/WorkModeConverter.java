@@ -0,0 +1,16 @@
+package org.loamok.jobs.entity.converter;
+
+import jakarta.persistence.Converter;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Converter
+public class WorkModeConverter extends LabelledEnumConverter<WorkModeEnum> {
+
+    public WorkModeConverter() {
+        super(WorkModeEnum.class);
+    }
+}
@@ -0,0 +1,16 @@
+package org.loamok.jobs.entity.converter;
+
+import jakarta.persistence.Converter;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Converter
+public class WorkTimeConverter extends LabelledEnumConverter<WorkTimeEnum> {
+
+    public WorkTimeConverter() {
+        super(WorkTimeEnum.class);
+    }
+}
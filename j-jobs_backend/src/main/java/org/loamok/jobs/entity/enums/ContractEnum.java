@@ -16,18 +16,25 @@ import lombok.ToString;
  */
 @ToString(of = {"name"})
 public enum ContractEnum implements LabelledEnum {
-    CDD("Contrat à Durée Déterminée"),
-    CDI("Contrat à Durée Indéterminée"),
-    FREELANCE("Travail en freelance"),
-    INTERIM("Contrat d'intérim"),
-    MISSION("Mission ponctuelle");
+    CDD(0, "Contrat à Durée Déterminée"),
+    CDI(1, "Contrat à Durée Indéterminée"),
+    FREELANCE(2, "Travail en freelance"),
+    INTERIM(3, "Contrat d'intérim"),
+    MISSION(4, "Mission ponctuelle");
     
+    private final short code;
     private final String label;
     
-    private ContractEnum(String label) {
+    private ContractEnum(int code, String label) {
+        this.code = (short) code;
         this.label = label;
     }
     
+    @Override
+    public short getCode() {
+        return code;
+    }
+    
     @Override
     public String getLabel() {
         return label;
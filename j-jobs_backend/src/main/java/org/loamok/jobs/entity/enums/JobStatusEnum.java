@@ -17,19 +17,26 @@ import lombok.ToString;
  */
 @ToString(of = {"name"})
 public enum JobStatusEnum implements LabelledEnum {
-    CANDIDATURE_ENVOYEE("Candidature envoyée"),
-    RELANCE_A("Relance à faire"),
-    RELANCE_E("Relance effectuée"),
-    REFUS("Refus reçu"),
-    ENTRETIEN("Entretien programmé/passé"),
-    AUTRE("Autre type d'événement");
+    CANDIDATURE_ENVOYEE(0, "Candidature envoyée"),
+    RELANCE_A(1, "Relance à faire"),
+    RELANCE_E(2, "Relance effectuée"),
+    REFUS(3, "Refus reçu"),
+    ENTRETIEN(4, "Entretien programmé/passé"),
+    AUTRE(5, "Autre type d'événement");
     
+    private final short code;
     private final String label;
     
-    private JobStatusEnum(String label) {
+    private JobStatusEnum(int code, String label) {
+        this.code = (short) code;
         this.label = label;
     }
     
+    @Override
+    public short getCode() {
+        return code;
+    }
+    
     @Override
     public String getLabel() {
         return label;
@@ -7,4 +7,10 @@ package org.loamok.jobs.entity.enums;
 public interface LabelledEnum {
     String getName();
     String getLabel();
+    /**
+     * Code stocké en base (smallint, voir LabelledEnumConverter) : attribué
+     * une fois pour toutes, jamais renuméroté ni réutilisé ; l'ordre des
+     * constantes peut changer sans toucher aux données.
+     */
+    short getCode();
 }
@@ -18,19 +18,21 @@ import lombok.ToString;
  */
 @ToString(of = {"name"})
 public enum OfferStatusEnum implements LabelledEnum {
-    A_EN_COURS("Candidature en cours de traitement", JobStatusEnum.CANDIDATURE_ENVOYEE),
-    B_EN_ATTENTE("En attente de retour", JobStatusEnum.CANDIDATURE_ENVOYEE),
-    B_RELANCE_A("Relance nécessaire", JobStatusEnum.RELANCE_A),
-    B_RELANCE_E("Relance éffectuée", JobStatusEnum.RELANCE_E),
-    C_REFUSE("Candidature refusée", JobStatusEnum.REFUS),
-    D_ENTRETIEN("Entretien programmé ou passé", JobStatusEnum.ENTRETIEN),
-    O_ACCEPT("Offre acceptée", JobStatusEnum.AUTRE),
-    O_REFUS("Offre refusée", JobStatusEnum.AUTRE);
+    A_EN_COURS(0, "Candidature en cours de traitement", JobStatusEnum.CANDIDATURE_ENVOYEE),
+    B_EN_ATTENTE(1, "En attente de retour", JobStatusEnum.CANDIDATURE_ENVOYEE),
+    B_RELANCE_A(2, "Relance nécessaire", JobStatusEnum.RELANCE_A),
+    B_RELANCE_E(3, "Relance éffectuée", JobStatusEnum.RELANCE_E),
+    C_REFUSE(4, "Candidature refusée", JobStatusEnum.REFUS),
+    D_ENTRETIEN(5, "Entretien programmé ou passé", JobStatusEnum.ENTRETIEN),
+    O_ACCEPT(6, "Offre acceptée", JobStatusEnum.AUTRE),
+    O_REFUS(7, "Offre refusée", JobStatusEnum.AUTRE);
     
+    private final short code;
     private final String label;
     private final JobStatusEnum correspondingJobStatus;
     
-    private OfferStatusEnum(String label, JobStatusEnum jobStatus) {
+    private OfferStatusEnum(int code, String label, JobStatusEnum jobStatus) {
+        this.code = (short) code;
         this.label = label;
         this.correspondingJobStatus = jobStatus;
     }
@@ -39,6 +41,11 @@ public enum OfferStatusEnum implements LabelledEnum {
         return correspondingJobStatus;
     }
     
+    @Override
+    public short getCode() {
+        return code;
+    }
+    
     @Override
     public String getLabel() {
         return label;
@@ -14,16 +14,23 @@ import lombok.ToString;
  */
 @ToString(of = {"name"})
 public enum WorkModeEnum implements LabelledEnum {
-    DISTANCIEL("Travail à distance"),
-    HYBRIDE("Travail hybride (présentiel + distanciel)"),
-    SUR_SITE("Travail sur site uniquement");
+    DISTANCIEL(0, "Travail à distance"),
+    HYBRIDE(1, "Travail hybride (présentiel + distanciel)"),
+    SUR_SITE(2, "Travail sur site uniquement");
     
+    private final short code;
     private final String label;
     
-    private WorkModeEnum(String label) {
+    private WorkModeEnum(int code, String label) {
+        this.code = (short) code;
         this.label = label;
     }
     
+    @Override
+    public short getCode() {
+        return code;
+    }
+    
     @Override
     public String getLabel() {
         return label;
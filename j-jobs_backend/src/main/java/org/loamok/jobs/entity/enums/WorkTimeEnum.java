@@ -13,15 +13,22 @@ import lombok.ToString;
  */
 @ToString(of = {"name"})
 public enum WorkTimeEnum implements LabelledEnum {
-    PLEIN_TEMPS("Temps plein"),
-    TEMPS_PARTIEL("Temps partiel");
+    PLEIN_TEMPS(0, "Temps plein"),
+    TEMPS_PARTIEL(1, "Temps partiel");
     
+    private final short code;
     private final String label;
     
-    WorkTimeEnum(String label) {
+    WorkTimeEnum(int code, String label) {
+        this.code = (short) code;
         this.label = label;
     }
     
+    @Override
+    public short getCode() {
+        return code;
+    }
+    
     @Override
     public String getLabel() {
         return label;
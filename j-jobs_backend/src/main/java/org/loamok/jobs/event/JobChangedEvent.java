@@ -0,0 +1,41 @@
+package org.loamok.jobs.event;
+
+import org.loamok.jobs.entity.Job;
+
+/**
+ * Événement applicatif publié après chaque écriture sur une offre, pour
+ * tenir à jour les structures dérivées (index, caches, compteurs).
+ *
+ * Les écritures de masse qui contournent Spring Data REST publient elles-mêmes
+ * cet événement.
+ *
+ * @author Huby Franck
+ */
+public record JobChangedEvent(Integer jobId, Integer userId, ChangeTypeEnum type) {
+
+    /**
+     *
+     * ### TYPE_CHANGEMENT
+     * - `CREATED` : offre créée
+     * - `UPDATED` : offre modifiée
+     * - `DELETED` : offre supprimée
+     * - `IMPORTED` : lot d'offres importées (jobId null)
+     * - `STATUS_CHANGED` : statuts d'un lot d'offres changés (jobId null), sans
+     *   effet sur les index textuels
+     */
+    public enum ChangeTypeEnum {
+        CREATED,
+        UPDATED,
+        DELETED,
+        IMPORTED,
+        STATUS_CHANGED;
+    }
+
+    public static JobChangedEvent of(Job job, ChangeTypeEnum type) {
+        return new JobChangedEvent(
+                job.getId(),
+                job.getUser() == null ? null : job.getUser().getId(),
+                type
+        );
+    }
+}
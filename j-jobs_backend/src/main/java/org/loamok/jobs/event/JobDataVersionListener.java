@@ -0,0 +1,44 @@
+package org.loamok.jobs.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.JobHasStatus;
+import org.loamok.jobs.repository.JobDataVersions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avance la version des données du propriétaire à chaque écriture sur une
+ * offre ou son historique.
+ *
+ * La version est avancée en base dans la transaction de l'écriture, juste
+ * avant sa validation (voir JobDataVersions).
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobDataVersionListener {
+
+    // résolu à la première écriture : le listener est créé avec l'EntityManagerFactory
+    private final ObjectProvider<JobDataVersions> versions;
+
+    public JobDataVersionListener(ObjectProvider<JobDataVersions> versions) {
+        this.versions = versions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        Integer userId = switch (entity) {
+            case Job job when job.getUser() != null -> job.getUser().getId();
+            case JobHasStatus jhs when jhs.getJob() != null && jhs.getJob().getUser() != null ->
+                jhs.getJob().getUser().getId();
+            default -> null;
+        };
+
+        versions.getObject().bump(userId);
+    }
+}
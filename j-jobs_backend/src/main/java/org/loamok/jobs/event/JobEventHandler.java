@@ -6,6 +6,10 @@ import org.loamok.jobs.manager.JobService;
 import org.loamok.libs.o2springsecurity.entity.User;
 import org.loamok.libs.o2springsecurity.event.IdentifiedHandler;
 import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
 import org.springframework.data.rest.core.annotation.HandleBeforeCreate;
 import org.springframework.data.rest.core.annotation.HandleBeforeDelete;
 import org.springframework.data.rest.core.annotation.HandleBeforeSave;
@@ -21,21 +25,33 @@ import org.springframework.stereotype.Component;
 public class JobEventHandler extends IdentifiedHandler {
 
     private final JobService jobManager;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public JobEventHandler(UserRepository userRepository, JobManager jobManager) {
+    public JobEventHandler(UserRepository userRepository, JobManager jobManager, ApplicationEventPublisher eventPublisher) {
         super(userRepository);
         this.jobManager = jobManager;
+        this.eventPublisher = eventPublisher;
     }
     
     @HandleBeforeCreate
     public void handleBeforeCreate(Job job) {
         jobManager.registerJob(job);
     }
+
+    @HandleAfterCreate
+    public void handleAfterCreate(Job job) {
+        eventPublisher.publishEvent(JobChangedEvent.of(job, JobChangedEvent.ChangeTypeEnum.CREATED));
+    }
     
     @HandleBeforeSave
     public void handleBeforeSave(Job job) {
         jobManager.updateJob(job);
     }
+
+    @HandleAfterSave
+    public void handleAfterSave(Job job) {
+        eventPublisher.publishEvent(JobChangedEvent.of(job, JobChangedEvent.ChangeTypeEnum.UPDATED));
+    }
     
     @HandleBeforeDelete
     public void handleBeforeDelete(Job job) {
@@ -51,4 +67,9 @@ public class JobEventHandler extends IdentifiedHandler {
         }
         
     }
+
+    @HandleAfterDelete
+    public void handleAfterDelete(Job job) {
+        eventPublisher.publishEvent(JobChangedEvent.of(job, JobChangedEvent.ChangeTypeEnum.DELETED));
+    }
 }
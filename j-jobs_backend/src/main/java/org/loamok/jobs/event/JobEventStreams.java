@@ -0,0 +1,290 @@
+package org.loamok.jobs.event;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.config.JobEventsProperties;
+import org.loamok.jobs.dto.response.JobChangeNotification;
+import org.loamok.jobs.dto.response.StatusCountResponse;
+import org.loamok.jobs.repository.JobRepository;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.event.IdentifiedHandler;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Flux Server-Sent Events des utilisateurs connectés (/jobs/events).
+ *
+ * Chaque {@link JobChangedEvent} pousse aux flux du propriétaire de l'offre
+ * (et aux flux admin) un évènement job-changed, puis ses compteurs par statut
+ * (status-count) s'ils ont changé depuis le dernier envoi.
+ *
+ * Chaque flux a sa propre file d'envoi, vidée par un thread virtuel : un
+ * client lent ne bloque que son flux. Les compteurs en attente sont fusionnés
+ * (seul le dernier état part) et une file pleine est remplacée par un unique
+ * évènement resync, qui invite le client à tout relire.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Component
+public class JobEventStreams extends IdentifiedHandler {
+
+    public static final String STATUS_COUNT = "status-count";
+    public static final String JOB_CHANGED = "job-changed";
+    public static final String RESYNC = "resync";
+
+    private final JobRepository jobRepository;
+    private final JobEventsProperties properties;
+    private final Map<Integer, Deque<Stream>> streamsByUser = new ConcurrentHashMap<>();
+    private final Set<Stream> adminStreams = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public JobEventStreams(UserRepository userRepository, JobRepository jobRepository, JobEventsProperties properties) {
+        super(userRepository);
+        this.jobRepository = jobRepository;
+        this.properties = properties;
+    }
+
+    public SseEmitter openForCurrentUser() {
+        User currentUser = getCurrentUser();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        return open(currentUser, isAdminWithScopeAdmin());
+    }
+
+    public SseEmitter open(User user, boolean adminAccess) {
+        Stream stream = new Stream(user.getId(), adminAccess, new SseEmitter(properties.getStreamTimeout().toMillis()));
+        Deque<Stream> userStreams = streamsByUser.computeIfAbsent(user.getId(), id -> new ArrayDeque<>());
+
+        Stream evicted = null;
+        synchronized (userStreams) {
+            if (userStreams.size() >= properties.getMaxStreamsPerUser()) {
+                evicted = userStreams.pollFirst();
+            }
+            userStreams.addLast(stream);
+        }
+        if (adminAccess) {
+            adminStreams.add(stream);
+        }
+        if (evicted != null) {
+            evicted.close();
+        }
+
+        stream.emitter.onCompletion(() -> remove(stream));
+        stream.emitter.onTimeout(() -> remove(stream));
+        stream.emitter.onError(e -> remove(stream));
+
+        // état initial : le client n'a pas à relire /jobs/statuscount
+        stream.offerCounts(counts(adminAccess ? null : user.getId()));
+
+        return stream.emitter;
+    }
+
+    public int activeStreams(Integer userId) {
+        Deque<Stream> userStreams = streamsByUser.get(userId);
+        if (userStreams == null) {
+            return 0;
+        }
+
+        synchronized (userStreams) {
+            return userStreams.size();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        JobChangeNotification notification = new JobChangeNotification(event.jobId(), event.type().name());
+
+        Deque<Stream> userStreams = event.userId() == null ? null : streamsByUser.get(event.userId());
+        if (userStreams != null) {
+            Stream[] targets;
+            synchronized (userStreams) {
+                targets = userStreams.stream().filter(s -> !s.admin).toArray(Stream[]::new);
+            }
+
+            if (targets.length > 0) {
+                StatusCountResponse counts = counts(event.userId());
+                for (Stream stream : targets) {
+                    stream.offer(SseEmitter.event().name(JOB_CHANGED).data(notification));
+                    stream.offerCounts(counts);
+                }
+            }
+        }
+
+        if (!adminStreams.isEmpty()) {
+            StatusCountResponse counts = counts(null);
+            for (Stream stream : adminStreams) {
+                stream.offer(SseEmitter.event().name(JOB_CHANGED).data(notification));
+                stream.offerCounts(counts);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${loamok.jobs.events.heartbeat:25s}")
+    public void heartbeat() {
+        streamsByUser.values().forEach(userStreams -> {
+            Stream[] targets;
+            synchronized (userStreams) {
+                targets = userStreams.toArray(Stream[]::new);
+            }
+
+            for (Stream stream : targets) {
+                stream.offerHeartbeat();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamsByUser.values().forEach(userStreams -> {
+            Stream[] targets;
+            synchronized (userStreams) {
+                targets = userStreams.toArray(Stream[]::new);
+            }
+
+            for (Stream stream : targets) {
+                stream.close();
+            }
+        });
+        senders.shutdownNow();
+    }
+
+    private StatusCountResponse counts(Integer userId) {
+        return StatusCountResponse.of(jobRepository.countGroupedByStatusForUser(userId));
+    }
+
+    private void remove(Stream stream) {
+        adminStreams.remove(stream);
+
+        Deque<Stream> userStreams = streamsByUser.get(stream.userId);
+        if (userStreams != null) {
+            synchronized (userStreams) {
+                userStreams.remove(stream);
+            }
+        }
+    }
+
+    /**
+     * Un flux ouvert et sa file d'envoi.
+     */
+    private final class Stream {
+
+        private final Integer userId;
+        private final boolean admin;
+        private final SseEmitter emitter;
+        private final Deque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private StatusCountResponse pendingCounts;
+        private StatusCountResponse sentCounts;
+        private boolean closed;
+
+        private Stream(Integer userId, boolean admin, SseEmitter emitter) {
+            this.userId = userId;
+            this.admin = admin;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEmitter.SseEventBuilder event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+
+                if (pending.size() >= properties.getMaxPendingEvents()) {
+                    // client trop lent : ce qu'il a manqué sera relu en entier
+                    pending.clear();
+                    pending.add(SseEmitter.event().name(RESYNC).data(""));
+                } else {
+                    pending.add(event);
+                }
+            }
+
+            schedule();
+        }
+
+        private void offerCounts(StatusCountResponse counts) {
+            synchronized (this) {
+                if (closed || counts.equals(pendingCounts) || (pendingCounts == null && counts.equals(sentCounts))) {
+                    return;
+                }
+                pendingCounts = counts;
+            }
+
+            schedule();
+        }
+
+        private void offerHeartbeat() {
+            synchronized (this) {
+                // un flux qui a déjà de quoi écrire n'a pas besoin de battement
+                if (closed || !pending.isEmpty() || pendingCounts != null) {
+                    return;
+                }
+                pending.add(SseEmitter.event().comment("heartbeat"));
+            }
+
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    SseEmitter.SseEventBuilder next;
+
+                    synchronized (this) {
+                        next = pending.poll();
+                        if (next == null && pendingCounts != null) {
+                            next = SseEmitter.event().name(STATUS_COUNT).data(pendingCounts);
+                            sentCounts = pendingCounts;
+                            pendingCounts = null;
+                        }
+                        if (next == null || closed) {
+                            draining.set(false);
+                            return;
+                        }
+                    }
+
+                    emitter.send(next);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Flux d'évènements fermé (utilisateur {}) : {}", userId, e.getMessage());
+                close();
+                draining.set(false);
+            }
+        }
+
+        private void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+                pendingCounts = null;
+            }
+
+            remove(this);
+            emitter.complete();
+        }
+    }
+}
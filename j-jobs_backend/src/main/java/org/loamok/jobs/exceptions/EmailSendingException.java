@@ -8,4 +8,8 @@ public class EmailSendingException extends RuntimeException {
     public EmailSendingException(String email) {
         super("Error while Sending Mail to " + email);
     }
+
+    public EmailSendingException(String email, Throwable cause) {
+        super("Error while Sending Mail to " + email, cause);
+    }
 }
@@ -0,0 +1,70 @@
+package org.loamok.jobs.ingestion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.core.io.Resource;
+
+/**
+ * Offres lues dans un fichier JSON (tableau d'{@link OfficialOffer}) : export
+ * de la source ou jeu d'essai hors ligne. Le fichier est relu quand il change.
+ *
+ * @author Huby Franck
+ */
+public class FileOfficialOfferSource implements OfficialOfferSource {
+
+    private final Resource location;
+    private final ObjectMapper objectMapper;
+    private List<OfficialOffer> offers;
+    private long loadedVersion = Long.MIN_VALUE;
+
+    public FileOfficialOfferSource(Resource location, ObjectMapper objectMapper) {
+        if (location == null) {
+            throw new IllegalStateException("loamok.jobs.ingestion.file.location est requis pour la source FILE");
+        }
+
+        this.location = location;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public List<OfficialOffer> fetchAfter(String checkpoint, int limit) throws IOException {
+        return offers().stream()
+                .filter(offer -> checkpoint == null || offer.checkpoint().compareTo(checkpoint) > 0)
+                .limit(limit)
+                .toList();
+    }
+
+    private synchronized List<OfficialOffer> offers() throws IOException {
+        long version = version();
+
+        if (offers == null || version != loadedVersion) {
+            try (InputStream input = location.getInputStream()) {
+                offers = Arrays.stream(objectMapper.readValue(input, OfficialOffer[].class))
+                        .filter(offer -> offer.externalId() != null && offer.updatedAt() != null)
+                        .sorted(Comparator.comparing(OfficialOffer::checkpoint))
+                        .toList();
+            }
+            loadedVersion = version;
+        }
+
+        return offers;
+    }
+
+    private long version() {
+        try {
+            return location.lastModified();
+        } catch (IOException e) {
+            // ressource sans date (archive) : chargée une fois
+            return 0L;
+        }
+    }
+}
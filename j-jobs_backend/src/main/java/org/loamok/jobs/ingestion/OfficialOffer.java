@@ -0,0 +1,76 @@
+package org.loamok.jobs.ingestion;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.loamok.jobs.repository.TextNormalizer;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Offre telle que livrée par une source officielle.
+ *
+ * @param externalId identifiant de l'offre chez la source
+ * @param offerStatus réponse déjà donnée à l'offre (O_ACCEPT, O_REFUS), null pour une offre nouvelle
+ * @param updatedAt date de publication ou de dernière modification chez la source
+ *
+ * @author Huby Franck
+ */
+public record OfficialOffer(
+        String externalId,
+        String position,
+        String compagny,
+        String city,
+        String description,
+        ContractEnum contract,
+        WorkTimeEnum workTime,
+        WorkModeEnum workMode,
+        OfferStatusEnum offerStatus,
+        Instant updatedAt
+) {
+
+    /**
+     * Position de l'offre dans l'ordre de reprise (date de modification, puis
+     * identifiant) ; l'ordre lexicographique des positions est celui des offres.
+     */
+    public String checkpoint() {
+        return String.format("%019d|%s", updatedAt.toEpochMilli(), externalId);
+    }
+
+    /**
+     * Empreinte de l'identité de l'offre (intitulé, entreprise, ville, sans
+     * casse ni accents) : une offre existante de même empreinte est un doublon.
+     */
+    public String identityHash() {
+        return identityHash(position, compagny, city);
+    }
+
+    public static String identityHash(String position, String compagny, String city) {
+        String identity = String.join("|",
+                String.join(" ", TextNormalizer.tokens(position)),
+                String.join(" ", TextNormalizer.tokens(compagny)),
+                String.join(" ", TextNormalizer.tokens(city)));
+
+        return DigestUtils.md5DigestAsHex(identity.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Empreinte du contenu complet : change avec toute modification de l'offre
+     * chez la source.
+     */
+    public String revisionHash() {
+        String content = String.join("\u0000",
+                Objects.toString(position, ""),
+                Objects.toString(compagny, ""),
+                Objects.toString(city, ""),
+                Objects.toString(description, ""),
+                Objects.toString(contract, ""),
+                Objects.toString(workTime, ""),
+                Objects.toString(workMode, ""));
+
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
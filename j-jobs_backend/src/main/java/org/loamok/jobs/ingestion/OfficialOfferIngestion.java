@@ -0,0 +1,391 @@
+package org.loamok.jobs.ingestion;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.config.IngestionProperties;
+import org.loamok.jobs.dto.response.IngestionReport;
+import org.loamok.jobs.entity.IngestedOffer;
+import org.loamok.jobs.entity.IngestionCheckpoint;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.jobs.manager.JobService;
+import org.loamok.jobs.repository.JobDataVersions;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.event.IdentifiedHandler;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ingestion des offres officielles d'un utilisateur depuis la
+ * {@link OfficialOfferSource} configurée.
+ *
+ * Les offres sont lues par lots à partir du point de reprise de l'utilisateur,
+ * puis chaque lot est enregistré dans sa propre transaction par un ensemble
+ * borné d'ouvriers. Par offre :
+ * - déjà reçue et inchangée (même empreinte de contenu) : ignorée ;
+ * - déjà reçue et modifiée chez la source : l'offre est mise à jour, son statut conservé ;
+ * - nouvelle mais de même identité qu'une offre existante : rattachée, sans doublon ;
+ * - sinon : créée comme un POST /jobs, issue d'une source officielle.
+ *
+ * Le point de reprise n'avance que sur la suite des lots enregistrés sans
+ * erreur : un lot en échec, et ceux qui le suivent, sont repris au passage
+ * suivant, sans effet pour les offres déjà enregistrées.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Service
+public class OfficialOfferIngestion extends IdentifiedHandler {
+
+    // identité réservée par un lot en cours, l'identifiant de l'offre n'est pas encore connu
+    private static final Integer CLAIMED = 0;
+
+    private final OfficialOfferSource source;
+    private final JobService jobService;
+    private final JobDataVersions dataVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IngestionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final Set<Integer> running = ConcurrentHashMap.newKeySet();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OfficialOfferIngestion(UserRepository userRepository, OfficialOfferSource source, JobService jobService,
+            JobDataVersions dataVersions, ApplicationEventPublisher eventPublisher, IngestionProperties properties,
+            PlatformTransactionManager transactionManager) {
+        super(userRepository);
+        this.source = source;
+        this.jobService = jobService;
+        this.dataVersions = dataVersions;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public IngestionReport runForCurrentUser() throws IOException {
+        User currentUser = getCurrentUser();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        return run(currentUser);
+    }
+
+    public IngestionReport run(User owner) throws IOException {
+        if (!running.add(owner.getId())) {
+            throw new IllegalStateException("Ingestion déjà en cours pour cet utilisateur");
+        }
+
+        try {
+            return ingest(owner);
+        } finally {
+            running.remove(owner.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private IngestionReport ingest(User owner) throws IOException {
+        Run run = new Run(owner, knownJobs(owner.getId()));
+        String checkpoint = transactionTemplate.execute(status -> {
+            // version des données créée avant les écritures parallèles des lots
+            dataVersions.bump(owner.getId());
+            IngestionCheckpoint saved = entityManager.find(IngestionCheckpoint.class,
+                    new IngestionCheckpoint.Key(owner.getId(), source.name()));
+
+            return saved == null ? null : saved.getPosition();
+        });
+
+        Deque<Batch> inFlight = new ArrayDeque<>();
+        boolean complete = true;
+        String read = checkpoint;
+
+        try {
+            List<OfficialOffer> offers;
+            do {
+                offers = source.fetchAfter(read, properties.getBatchSize());
+                if (offers.isEmpty()) {
+                    break;
+                }
+
+                List<OfficialOffer> batch = offers;
+                read = batch.get(batch.size() - 1).checkpoint();
+                run.fetched.addAndGet(batch.size());
+                inFlight.add(new Batch(read, workers.submit(() -> write(run, batch))));
+
+                complete = advance(run, inFlight, false);
+            } while (complete && offers.size() == properties.getBatchSize());
+        } finally {
+            // les lots soumis vont à leur terme, même si la lecture a échoué
+            complete = advance(run, inFlight, true) && complete;
+        }
+
+        return new IngestionReport(source.name(), run.fetched.get(), run.created.get(), run.updated.get(),
+                run.linked.get(), run.unchanged.get(), run.rejected.get(), complete);
+    }
+
+    /**
+     * Enregistre le point de reprise du dernier lot de la suite des lots
+     * terminés sans erreur.
+     *
+     * @param wait attendre les lots en cours
+     * @return false si un lot a échoué
+     */
+    private boolean advance(Run run, Deque<Batch> inFlight, boolean wait) {
+        String reached = null;
+        boolean failed = false;
+
+        while (!inFlight.isEmpty() && (wait || inFlight.peek().result().isDone())) {
+            Batch batch = inFlight.poll();
+
+            try {
+                batch.result().get();
+                if (!failed) {
+                    reached = batch.checkpoint();
+                }
+            } catch (ExecutionException e) {
+                log.warn("Lot d'offres officielles rejeté (utilisateur {}) : {}", run.owner.getId(), e.getCause().getMessage());
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed = true;
+            }
+        }
+
+        if (reached != null) {
+            saveCheckpoint(run.owner.getId(), reached);
+        }
+
+        return !failed;
+    }
+
+    private void saveCheckpoint(Integer userId, String position) {
+        transactionTemplate.executeWithoutResult(status -> {
+            IngestionCheckpoint checkpoint = entityManager.find(IngestionCheckpoint.class,
+                    new IngestionCheckpoint.Key(userId, source.name()));
+
+            if (checkpoint == null) {
+                entityManager.persist(new IngestionCheckpoint(userId, source.name(), position, Instant.now()));
+            } else {
+                checkpoint.setPosition(position);
+                checkpoint.setUpdatedAt(Instant.now());
+            }
+        });
+    }
+
+    /**
+     * Identité des offres existantes de l'utilisateur, pour le rapprochement.
+     */
+    private Map<String, Integer> knownJobs(Integer userId) {
+        Map<String, Integer> known = new ConcurrentHashMap<>();
+
+        transactionTemplate.executeWithoutResult(status -> entityManager
+                .createQuery("SELECT j.id, j.position, j.compagny, j.city FROM Job j WHERE j.user.id = :userId", Object[].class)
+                .setParameter("userId", userId)
+                .getResultList()
+                .forEach(row -> known.putIfAbsent(
+                        OfficialOffer.identityHash((String) row[1], (String) row[2], (String) row[3]),
+                        (Integer) row[0])));
+
+        return known;
+    }
+
+    private void write(Run run, List<OfficialOffer> batch) {
+        Integer userId = run.owner.getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            Map<String, IngestedOffer> ledger = entityManager.createQuery(
+                    "SELECT o FROM IngestedOffer o WHERE o.userId = :userId AND o.source = :source AND o.externalId IN :ids",
+                    IngestedOffer.class)
+                    .setParameter("userId", userId)
+                    .setParameter("source", source.name())
+                    .setParameter("ids", batch.stream().map(OfficialOffer::externalId).toList())
+                    .getResultStream()
+                    .collect(Collectors.toMap(IngestedOffer::getExternalId, Function.identity()));
+
+            // offres à relire : modifiées chez la source, ou existantes à rattacher
+            Set<Integer> jobIds = new HashSet<>();
+            for (OfficialOffer offer : batch) {
+                IngestedOffer seen = ledger.get(offer.externalId());
+                Integer known = run.known.get(offer.identityHash());
+
+                if (seen != null && !seen.getRevisionHash().equals(offer.revisionHash())) {
+                    jobIds.add(seen.getJobId());
+                } else if (seen == null && known != null && !CLAIMED.equals(known)) {
+                    jobIds.add(known);
+                }
+            }
+            Map<Integer, Job> jobs = jobIds.isEmpty() ? Map.of() : entityManager.createQuery(
+                    "SELECT j FROM Job j WHERE j.user.id = :userId AND j.id IN :ids", Job.class)
+                    .setParameter("userId", userId)
+                    .setParameter("ids", jobIds)
+                    .getResultStream()
+                    .collect(Collectors.toMap(Job::getId, Function.identity()));
+
+            Tally tally = new Tally();
+            Set<String> seenInBatch = new HashSet<>();
+            for (OfficialOffer offer : batch) {
+                if (!seenInBatch.add(offer.externalId())) {
+                    tally.unchanged++;
+                    continue;
+                }
+
+                IngestedOffer seen = ledger.get(offer.externalId());
+                String revision = offer.revisionHash();
+
+                if (seen != null) {
+                    Job job = jobs.get(seen.getJobId());
+                    if (!seen.getRevisionHash().equals(revision) && job != null) {
+                        apply(offer, job);
+                        tally.updated++;
+                    } else {
+                        // inchangée, ou supprimée par l'utilisateur : elle n'est pas recréée
+                        tally.unchanged++;
+                    }
+                    seen.setRevisionHash(revision);
+                    seen.setIngestedAt(now);
+                    continue;
+                }
+
+                String identity = offer.identityHash();
+                Integer known = run.known.putIfAbsent(identity, CLAIMED);
+                if (known != null) {
+                    Job job = jobs.get(known);
+                    if (job == null) {
+                        // même identité qu'une offre du flux encore en cours d'enregistrement
+                        tally.unchanged++;
+                        continue;
+                    }
+
+                    job.setFromOfficialDom(true);
+                    entityManager.persist(new IngestedOffer(userId, source.name(), offer.externalId(), job.getId(), revision, now));
+                    tally.linked++;
+                    continue;
+                }
+
+                Job job = newJob(offer);
+                StringBuilder fieldName = new StringBuilder();
+                if (!jobService.checkNonNullFields(job, fieldName)) {
+                    log.debug("Offre officielle {} incomplète ({})", offer.externalId(), fieldName);
+                    run.known.remove(identity, CLAIMED);
+                    tally.rejected++;
+                    continue;
+                }
+
+                jobService.registerJobFor(job, run.owner);
+                entityManager.persist(job);
+                entityManager.persist(new IngestedOffer(userId, source.name(), offer.externalId(), job.getId(), revision, now));
+                tally.created.add(identity);
+                run.known.put(identity, job.getId());
+            }
+
+            if (tally.changed()) {
+                eventPublisher.publishEvent(new JobChangedEvent(null, userId, JobChangedEvent.ChangeTypeEnum.IMPORTED));
+            }
+            run.add(tally);
+        });
+    }
+
+    private Job newJob(OfficialOffer offer) {
+        Job job = Job.builder()
+                .fromOfficialDom(true)
+                .offerStatus(offer.offerStatus() == null ? OfferStatusEnum.B_EN_ATTENTE : offer.offerStatus())
+                .build();
+        apply(offer, job);
+
+        return job;
+    }
+
+    private void apply(OfficialOffer offer, Job job) {
+        job.setPosition(offer.position());
+        job.setCompagny(offer.compagny());
+        job.setCity(offer.city());
+        job.setDescription(offer.description());
+        job.setContract(offer.contract());
+        job.setWorkTime(offer.workTime());
+        job.setWorkMode(offer.workMode());
+    }
+
+    /**
+     * Lot soumis aux ouvriers et position de sa dernière offre.
+     */
+    private record Batch(String checkpoint, Future<?> result) {
+    }
+
+    /**
+     * Bilan d'un lot, reporté dans celui du passage une fois le lot validé.
+     */
+    private static final class Tally {
+
+        private final Set<String> created = new HashSet<>();
+        private long updated;
+        private long linked;
+        private long unchanged;
+        private long rejected;
+
+        private boolean changed() {
+            return !created.isEmpty() || updated > 0 || linked > 0;
+        }
+    }
+
+    /**
+     * État d'un passage, partagé par ses lots.
+     */
+    private static final class Run {
+
+        private final User owner;
+        private final Map<String, Integer> known;
+        private final AtomicLong fetched = new AtomicLong();
+        private final AtomicLong created = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong linked = new AtomicLong();
+        private final AtomicLong unchanged = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private Run(User owner, Map<String, Integer> known) {
+            this.owner = owner;
+            this.known = known;
+        }
+
+        private void add(Tally tally) {
+            created.addAndGet(tally.created.size());
+            updated.addAndGet(tally.updated);
+            linked.addAndGet(tally.linked);
+            unchanged.addAndGet(tally.unchanged);
+            rejected.addAndGet(tally.rejected);
+        }
+    }
+}
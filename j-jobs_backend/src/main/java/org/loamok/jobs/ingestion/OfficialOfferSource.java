@@ -0,0 +1,26 @@
+package org.loamok.jobs.ingestion;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Source d'offres officielles (France Travail ou substitut hors ligne).
+ *
+ * @author Huby Franck
+ */
+public interface OfficialOfferSource {
+
+    /**
+     * Nom de la source, clé des points de reprise et des offres reçues.
+     */
+    String name();
+
+    /**
+     * Offres publiées ou modifiées après le point de reprise, dans l'ordre de
+     * {@link OfficialOffer#checkpoint()}.
+     *
+     * @param checkpoint position de la dernière offre traitée, null au premier passage
+     * @param limit nombre maximal d'offres rendues
+     */
+    List<OfficialOffer> fetchAfter(String checkpoint, int limit) throws IOException;
+}
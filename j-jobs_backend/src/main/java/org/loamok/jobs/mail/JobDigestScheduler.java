@@ -0,0 +1,200 @@
+package org.loamok.jobs.mail;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.config.JobDigestProperties;
+import org.loamok.jobs.entity.JobDigestMail;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.repository.ScheduledTaskLock;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Préparation du récapitulatif quotidien des utilisateurs qui l'ont demandé :
+ * relances nécessaires et entretiens des prochains jours.
+ *
+ * Les utilisateurs sont parcourus par lots ; les offres d'un lot sont lues en
+ * une requête (index id_user, offer_status_code), chaque récapitulatif est rendu
+ * par les modèles compilés puis déposé dans la table d'envoi, dans la
+ * transaction du lot. L'envoi est laissé à {@link JobDigestSender}.
+ * Un utilisateur sans offre à traiter ne reçoit rien ; un récapitulatif déjà
+ * préparé pour le jour n'est pas refait.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Component
+public class JobDigestScheduler {
+
+    public static final String TASK = "job-digest";
+
+    private final ScheduledTaskLock taskLock;
+    private final JobDigestProperties properties;
+    private final JobDigestTemplates templates;
+    private final TransactionTemplate transactionTemplate;
+    private final DateTimeFormatter interviewFormat;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobDigestScheduler(ScheduledTaskLock taskLock, JobDigestProperties properties, JobDigestTemplates templates,
+            PlatformTransactionManager transactionManager) {
+        this.taskLock = taskLock;
+        this.properties = properties;
+        this.templates = templates;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.interviewFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm").withZone(properties.getZone());
+    }
+
+    @Scheduled(cron = "${loamok.jobs.digest.cron:0 0 7 * * *}", zone = "${loamok.jobs.digest.zone:Europe/Paris}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        AtomicInteger prepared = new AtomicInteger();
+        AtomicInteger purged = new AtomicInteger();
+        if (taskLock.runExclusively(TASK, () -> {
+            prepared.set(prepare(LocalDate.ofInstant(now, properties.getZone()), now));
+            purged.set(purge(now));
+        })) {
+            log.info("Récapitulatifs quotidiens : {} courriel(s) préparé(s), {} ancien(s) supprimé(s)", prepared.get(), purged.get());
+        }
+    }
+
+    /**
+     * @param day jour du récapitulatif
+     * @param now instant de référence des entretiens à venir
+     * @return le nombre de récapitulatifs déposés dans la table d'envoi
+     */
+    public int prepare(LocalDate day, Instant now) {
+        int prepared = 0;
+        Integer after = 0;
+
+        while (after != null) {
+            Integer from = after;
+            Batch batch = transactionTemplate.execute(status -> batch(day, now, from));
+
+            prepared += batch.prepared();
+            after = batch.last();
+        }
+
+        return prepared;
+    }
+
+    /**
+     * Supprime de la table d'envoi les récapitulatifs envoyés ou abandonnés
+     * au-delà de la durée de conservation.
+     */
+    public int purge(Instant now) {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                "DELETE FROM JobDigestMail m WHERE m.state <> :pending AND m.createdAt < :before")
+                .setParameter("pending", JobDigestMail.State.PENDING)
+                .setParameter("before", now.minus(properties.getRetention()))
+                .executeUpdate());
+    }
+
+    private Batch batch(LocalDate day, Instant now, Integer after) {
+        List<Integer> userIds = entityManager.createQuery(
+                "SELECT s.userId FROM UserJobSettings s WHERE s.digestOptIn = true AND s.userId > :after ORDER BY s.userId",
+                Integer.class)
+                .setParameter("after", after)
+                .setMaxResults(properties.getUserBatchSize())
+                .getResultList();
+        if (userIds.isEmpty()) {
+            return new Batch(null, 0);
+        }
+
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT u.id, u.email, u.firstname, j.position, j.compagny, j.city, j.offerStatus, j.interviewAt "
+                + "FROM Job j JOIN j.user u "
+                + "WHERE u.id IN :userIds AND u.enabled = true "
+                + "AND NOT EXISTS (SELECT m FROM JobDigestMail m WHERE m.userId = u.id AND m.digestDate = :day) "
+                + "AND (j.offerStatus = :followUp "
+                + "OR (j.offerStatus = :interview AND j.interviewAt >= :now AND j.interviewAt < :horizon)) "
+                + "ORDER BY u.id, j.interviewAt, j.id", Object[].class)
+                .setParameter("userIds", userIds)
+                .setParameter("day", day)
+                .setParameter("followUp", OfferStatusEnum.B_RELANCE_A)
+                .setParameter("interview", OfferStatusEnum.D_ENTRETIEN)
+                .setParameter("now", now)
+                .setParameter("horizon", now.plus(properties.getInterviewHorizon()))
+                .getResultList();
+
+        Map<Integer, Digest> digests = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Digest digest = digests.computeIfAbsent((Integer) row[0], id -> new Digest((String) row[1], (String) row[2]));
+            Map<String, Object> item = new HashMap<>();
+            item.put("position", row[3]);
+            item.put("compagny", row[4]);
+            item.put("city", row[5]);
+
+            if (row[6] == OfferStatusEnum.B_RELANCE_A) {
+                digest.followUps().add(item);
+            } else {
+                item.put("interview_at", interviewFormat.format((Instant) row[7]));
+                digest.interviews().add(item);
+            }
+        }
+
+        digests.forEach((userId, digest) -> entityManager.persist(toMail(userId, day, now, digest)));
+
+        return new Batch(userIds.get(userIds.size() - 1), digests.size());
+    }
+
+    private JobDigestMail toMail(Integer userId, LocalDate day, Instant now, Digest digest) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("firstname", digest.firstname());
+        model.put("application_name", properties.getApplicationName());
+        model.put("base_url", properties.getBaseUrl());
+        model.put("follow_ups", group("follow_up_count", digest.followUps()));
+        model.put("interviews", group("interview_count", digest.interviews()));
+
+        return JobDigestMail.builder()
+                .userId(userId)
+                .digestDate(day)
+                .recipient(digest.recipient())
+                .subject(templates.subject().render(model))
+                .body(templates.body().render(model))
+                .state(JobDigestMail.State.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+
+    /**
+     * Rubrique du courriel : un seul élément (compte et lignes), aucun si la
+     * rubrique est vide, pour que le bloc du modèle soit omis.
+     */
+    private static List<Map<String, Object>> group(String countName, List<Map<String, Object>> items) {
+        return items.isEmpty() ? List.of() : List.of(Map.of(countName, items.size(), "items", items));
+    }
+
+    private record Digest(String recipient, String firstname, List<Map<String, Object>> followUps,
+            List<Map<String, Object>> interviews) {
+
+        Digest(String recipient, String firstname) {
+            this(recipient, firstname, new ArrayList<>(), new ArrayList<>());
+        }
+    }
+
+    /**
+     * Lot traité : dernier utilisateur parcouru (null en fin de parcours) et
+     * récapitulatifs préparés.
+     */
+    private record Batch(Integer last, int prepared) {
+    }
+}
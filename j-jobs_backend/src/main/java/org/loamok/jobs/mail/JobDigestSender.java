@@ -0,0 +1,207 @@
+package org.loamok.jobs.mail;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.config.JobDigestProperties;
+import org.loamok.jobs.entity.JobDigestMail;
+import org.loamok.jobs.exceptions.EmailSendingException;
+import org.loamok.jobs.repository.ScheduledTaskLock;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Envoi des récapitulatifs déposés dans la table d'envoi.
+ *
+ * Les courriels dus sont lus par lots puis confiés à un nombre borné
+ * d'ouvriers SMTP (file pleine, le thread du passage envoie lui-même) ; le
+ * résultat du lot est enregistré dans une seule transaction. Un échec est
+ * retenté plus tard, avec une attente doublée à chaque fois, jusqu'au nombre
+ * maximal de tentatives.
+ *
+ * Sans serveur SMTP configuré (spring.mail.host), les courriels restent en
+ * attente.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Component
+public class JobDigestSender {
+
+    public static final String TASK = "job-digest-delivery";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final ScheduledTaskLock taskLock;
+    private final JobDigestProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobDigestSender(ObjectProvider<JavaMailSender> mailSender, ScheduledTaskLock taskLock,
+            JobDigestProperties properties, PlatformTransactionManager transactionManager) {
+        this.mailSender = mailSender;
+        this.taskLock = taskLock;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        JobDigestProperties.Delivery delivery = properties.getDelivery();
+        this.workers = new ThreadPoolExecutor(delivery.getWorkers(), delivery.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(delivery.getQueueCapacity()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${loamok.jobs.digest.delivery.interval:PT5M}",
+            initialDelayString = "${loamok.jobs.digest.delivery.interval:PT5M}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            log.debug("Récapitulatifs quotidiens : aucun serveur SMTP configuré, envoi différé");
+            return;
+        }
+
+        AtomicInteger sent = new AtomicInteger();
+        if (taskLock.runExclusively(TASK, () -> sent.set(deliver(sender, Instant.now()))) && sent.get() > 0) {
+            log.info("Récapitulatifs quotidiens : {} courriel(s) envoyé(s)", sent.get());
+        }
+    }
+
+    /**
+     * @param now instant de référence des échéances
+     * @return le nombre de courriels envoyés
+     * @throws IllegalStateException aucun serveur SMTP configuré
+     */
+    public int deliver(Instant now) {
+        JavaMailSender sender = mailSender.getIfAvailable();
+        if (sender == null) {
+            throw new IllegalStateException("Aucun serveur SMTP configuré (spring.mail.host)");
+        }
+
+        return deliver(sender, now);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private int deliver(JavaMailSender sender, Instant now) {
+        int batchSize = properties.getDelivery().getBatchSize();
+        int sent = 0;
+        int read;
+
+        do {
+            List<JobDigestMail> due = transactionTemplate.execute(status -> entityManager.createQuery(
+                    "SELECT m FROM JobDigestMail m WHERE m.state = :pending AND m.nextAttemptAt <= :now "
+                    + "ORDER BY m.nextAttemptAt, m.userId", JobDigestMail.class)
+                    .setParameter("pending", JobDigestMail.State.PENDING)
+                    .setParameter("now", now)
+                    .setMaxResults(batchSize)
+                    .getResultList());
+
+            List<Future<?>> results = new ArrayList<>(due.size());
+            for (JobDigestMail mail : due) {
+                results.add(workers.submit(() -> send(sender, mail)));
+            }
+
+            List<Throwable> errors = new ArrayList<>(due.size());
+            for (Future<?> result : results) {
+                errors.add(outcome(result));
+            }
+
+            sent += transactionTemplate.execute(status -> record(due, errors, now));
+            read = due.size();
+        } while (read == batchSize);
+
+        return sent;
+    }
+
+    private void send(JavaMailSender sender, JobDigestMail mail) {
+        try {
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+            helper.setFrom(properties.getFrom());
+            helper.setTo(mail.getRecipient());
+            helper.setSubject(mail.getSubject());
+            helper.setText(mail.getBody(), false);
+
+            sender.send(message);
+        } catch (MailException | MessagingException e) {
+            throw new EmailSendingException(mail.getRecipient(), e);
+        }
+    }
+
+    /**
+     * Erreur de l'envoi, null s'il a réussi.
+     */
+    private static Throwable outcome(Future<?> result) {
+        try {
+            result.get();
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // le courriel a pu partir : il le sera au pire une seconde fois
+            return e;
+        }
+    }
+
+    private int record(List<JobDigestMail> mails, List<Throwable> errors, Instant now) {
+        JobDigestProperties.Delivery delivery = properties.getDelivery();
+        int sent = 0;
+
+        for (int i = 0; i < mails.size(); i++) {
+            JobDigestMail mail = entityManager.find(JobDigestMail.class,
+                    new JobDigestMail.Key(mails.get(i).getUserId(), mails.get(i).getDigestDate()));
+            Throwable error = errors.get(i);
+            mail.setAttempts(mail.getAttempts() + 1);
+
+            if (error == null) {
+                mail.setState(JobDigestMail.State.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                sent++;
+                continue;
+            }
+
+            String detail = error.getCause() != null ? error.getCause().getMessage() : error.getMessage();
+            log.warn("{} (tentative {}/{}) : {}", error.getMessage(), mail.getAttempts(), delivery.getMaxAttempts(), detail);
+            mail.setLastError(detail == null ? null : detail.substring(0, Math.min(detail.length(), MAX_ERROR_LENGTH)));
+
+            if (mail.getAttempts() >= delivery.getMaxAttempts()) {
+                mail.setState(JobDigestMail.State.FAILED);
+            } else {
+                mail.setNextAttemptAt(now.plus(delivery.getRetryDelay().multipliedBy(1L << Math.min(mail.getAttempts() - 1, 20))));
+            }
+        }
+
+        return sent;
+    }
+}
@@ -0,0 +1,9 @@
+package org.loamok.jobs.mail;
+
+/**
+ * Modèles compilés du récapitulatif quotidien : objet et corps du courriel.
+ *
+ * @author Huby Franck
+ */
+public record JobDigestTemplates(MailTemplate subject, MailTemplate body) {
+}
@@ -0,0 +1,137 @@
+package org.loamok.jobs.mail;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle de courriel analysé une fois au démarrage : le rendu n'est plus
+ * qu'une concaténation des morceaux.
+ *
+ * Syntaxe :
+ * - `{{nom}}` : valeur du modèle (chaîne vide si absente) ;
+ * - `{{#liste}}...{{/liste}}` : bloc répété pour chaque élément de la liste
+ * (une Map), omis si elle est vide ; dans le bloc, une valeur est cherchée
+ * dans l'élément puis dans le modèle.
+ *
+ * @author Huby Franck
+ */
+public final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final List<Part> parts;
+
+    private MailTemplate(List<Part> parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * @throws IllegalArgumentException modèle mal formé (balise non fermée,
+     * bloc non refermé ou refermé dans le désordre)
+     */
+    public static MailTemplate compile(String source) {
+        Deque<Section> open = new ArrayDeque<>();
+        List<Part> root = new ArrayList<>();
+        List<Part> current = root;
+
+        int from = 0;
+        while (from < source.length()) {
+            int start = source.indexOf(OPEN, from);
+            if (start < 0) {
+                current.add(new Text(source.substring(from)));
+                break;
+            }
+
+            int end = source.indexOf(CLOSE, start + OPEN.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Balise non fermée à la position " + start);
+            }
+            if (start > from) {
+                current.add(new Text(source.substring(from, start)));
+            }
+
+            String tag = source.substring(start + OPEN.length(), end).strip();
+            if (tag.startsWith("#")) {
+                Section section = new Section(tag.substring(1).strip(), new ArrayList<>());
+                current.add(section);
+                open.push(section);
+                current = section.parts();
+            } else if (tag.startsWith("/")) {
+                String name = tag.substring(1).strip();
+                if (open.isEmpty() || !open.peek().name().equals(name)) {
+                    throw new IllegalArgumentException("Fin de bloc inattendue : " + name);
+                }
+                open.pop();
+                current = open.isEmpty() ? root : open.peek().parts();
+            } else {
+                current.add(new Value(tag));
+            }
+
+            from = end + CLOSE.length();
+        }
+
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Bloc non refermé : " + open.peek().name());
+        }
+
+        return new MailTemplate(List.copyOf(root));
+    }
+
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder();
+        render(parts, List.of(model), out);
+
+        return out.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void render(List<Part> parts, List<Map<String, ?>> scopes, StringBuilder out) {
+        for (Part part : parts) {
+            switch (part) {
+                case Text text -> out.append(text.text());
+                case Value value -> {
+                    Object resolved = lookup(scopes, value.name());
+                    if (resolved != null) {
+                        out.append(resolved);
+                    }
+                }
+                case Section section -> {
+                    if (lookup(scopes, section.name()) instanceof List<?> items) {
+                        for (Object item : items) {
+                            List<Map<String, ?>> nested = new ArrayList<>(scopes.size() + 1);
+                            nested.add((Map<String, ?>) item);
+                            nested.addAll(scopes);
+                            render(section.parts(), nested, out);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object lookup(List<Map<String, ?>> scopes, String name) {
+        for (Map<String, ?> scope : scopes) {
+            if (scope.containsKey(name)) {
+                return scope.get(name);
+            }
+        }
+
+        return null;
+    }
+
+    private sealed interface Part permits Text, Value, Section {
+    }
+
+    private record Text(String text) implements Part {
+    }
+
+    private record Value(String name) implements Part {
+    }
+
+    private record Section(String name, List<Part> parts) implements Part {
+    }
+}
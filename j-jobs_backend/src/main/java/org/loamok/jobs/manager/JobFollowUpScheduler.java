@@ -0,0 +1,146 @@
+package org.loamok.jobs.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.config.JobFollowUpProperties;
+import org.loamok.jobs.dto.JobsDto;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.jobs.repository.JobNextActions;
+import org.loamok.jobs.repository.JobRepository;
+import org.loamok.jobs.repository.ScheduledTaskLock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relances automatiques : une candidature en cours ou en attente, dont le
+ * dernier changement de statut date de plus que le délai de son propriétaire,
+ * passe en relance nécessaire (B_RELANCE_A), historique compris.
+ *
+ * Les offres sont parcourues par identifiant croissant (index offer_status_code,
+ * id_job), par tranches bornées, chacune dans sa transaction ; la date du
+ * dernier statut est lue par l'index job_id, applied_at de l'historique.
+ * Le passage ne tourne que sur une instance à la fois
+ * ({@link ScheduledTaskLock}).
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Component
+public class JobFollowUpScheduler {
+
+    public static final String TASK = "job-follow-up";
+
+    private final JobRepository jobRepository;
+    private final JobNextActions nextActions;
+    private final ScheduledTaskLock taskLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobFollowUpProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobFollowUpScheduler(JobRepository jobRepository, JobNextActions nextActions, ScheduledTaskLock taskLock,
+            ApplicationEventPublisher eventPublisher, JobFollowUpProperties properties, PlatformTransactionManager transactionManager) {
+        if (properties.getChunkSize() < 1 || properties.getDefaultDays() < 0) {
+            throw new IllegalStateException("loamok.jobs.follow-up : chunk-size doit être positif et default-days ne peut être négatif");
+        }
+
+        this.jobRepository = jobRepository;
+        this.nextActions = nextActions;
+        this.taskLock = taskLock;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${loamok.jobs.follow-up.cron:0 15 * * * *}")
+    public void scheduledRun() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        AtomicInteger flagged = new AtomicInteger();
+        if (taskLock.runExclusively(TASK, () -> flagged.set(run(Instant.now())))) {
+            log.info("Relances automatiques : {} candidature(s) à relancer", flagged.get());
+        }
+    }
+
+    /**
+     * @param now instant de référence des délais
+     * @return le nombre d'offres passées en relance nécessaire
+     */
+    public int run(Instant now) {
+        int flagged = 0;
+        Integer after = 0;
+
+        while (after != null) {
+            Integer from = after;
+            Chunk chunk = transactionTemplate.execute(status -> chunk(from, now));
+
+            flagged += chunk.flagged();
+            after = chunk.last();
+        }
+
+        return flagged;
+    }
+
+    private Chunk chunk(Integer after, Instant now) {
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT j.id, j.user.id, j.createdAt, (SELECT MAX(h.appliedAt) FROM JobHasStatus h WHERE h.job = j) "
+                + "FROM Job j WHERE j.offerStatus IN :statuses AND j.id > :after ORDER BY j.id", Object[].class)
+                .setParameter("statuses", JobNextActions.WAITING)
+                .setParameter("after", after)
+                .setMaxResults(properties.getChunkSize())
+                .getResultList();
+        if (rows.isEmpty()) {
+            return new Chunk(null, 0);
+        }
+
+        Map<Integer, Integer> delays = nextActions.followUpDays(
+                rows.stream().map(row -> (Integer) row[1]).collect(Collectors.toSet()));
+
+        List<Integer> overdue = new ArrayList<>();
+        for (Object[] row : rows) {
+            int days = delays.get((Integer) row[1]);
+            Instant lastChange = row[3] != null ? (Instant) row[3] : (Instant) row[2];
+
+            if (days > 0 && lastChange != null && !lastChange.isAfter(now.minus(days, ChronoUnit.DAYS))) {
+                overdue.add((Integer) row[0]);
+            }
+        }
+
+        Integer last = (Integer) rows.get(rows.size() - 1)[0];
+        if (overdue.isEmpty()) {
+            return new Chunk(last, 0);
+        }
+
+        // le statut est relu sous verrou : une offre modifiée entre-temps est écartée
+        List<JobsDto.StatusTransition> transitions = jobRepository.transitionOfferStatus(
+                (root, query, cb) -> cb.and(root.get("id").in(overdue), root.get("offerStatus").in(JobNextActions.WAITING)),
+                OfferStatusEnum.B_RELANCE_A);
+        // un évènement par utilisateur de la tranche, et non par offre
+        transitions.stream().map(JobsDto.StatusTransition::userId).distinct().forEach(userId -> eventPublisher.publishEvent(
+                new JobChangedEvent(null, userId, JobChangedEvent.ChangeTypeEnum.STATUS_CHANGED)));
+
+        return new Chunk(last, transitions.size());
+    }
+
+    /**
+     * Tranche traitée : dernier identifiant parcouru (null en fin de parcours)
+     * et offres passées en relance.
+     */
+    private record Chunk(Integer last, int flagged) {
+    }
+}
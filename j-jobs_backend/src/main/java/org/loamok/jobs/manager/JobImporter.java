@@ -0,0 +1,333 @@
+package org.loamok.jobs.manager;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.config.JobImportProperties;
+import org.loamok.jobs.dto.response.JobImportReport;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.event.IdentifiedHandler;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Import en masse des offres de l'utilisateur courant, depuis un CSV (export
+ * de tableur, export France Travail) ou un tableau JSON.
+ *
+ * Le fichier est lu en flux : chaque ligne est liée comme un POST /jobs (mêmes
+ * noms de champs, mêmes valeurs d'énumérations), validée selon
+ * {@link JobService#checkNonNullFields}, puis mise en attente. Les offres sont
+ * enregistrées par lots, chacun dans sa transaction, avec des insertions JDBC
+ * groupées. Un lot qui échoue en base rejette ses seules lignes.
+ *
+ * Chaque lot validé publie un unique {@link JobChangedEvent} IMPORTED.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Service
+public class JobImporter extends IdentifiedHandler {
+
+    private final JobService jobService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JobImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, String> jobFields = new HashMap<>();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobImporter(UserRepository userRepository, JobService jobService, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher, JobImportProperties properties,
+            PlatformTransactionManager transactionManager) {
+        super(userRepository);
+        this.jobService = jobService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // noms acceptés par la liaison JSON d'une offre, stratégie de nommage comprise
+        objectMapper.getDeserializationConfig()
+                .introspect(objectMapper.constructType(Job.class))
+                .findProperties()
+                .forEach(p -> jobFields.put(canonical(p.getName()), p.getName()));
+    }
+
+    public JobImportReport importCsvForCurrentUser(InputStream csv) throws IOException {
+        Import current = new Import(currentUser());
+
+        try (CsvRows rows = new CsvRows(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            List<String> header = rows.next();
+            if (header == null) {
+                return current.report();
+            }
+            List<String> fields = header.stream().map(this::fieldName).toList();
+
+            List<String> cells;
+            while (!current.full() && (cells = rows.next()) != null) {
+                if (cells.size() == 1 && cells.get(0).isBlank()) {
+                    continue;
+                }
+
+                ObjectNode node = objectMapper.createObjectNode();
+                for (int i = 0; i < fields.size() && i < cells.size(); i++) {
+                    String value = cells.get(i).trim();
+                    if (!fields.get(i).isEmpty() && !value.isEmpty()) {
+                        node.put(fields.get(i), value);
+                    }
+                }
+                current.add(node);
+            }
+            current.truncated = current.full() && rows.next() != null;
+        }
+
+        return current.finish();
+    }
+
+    public JobImportReport importJsonForCurrentUser(InputStream json) throws IOException {
+        Import current = new Import(currentUser());
+
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Un tableau JSON d'offres est attendu");
+            }
+
+            JsonToken token;
+            while (!current.full() && (token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                current.add(parser.readValueAsTree());
+            }
+            current.truncated = current.full() && parser.nextToken() == JsonToken.START_OBJECT;
+        }
+
+        return current.finish();
+    }
+
+    private User currentUser() {
+        User currentUser = getCurrentUser();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        return currentUser;
+    }
+
+    /**
+     * En-tête CSV vers nom de champ JSON d'une offre : « offerStatus »,
+     * « Offer status » et « offer_status » désignent le même champ. Un en-tête
+     * inconnu donne une colonne ignorée.
+     */
+    private String fieldName(String header) {
+        return jobFields.getOrDefault(canonical(header), "");
+    }
+
+    private static String canonical(String name) {
+        return name.replaceAll("[^\\p{Alnum}]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * État d'un import : lot en attente et rapport en cours.
+     */
+    private final class Import {
+
+        private final User owner;
+        private final List<Job> chunk = new ArrayList<>();
+        private final List<Long> chunkRows = new ArrayList<>();
+        private final List<JobImportReport.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long rejected;
+        private boolean truncated;
+
+        private Import(User owner) {
+            this.owner = owner;
+        }
+
+        private boolean full() {
+            return rows >= properties.getMaxRows();
+        }
+
+        private void add(JsonNode node) {
+            long row = ++rows;
+            Job job;
+
+            try {
+                job = objectMapper.treeToValue(node, Job.class);
+            } catch (JsonProcessingException e) {
+                reject(row, fieldOf(e), e.getOriginalMessage());
+                return;
+            }
+
+            // une ligne d'import crée toujours une nouvelle offre
+            job.setId(null);
+
+            StringBuilder fieldName = new StringBuilder();
+            if (!jobService.checkNonNullFields(job, fieldName)) {
+                reject(row, fieldName.toString(), "Champ obligatoire manquant");
+                return;
+            }
+            jobService.registerJobFor(job, owner);
+
+            chunk.add(job);
+            chunkRows.add(row);
+            if (chunk.size() >= properties.getChunkSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    chunk.forEach(entityManager::persist);
+                    eventPublisher.publishEvent(new JobChangedEvent(null, owner.getId(), JobChangedEvent.ChangeTypeEnum.IMPORTED));
+                    // le contexte de persistance peut survivre à la transaction (requête
+                    // web) : les offres du lot n'y sont pas gardées jusqu'à la fin de l'import
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Lot d'import rejeté (utilisateur {}, {} offres) : {}", owner.getId(), chunk.size(), e.getMessage());
+                chunkRows.forEach(row -> reject(row, null, "Lot rejeté par la base : " + e.getMessage()));
+            }
+
+            chunk.clear();
+            chunkRows.clear();
+        }
+
+        private void reject(long row, String field, String message) {
+            rejected++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new JobImportReport.RowError(row, field, message));
+            }
+        }
+
+        private JobImportReport finish() {
+            flush();
+
+            return report();
+        }
+
+        private JobImportReport report() {
+            return new JobImportReport(rows, imported, rejected, truncated, List.copyOf(errors));
+        }
+
+        private static String fieldOf(JsonProcessingException e) {
+            if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+                return mapping.getPath().get(mapping.getPath().size() - 1).getFieldName();
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Lecteur CSV minimal (RFC 4180) : champs entre guillemets, guillemets
+     * doublés, retours à la ligne dans un champ. Le séparateur, virgule ou
+     * point-virgule (tableurs français), est déduit de l'en-tête.
+     */
+    private static final class CsvRows implements AutoCloseable {
+
+        private final Reader reader;
+        private char separator;
+        private int pending = -2;
+
+        private CsvRows(Reader reader) {
+            this.reader = new BufferedReader(reader);
+        }
+
+        /**
+         * @return les cellules de la ligne suivante, ou null en fin de fichier
+         */
+        private List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            boolean header = separator == 0;
+
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            cell.append('"');
+                        } else {
+                            quoted = false;
+                            pending = following;
+                        }
+                    } else {
+                        cell.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (header && (c == ',' || c == ';')) {
+                    separator = (char) c;
+                    header = false;
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == separator && !header) {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    cell.append((char) c);
+                }
+
+                c = read();
+            }
+            cells.add(cell.toString());
+
+            return cells;
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+
+                return c;
+            }
+
+            return reader.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -1,27 +1,56 @@
 package org.loamok.jobs.manager;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 import jakarta.persistence.PersistenceContext;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.loamok.jobs.dto.JobsDto;
 import org.loamok.jobs.entity.Job;
 import org.loamok.jobs.entity.JobHasStatus;
+import org.loamok.jobs.entity.enums.LabelledEnum;
 import org.loamok.jobs.entity.enums.OfferStatusEnum;
 import org.loamok.jobs.exceptions.MissingFieldsException;
 import org.loamok.jobs.repository.JobRepository;
+import org.loamok.jobs.dto.request.JobSearchCursor;
 import org.loamok.jobs.dto.request.JobSearchRequest;
+import org.loamok.jobs.dto.request.JobStatusTransitionRequest;
+import org.loamok.jobs.dto.request.PaginationModeEnum;
+import org.loamok.jobs.dto.response.JobActionsResponse;
+import org.loamok.jobs.dto.response.JobDuplicatesResponse;
+import org.loamok.jobs.dto.response.JobSearchResponse;
+import org.loamok.jobs.dto.response.JobStatusTransitionResponse;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.jobs.repository.JobDuplicateIndex;
+import org.loamok.jobs.repository.JobKeyset;
+import org.loamok.jobs.repository.JobNextActions;
+import org.loamok.jobs.repository.JobSearchCountCache;
+import org.loamok.jobs.repository.JobSearchResultCache;
+import org.loamok.jobs.repository.JobTextIndex;
+import org.loamok.jobs.repository.JobTextualSearch;
 import org.loamok.libs.o2springsecurity.entity.User;
 import org.loamok.libs.o2springsecurity.event.IdentifiedHandler;
 import org.loamok.libs.o2springsecurity.repository.SecuritySpecifications;
 import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  *
@@ -31,13 +60,29 @@ import org.springframework.stereotype.Service;
 public class JobManager extends IdentifiedHandler implements JobService {
 
     private final JobRepository jobRepository;
+    private final JobTextualSearch textualSearch;
+    private final JobTextIndex textIndex;
+    private final JobDuplicateIndex duplicateIndex;
+    private final JobNextActions nextActions;
+    private final JobSearchCountCache countCache;
+    private final JobSearchResultCache resultCache;
+    private final ApplicationEventPublisher eventPublisher;
     private User u;
     @PersistenceContext
     private EntityManager entityManager;
 
-    public JobManager(JobRepository jobRepository, UserRepository userRepository) {
+    public JobManager(JobRepository jobRepository, UserRepository userRepository, JobTextualSearch textualSearch, JobTextIndex textIndex,
+            JobDuplicateIndex duplicateIndex, JobNextActions nextActions, JobSearchCountCache countCache,
+            JobSearchResultCache resultCache, ApplicationEventPublisher eventPublisher) {
         super(userRepository);
         this.jobRepository = jobRepository;
+        this.textualSearch = textualSearch;
+        this.textIndex = textIndex;
+        this.duplicateIndex = duplicateIndex;
+        this.nextActions = nextActions;
+        this.countCache = countCache;
+        this.resultCache = resultCache;
+        this.eventPublisher = eventPublisher;
     }
 
     private void loadCurrentUserAndIsAdmin(Job j) {
@@ -58,6 +103,7 @@ public class JobManager extends IdentifiedHandler implements JobService {
     }
 
     private void addJobStatus(Job j) {
+        j.setStatusChangedAt(Instant.now());
         j.getJobHasStatuses().add(
                 JobHasStatus.builder()
                         .jobStatus(j.getOfferStatus().toJobStatus())
@@ -67,94 +113,162 @@ public class JobManager extends IdentifiedHandler implements JobService {
         );
     }
 
-    private Map<String, Object> jobToMap(Job job) {
-        Map<String, Object> jobMap = new HashMap<>();
-        jobMap.put("position", job.getPosition());
-        jobMap.put("description", job.getDescription());
-        jobMap.put("compagny", job.getCompagny());
-        jobMap.put("city", job.getCity());
-        jobMap.put("from_official_dom", job.isFromOfficialDom());
-        jobMap.put("application_date", job.getApplicationDate());
-        jobMap.put("created_at", job.getCreatedAt());
-        jobMap.put("updated_at", job.getUpdatedAt());
-        jobMap.put("contract", job.getContract().getName());
-        jobMap.put("workTime", job.getWorkTime().getName());
-        jobMap.put("workMode", job.getWorkMode().getName());
-        jobMap.put("offerStatus", job.getOfferStatus().getName());
+    private JobSearchResponse.JobItem toJobItem(JobsDto.JobListingProjection job, List<JobsDto.JobStatusProjection> jobStatuses) {
+        List<JobSearchResponse.StatusItem> statuses = jobStatuses == null
+                ? List.of()
+                : jobStatuses.stream()
+                        .map(jhs -> new JobSearchResponse.StatusItem(
+                                jhs.id(),
+                                jhs.jobStatus().getName(),
+                                jhs.offerStatus().getName(),
+                                jhs.appliedAt()
+                        ))
+                        .toList();
+
+        return new JobSearchResponse.JobItem(
+                job.position(),
+                job.compagny(),
+                job.city(),
+                job.fromOfficialDom(),
+                job.applicationDate(),
+                job.createdAt(),
+                job.updatedAt(),
+                job.contract().getName(),
+                job.workTime().getName(),
+                job.workMode().getName(),
+                job.offerStatus().getName(),
+                statuses,
+                new JobSearchResponse.SelfLink(new JobSearchResponse.Link("/jobs/" + job.id()))
+        );
+    }
 
-        if (job.getJobHasStatuses() != null && !job.getJobHasStatuses().isEmpty()) {
-            List<Map<String, Object>> statuses = job.getJobHasStatuses().stream()
-                    .map(jhs -> {
-                        Map<String, Object> statusMap = new HashMap<>();
-                        statusMap.put("id", jhs.getId());
-                        statusMap.put("job_status", jhs.getJobStatus().getName());
-                        statusMap.put("offer_status", jhs.getOfferStatus().getName());
-                        statusMap.put("applied_at", jhs.getAppliedAt());
+    /**
+     * Liste HAL des offres : l'historique des statuts de toute la page est lu
+     * en une seule requête complémentaire.
+     */
+    private JobSearchResponse.Embedded toEmbedded(List<JobsDto.JobListingProjection> jobs) {
+        Map<Integer, List<JobsDto.JobStatusProjection>> statusesByJob = jobRepository
+                .findStatusesByJobIds(jobs.stream().map(JobsDto.JobListingProjection::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(JobsDto.JobStatusProjection::jobId));
+
+        return new JobSearchResponse.Embedded(jobs.stream()
+                .map(job -> toJobItem(job, statusesByJob.get(job.id())))
+                .toList());
+    }
 
-                        return statusMap;
-                    })
-                    .toList();
-            jobMap.put("job_has_statuses", statuses);
+    /**
+     * Offre gérée par le contexte de persistance : celle que Spring Data REST a
+     * déjà lue (lecture filtrée sur l'utilisateur courant) ou, pour une offre
+     * détachée, sa copie lue maintenant sous le même filtre.
+     */
+    private Job managedJob(Job j) {
+        if (entityManager.contains(j)) {
+            return j;
         }
 
-        Map<String, Map<String, String>> links = new HashMap<>();
-        links.put("self", Map.of("href", "/jobs/" + job.getId()));
-        jobMap.put("_links", links);
+        return jobRepository.findByIdFilteredForCurrentUser(j.getId())
+                .orElseThrow(() -> new SecurityException("Job introuvable ou accès refusé"));
+    }
 
-        return jobMap;
+    /**
+     * Statut et date d'entretien de l'offre tels que lus en base (ou écrits au
+     * dernier flush), tirés de l'état chargé du contexte de persistance sans
+     * requête. Sans état chargé (offre hors du contexte, ou mandataire non
+     * initialisé), ils sont relus en base, sans flush préalable : les
+     * modifications en cours de l'offre ne doivent pas y figurer.
+     */
+    private LoadedState loadedState(Job managed) {
+        EntityEntry entry = entityManager.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal()
+                .getEntry(managed);
+
+        if (entry != null) {
+            return new LoadedState((OfferStatusEnum) entry.getLoadedValue("offerStatus"),
+                    (Instant) entry.getLoadedValue("interviewAt"));
+        }
+
+        return entityManager.createQuery(
+                "SELECT j.offerStatus, j.interviewAt FROM Job j WHERE j.id = :id", Object[].class)
+                .setParameter("id", managed.getId())
+                .setFlushMode(FlushModeType.COMMIT)
+                .getResultStream()
+                .findFirst()
+                .map(row -> new LoadedState((OfferStatusEnum) row[0], (Instant) row[1]))
+                .orElse(new LoadedState(null, null));
     }
 
-    private OfferStatusEnum getOldOfferStatus(Integer jobId) {
-        return (OfferStatusEnum) entityManager.createQuery(
-                "SELECT j.offerStatus FROM Job j WHERE j.id = :id"
-            )
-            .setParameter("id", jobId)
-            .getSingleResult();
+    private record LoadedState(OfferStatusEnum offerStatus, Instant interviewAt) {
     }
 
-    private Map<String, Object> buildHalResponse(Page<Job> jobPage, int page, int size) {
-        Map<String, Object> response = new HashMap<>();
+    private JobSearchResponse buildHalResponse(Page<JobsDto.JobListingProjection> jobPage, int page, int size, PaginationModeEnum mode) {
+        int lastPage = jobPage.getTotalPages() - 1;
 
-        // _embedded
-        Map<String, Object> embedded = new HashMap<>();
-        List<Map<String, Object>> jobsWithLinks = jobPage.getContent().stream()
-                .map(this::jobToMap)
-                .toList();
-        embedded.put("jobs", jobsWithLinks);
-        response.put("_embedded", embedded);
+        JobSearchResponse.Links links = new JobSearchResponse.Links(
+                searchLink(mode, page, size),
+                searchLink(mode, 0, size),
+                searchLink(mode, lastPage, size),
+                page > 0 ? searchLink(mode, page - 1, size) : null,
+                page < lastPage ? searchLink(mode, page + 1, size) : null
+        );
 
-        Map<String, Map<String, String>> links = new HashMap<>();
+        return new JobSearchResponse(
+                toEmbedded(jobPage.getContent()),
+                links,
+                new JobSearchResponse.PageInfo(jobPage.getSize(), jobPage.getTotalElements(), jobPage.getTotalPages(), jobPage.getNumber())
+        );
+    }
 
-        String selfHref = String.format("/jobs/search?page=%d&size=%d", page, size);
-        links.put("self", Map.of("href", selfHref));
+    private JobSearchResponse.Link searchLink(PaginationModeEnum mode, int page, int size) {
+        String modeParam = mode == PaginationModeEnum.OFFSET ? "" : "mode=" + mode.name() + "&";
 
-        links.put("first", Map.of("href", String.format("/jobs/search?page=0&size=%d", size)));
+        return new JobSearchResponse.Link("/jobs/search?" + modeParam + "page=" + page + "&size=" + size);
+    }
 
-        int lastPage = jobPage.getTotalPages() - 1;
-        links.put("last", Map.of("href", String.format("/jobs/search?page=%d&size=%d", lastPage, size)));
+    private JobSearchResponse buildSliceHalResponse(Slice<JobsDto.JobListingProjection> jobSlice, int page, int size) {
+        JobSearchResponse.Links links = new JobSearchResponse.Links(
+                searchLink(PaginationModeEnum.SLICE, page, size),
+                searchLink(PaginationModeEnum.SLICE, 0, size),
+                null,
+                jobSlice.hasPrevious() ? searchLink(PaginationModeEnum.SLICE, page - 1, size) : null,
+                jobSlice.hasNext() ? searchLink(PaginationModeEnum.SLICE, page + 1, size) : null
+        );
 
-        if (page > 0) {
-            links.put("prev", Map.of("href", String.format("/jobs/search?page=%d&size=%d", page - 1, size)));
-        }
+        // ni total_elements ni total_pages : aucun count n'est exécuté dans ce mode
+        return new JobSearchResponse(
+                toEmbedded(jobSlice.getContent()),
+                links,
+                new JobSearchResponse.PageInfo(jobSlice.getSize(), null, null, jobSlice.getNumber())
+        );
+    }
 
-        if (page < lastPage) {
-            links.put("next", Map.of("href", String.format("/jobs/search?page=%d&size=%d", page + 1, size)));
-        }
+    private JobSearchResponse buildKeysetHalResponse(List<JobsDto.JobListingProjection> jobs, String cursor, String nextCursor, String prevCursor, int size) {
+        String firstHref = "/jobs/search?mode=KEYSET&size=" + size;
 
-        response.put("_links", links);
+        JobSearchResponse.Links links = new JobSearchResponse.Links(
+                new JobSearchResponse.Link(cursor == null ? firstHref : firstHref + "&cursor=" + cursor),
+                new JobSearchResponse.Link(firstHref),
+                null,
+                prevCursor != null ? new JobSearchResponse.Link(firstHref + "&cursor=" + prevCursor) : null,
+                nextCursor != null ? new JobSearchResponse.Link(firstHref + "&cursor=" + nextCursor) : null
+        );
+
+        // pas de total en mode curseur : c'est justement le comptage que l'on évite
+        return new JobSearchResponse(toEmbedded(jobs), links, new JobSearchResponse.PageInfo(size, null, null, null));
+    }
 
-        // page info
-        Map<String, Object> pageInfo = new HashMap<>();
-        pageInfo.put("size", jobPage.getSize());
-        pageInfo.put("total_elements", jobPage.getTotalElements());
-        pageInfo.put("total_pages", jobPage.getTotalPages());
-        pageInfo.put("number", jobPage.getNumber());
-        response.put("page", pageInfo);
+    private Specification<Job> buildTextualSpecification(String textual, User currentUser, boolean isAdminWithScope) {
+        // l'index en mémoire est partitionné par utilisateur : la recherche admin reste en base
+        Optional<Set<Integer>> candidates = isAdminWithScope || currentUser == null
+                ? Optional.empty()
+                : textIndex.candidates(currentUser.getId(), textual);
 
-        return response;
+        return candidates
+                .<Specification<Job>>map(ids -> (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids))
+                .orElseGet(() -> textualSearch.matching(textual));
     }
 
-    private Specification<Job> buildSpecification(JobSearchRequest request) {
+    private Specification<Job> buildSpecification(JobSearchRequest request, User currentUser, boolean isAdminWithScope) {
         Specification<Job> spec = (root, query, cb) -> cb.conjunction();
 
         if (request.getContract() != null) {
@@ -177,41 +291,20 @@ public class JobManager extends IdentifiedHandler implements JobService {
             spec = spec.and((root, query, cb) -> cb.isTrue(root.get("fromOfficialDom")));
         }
 
+        // une offre a eu un évènement après X si sa plus récente date est >= X
         if (request.getEventAfter() != null) {
             Instant eventAfter = request.getEventAfterAsInstant();
-            spec = spec.and(
-                (root, query, cb) 
-                    -> cb.or(
-                        cb.greaterThanOrEqualTo(root.get("createdAt"), eventAfter),
-                        cb.greaterThanOrEqualTo(root.get("updatedAt"), eventAfter),
-                        cb.greaterThanOrEqualTo(root.get("applicationDate"), eventAfter)
-                    )
-            );
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("lastActivityAt"), eventAfter));
         }
 
+        // ... et avant X si sa plus ancienne date est <= X
         if (request.getEventBefore() != null) {
             Instant eventBefore = request.getEventBeforeAsInstant();
-            spec = spec.and(
-                (root, query, cb)
-                    -> cb.or(
-                        cb.lessThanOrEqualTo(root.get("createdAt"), eventBefore),
-                        cb.lessThanOrEqualTo(root.get("updatedAt"), eventBefore),
-                        cb.lessThanOrEqualTo(root.get("applicationDate"), eventBefore)
-                    )
-            );
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.get("firstActivityAt"), eventBefore));
         }
 
         if (request.getTextual() != null && !request.getTextual().isBlank()) {
-            String searchPattern = "%" + request.getTextual().toLowerCase() + "%";
-            spec = spec.and(
-                (root, query, cb)
-                    -> cb.or(
-                            cb.like(cb.lower(root.get("position")), searchPattern),
-                            cb.like(cb.lower(root.get("compagny")), searchPattern),
-                            cb.like(cb.lower(root.get("city")), searchPattern),
-                            cb.like(cb.lower(root.get("description")), searchPattern)
-                    )
-            );
+            spec = spec.and(buildTextualSpecification(request.getTextual().trim(), currentUser, isAdminWithScope));
         }
 
         return spec;
@@ -219,7 +312,7 @@ public class JobManager extends IdentifiedHandler implements JobService {
 
     private Sort buildSort(String sortParam) {
         if (sortParam == null || sortParam.isBlank()) {
-            return Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt", "applicationDate");
+            return Sort.by(Sort.Direction.DESC, "lastActivityAt");
         }
 
         return switch (sortParam.toUpperCase()) {
@@ -228,73 +321,395 @@ public class JobManager extends IdentifiedHandler implements JobService {
             case "Z-A" ->
                 Sort.by(Sort.Direction.DESC, "position");
             case "DATE_ASC" ->
-                Sort.by(Sort.Direction.ASC, "updatedAt", "createdAt", "applicationDate");
+                Sort.by(Sort.Direction.ASC, "lastActivityAt");
             case "DATE_DESC" ->
-                Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt", "applicationDate");
+                Sort.by(Sort.Direction.DESC, "lastActivityAt");
             default ->
-                Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt", "applicationDate");
+                Sort.by(Sort.Direction.DESC, "lastActivityAt");
+        };
+    }
+
+    private String normalizeSort(String sortParam) {
+        if (sortParam == null || sortParam.isBlank()) {
+            return "DATE_DESC";
+        }
+
+        return switch (sortParam.toUpperCase()) {
+            case "A-Z", "Z-A", "DATE_ASC" -> sortParam.toUpperCase();
+            default -> "DATE_DESC";
         };
     }
 
+    /**
+     * Clé d'une réponse de recherche : mode, tri, position (page ou curseur),
+     * taille de page et forme du filtre.
+     */
+    private String resultKey(PaginationModeEnum mode, JobSearchRequest searchRequest, String position, int size) {
+        String sort = searchRequest.getSort() == null ? "" : searchRequest.getSort().trim().toUpperCase();
+
+        return String.join("|", mode.name(), sort, position, String.valueOf(size), searchRequest.filterShape());
+    }
+
+    private Sort buildKeysetSort(String sortParam) {
+        Sort sort = buildSort(sortParam);
+        Sort.Direction direction = sort.stream()
+                .reduce((first, second) -> second)
+                .map(Sort.Order::getDirection)
+                .orElse(Sort.Direction.DESC);
+
+        // id_job départage les lignes dont toutes les clés de tri sont égales
+        return sort.and(Sort.by(direction, "id"));
+    }
+
+    private Specification<Job> buildSearchSpecification(JobSearchRequest searchRequest, User currentUser, boolean isAdminWithScope) {
+        Specification<Job> securitySpec = SecuritySpecifications
+                .<Job>belongsToUserOrAdmin(currentUser, isAdminWithScope);
+        Specification<Job> searchSpec = buildSpecification(searchRequest, currentUser, isAdminWithScope);
+        Specification<Job> finalSpec = securitySpec.and(searchSpec);
+
+        // tri par pertinence : prioritaire, le tri par dates ne sert plus qu'à départager
+        if ("RELEVANCE".equalsIgnoreCase(searchRequest.getSort())
+                && searchRequest.getTextual() != null && !searchRequest.getTextual().isBlank()) {
+            finalSpec = textualSearch.rankedBy(searchRequest.getTextual().trim())
+                    .map(finalSpec::and)
+                    .orElse(finalSpec);
+        }
+
+        return finalSpec;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobSearchResponse searchJobsForCurrentUser(JobSearchRequest searchRequest, int page, int size) {
+        User currentUser = getCurrentUser();
+        boolean isAdminWithScope = isAdminWithScopeAdmin();
+
+        return resultCache.get(currentUser, isAdminWithScope,
+                resultKey(PaginationModeEnum.OFFSET, searchRequest, String.valueOf(page), size), () -> {
+            textualSearch.prepare();
+            Specification<Job> finalSpec = buildSearchSpecification(searchRequest, currentUser, isAdminWithScope);
+            Pageable pageable = PageRequest.of(page, size, buildSort(searchRequest.getSort()));
+            Page<JobsDto.JobListingProjection> jobPage = jobRepository.findListingBySearch(finalSpec, pageable,
+                    () -> jobRepository.countBySearch(finalSpec));
+
+            return buildHalResponse(jobPage, page, size, PaginationModeEnum.OFFSET);
+        });
+    }
+
     @Override
-    public Map<String, Object> searchJobsForCurrentUser(JobSearchRequest searchRequest, int page, int size) {
+    @Transactional(readOnly = true)
+    public JobSearchResponse searchJobsForCurrentUserWithEstimatedTotal(JobSearchRequest searchRequest, int page, int size) {
         User currentUser = getCurrentUser();
         boolean isAdminWithScope = isAdminWithScopeAdmin();
 
+        return resultCache.get(currentUser, isAdminWithScope,
+                resultKey(PaginationModeEnum.ESTIMATED, searchRequest, String.valueOf(page), size), () -> {
+            textualSearch.prepare();
+            Specification<Job> finalSpec = buildSearchSpecification(searchRequest, currentUser, isAdminWithScope);
+            Pageable pageable = PageRequest.of(page, size, buildSort(searchRequest.getSort()));
+            Page<JobsDto.JobListingProjection> jobPage = jobRepository.findListingBySearch(finalSpec, pageable,
+                    () -> countCache.get(currentUser, isAdminWithScope, searchRequest.filterShape(),
+                            () -> jobRepository.countBySearch(finalSpec)));
+
+            return buildHalResponse(jobPage, page, size, PaginationModeEnum.ESTIMATED);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobSearchResponse searchJobsForCurrentUserBySlice(JobSearchRequest searchRequest, int page, int size) {
+        User currentUser = getCurrentUser();
+        boolean isAdminWithScope = isAdminWithScopeAdmin();
+
+        return resultCache.get(currentUser, isAdminWithScope,
+                resultKey(PaginationModeEnum.SLICE, searchRequest, String.valueOf(page), size), () -> {
+            textualSearch.prepare();
+            Specification<Job> finalSpec = buildSearchSpecification(searchRequest, currentUser, isAdminWithScope);
+            Pageable pageable = PageRequest.of(page, size, buildSort(searchRequest.getSort()));
+            Slice<JobsDto.JobListingProjection> jobSlice = jobRepository.findListingSliceBySearch(finalSpec, pageable);
+
+            return buildSliceHalResponse(jobSlice, page, size);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobSearchResponse.Facets countFacetsForCurrentUser(JobSearchRequest searchRequest) {
+        textualSearch.prepare();
+        User currentUser = getCurrentUser();
+        boolean isAdminWithScope = isAdminWithScopeAdmin();
+
+        JobsDto.SearchFacets facets = jobRepository.countFacetsBySearch(
+                buildSearchSpecification(searchRequest, currentUser, isAdminWithScope));
+
+        return new JobSearchResponse.Facets(
+                facetToNames(facets.contract()),
+                facetToNames(facets.workMode()),
+                facetToNames(facets.workTime()),
+                facetToNames(facets.offerStatus())
+        );
+    }
+
+    private <E extends Enum<E> & LabelledEnum> Map<String, Long> facetToNames(Map<E, Long> facet) {
+        Map<String, Long> byName = new LinkedHashMap<>();
+        facet.forEach((value, count) -> byName.put(value.getName(), count));
+
+        return byName;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public JobSearchResponse searchJobsForCurrentUserByCursor(JobSearchRequest searchRequest, String cursor, int size) {
+        User currentUser = getCurrentUser();
+        boolean isAdminWithScope = isAdminWithScopeAdmin();
+
+        return resultCache.get(currentUser, isAdminWithScope,
+                resultKey(PaginationModeEnum.KEYSET, searchRequest, cursor == null ? "" : cursor, size),
+                () -> searchByCursor(searchRequest, cursor, size, currentUser, isAdminWithScope));
+    }
+
+    private JobSearchResponse searchByCursor(JobSearchRequest searchRequest, String cursor, int size,
+            User currentUser, boolean isAdminWithScope) {
+        textualSearch.prepare();
+
         Specification<Job> securitySpec = SecuritySpecifications
                 .<Job>belongsToUserOrAdmin(currentUser, isAdminWithScope);
-        Specification<Job> searchSpec = buildSpecification(searchRequest);
-        Specification<Job> finalSpec = securitySpec.and(searchSpec);
+        Specification<Job> finalSpec = securitySpec.and(buildSpecification(searchRequest, currentUser, isAdminWithScope));
+
+        String sortName = normalizeSort(searchRequest.getSort());
+        Sort sort = buildKeysetSort(searchRequest.getSort());
+
+        JobSearchCursor from = null;
+        if (cursor != null && !cursor.isBlank()) {
+            from = JobSearchCursor.decode(cursor);
+            if (!sortName.equals(from.sort())) {
+                throw new IllegalArgumentException("Curseur incompatible avec le tri demandé");
+            }
+        }
 
-        Sort sort = buildSort(searchRequest.getSort());
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<Job> jobPage = jobRepository.findBySearch(finalSpec, pageable);
+        boolean backward = from != null && from.backward();
+        List<JobsDto.JobListingProjection> rows = new ArrayList<>(jobRepository.findListingBySearchAfter(
+                finalSpec,
+                backward ? sort.reverse() : sort,
+                from == null ? null : from.keys(),
+                size + 1
+        ));
+
+        // une ligne de plus que demandé indique s'il reste des résultats dans le sens du parcours
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, size));
+        }
+        if (backward) {
+            Collections.reverse(rows);
+        }
 
-        return buildHalResponse(jobPage, page, size);
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!rows.isEmpty()) {
+            if (backward || hasMore) {
+                nextCursor = new JobSearchCursor(sortName, false, JobKeyset.keysOf(rows.get(rows.size() - 1), sort)).encode();
+            }
+            if (from != null && (!backward || hasMore)) {
+                prevCursor = new JobSearchCursor(sortName, true, JobKeyset.keysOf(rows.get(0), sort)).encode();
+            }
+        }
+
+        return buildKeysetHalResponse(rows, from == null ? null : cursor, nextCursor, prevCursor, size);
     }
 
+    /**
+     * @return les offres du propriétaire probablement identiques à la nouvelle offre
+     */
     @Override
-    public void registerJob(Job j) {
+    public List<Integer> registerJob(Job j) {
         loadCurrentUserAndIsAdmin(j);
+        completeNewJob(j);
 
+        List<Integer> duplicates = duplicateIndex.probableDuplicates(
+                j.getUser().getId(), j.getPosition(), j.getCompagny(), j.getCity(), null);
+        j.setProbableDuplicates(duplicates);
+
+        return duplicates;
+    }
+
+    @Override
+    public void registerJobFor(Job j, User owner) {
+        j.setUser(owner);
+        completeNewJob(j);
+    }
+
+    /**
+     * Validation et valeurs par défaut d'une nouvelle offre dont le
+     * propriétaire est fixé.
+     */
+    private void completeNewJob(Job j) {
         StringBuilder failedValidation = new StringBuilder();
         if (!doCheckJobRegistering(j, failedValidation)) {
             throw new MissingFieldsException(failedValidation.toString());
         }
 
         if (!j.isFromOfficialDom()) {
-            switch (j.getOfferStatus().getName()) {
-                case "O_ACCEPT" -> j.setOfferStatus(OfferStatusEnum.A_EN_COURS);
-                case "O_REFUS" -> j.setOfferStatus(OfferStatusEnum.C_REFUSE);
-            }
+            j.setOfferStatus(outsideOfficialDom(j.getOfferStatus()));
         }
 
         addJobStatus(j);
+        nextActions.refresh(j);
         
         if(j.getApplicationDate() == null)
             j.setApplicationDate(j.getCreatedAt());
     }
 
+    /**
+     * Statut effectif d'une offre qui ne vient pas d'une source officielle :
+     * l'acceptation ou le refus d'une offre y valent candidature en cours ou refusée.
+     */
+    private OfferStatusEnum outsideOfficialDom(OfferStatusEnum offerStatus) {
+        return switch (offerStatus.getName()) {
+            case "O_ACCEPT" -> OfferStatusEnum.A_EN_COURS;
+            case "O_REFUS" -> OfferStatusEnum.C_REFUSE;
+            default -> offerStatus;
+        };
+    }
+
     @Override
     public void updateJob(Job j) {
         loadCurrentUserAndIsAdmin(j);
 
-        Job existingJob = jobRepository.findByIdFilteredForCurrentUser(j.getId())
-                .orElseThrow(() -> new SecurityException("Job introuvable ou accès refusé"));
-
+        Job existingJob = managedJob(j);
 
         StringBuilder failedValidation = new StringBuilder();
         if (!doCheckJobRegistering(j, failedValidation)) {
             throw new MissingFieldsException(failedValidation.toString());
         }
 
-        if (getOldOfferStatus(j.getId()) != j.getOfferStatus()) 
+        // l'UPDATE de l'offre porte sa version : une modification concurrente
+        // fait échouer la transaction, historique compris
+        LoadedState loaded = loadedState(existingJob);
+        boolean statusChanged = loaded.offerStatus() != j.getOfferStatus();
+        if (statusChanged) 
             addJobStatus(j);
+        // échéance à revoir si le statut ou la date d'entretien a changé
+        if (statusChanged || !Objects.equals(loaded.interviewAt(), j.getInterviewAt()))
+            nextActions.refresh(j);
         
         if(j.getApplicationDate() == null)
             j.setApplicationDate(j.getCreatedAt());
     }
 
+    @Override
+    @Transactional
+    public JobStatusTransitionResponse transitionOfferStatusForCurrentUser(JobStatusTransitionRequest request) {
+        User currentUser = getCurrentUser();
+        boolean isAdminWithScope = isAdminWithScopeAdmin();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        if (request.getOfferStatus() == null) {
+            throw new MissingFieldsException("offerStatus");
+        }
+
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (!byIds && request.getSelector() == null) {
+            throw new MissingFieldsException("ids");
+        }
+
+        Specification<Job> selection = (root, query, cb) -> cb.conjunction();
+        if (byIds) {
+            selection = selection.and((root, query, cb) -> root.get("id").in(request.getIds()));
+        }
+        if (request.getSelector() != null) {
+            selection = selection.and(buildSpecification(request.getSelector(), currentUser, isAdminWithScope));
+        }
+
+        // mêmes règles qu'à l'enregistrement : hors source officielle, O_ACCEPT / O_REFUS sont convertis
+        OfferStatusEnum offerStatus = request.getOfferStatus();
+        OfferStatusEnum otherOfferStatus = outsideOfficialDom(offerStatus);
+        List<JobsDto.StatusTransition> transitions = new ArrayList<>();
+
+        if (otherOfferStatus == offerStatus) {
+            transitions.addAll(jobRepository.transitionOfferStatusForCurrentUser(selection, offerStatus));
+        } else {
+            transitions.addAll(jobRepository.transitionOfferStatusForCurrentUser(
+                    selection.and((root, query, cb) -> cb.isTrue(root.get("fromOfficialDom"))), offerStatus));
+            transitions.addAll(jobRepository.transitionOfferStatusForCurrentUser(
+                    selection.and((root, query, cb) -> cb.isFalse(root.get("fromOfficialDom"))), otherOfferStatus));
+        }
+
+        // un évènement par utilisateur touché, et non par offre
+        transitions.stream().map(JobsDto.StatusTransition::userId).distinct().forEach(userId -> eventPublisher.publishEvent(
+                new JobChangedEvent(null, userId, JobChangedEvent.ChangeTypeEnum.STATUS_CHANGED)));
+
+        return new JobStatusTransitionResponse(transitions.size(), transitions.stream()
+                .map(t -> new JobStatusTransitionResponse.Transition(t.jobId(), t.from().getName(), t.to().getName()))
+                .toList());
+    }
+
+    /**
+     * Liste « à faire » : offres de l'utilisateur courant par échéance de la
+     * prochaine action, lue sur l'index id_user, next_action_at.
+     *
+     * @param until échéances antérieures à cet instant seulement (null : toutes)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public JobActionsResponse findActionsForCurrentUser(Instant until, int limit) {
+        User currentUser = getCurrentUser();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        Instant now = Instant.now();
+        return new JobActionsResponse(jobRepository.findActionsForUser(currentUser.getId(), until, limit).stream()
+                .map(job -> new JobActionsResponse.Action(job.id(), job.position(), job.compagny(), job.city(),
+                        job.offerStatus().getName(), actionType(job.offerStatus()), job.nextActionAt(),
+                        job.nextActionAt().isBefore(now)))
+                .toList());
+    }
+
+    private static JobActionsResponse.ActionType actionType(OfferStatusEnum offerStatus) {
+        return switch (offerStatus) {
+            case B_RELANCE_A -> JobActionsResponse.ActionType.FOLLOW_UP;
+            case D_ENTRETIEN -> JobActionsResponse.ActionType.INTERVIEW;
+            default -> JobActionsResponse.ActionType.STALE_APPLICATION;
+        };
+    }
+
+    @Override
+    public JobDuplicatesResponse findDuplicatesForCurrentUser() {
+        User currentUser = getCurrentUser();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        List<List<Integer>> clusters = duplicateIndex.clusters(currentUser.getId());
+        if (clusters.isEmpty()) {
+            return new JobDuplicatesResponse(List.of());
+        }
+
+        Set<Integer> ids = clusters.stream().flatMap(List::stream).collect(Collectors.toSet());
+        Map<Integer, Job> jobs = jobRepository.findAll(SecuritySpecifications.<Job>belongsToUserOrAdmin(currentUser, false)
+                .and((root, query, cb) -> root.get("id").in(ids)))
+                .stream()
+                .collect(Collectors.toMap(Job::getId, job -> job));
+
+        // une offre supprimée entre-temps sort de son groupe
+        return new JobDuplicatesResponse(clusters.stream()
+                .map(cluster -> cluster.stream()
+                        .map(jobs::get)
+                        .filter(Objects::nonNull)
+                        .map(job -> new JobDuplicatesResponse.Member(job.getId(), job.getPosition(), job.getCompagny(),
+                                job.getCity(), job.getOfferStatus().getName(), job.getCreatedAt()))
+                        .toList())
+                .filter(members -> members.size() > 1)
+                .map(JobDuplicatesResponse.Cluster::new)
+                .toList());
+    }
+
     @Override
     public Boolean doCheckJobRegistering(Job j, StringBuilder failedValidation) {
         StringBuilder fieldName = new StringBuilder();
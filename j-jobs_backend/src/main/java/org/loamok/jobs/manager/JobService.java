@@ -1,17 +1,32 @@
 package org.loamok.jobs.manager;
 
-import java.util.Map;
+import java.time.Instant;
+import java.util.List;
 import org.loamok.jobs.entity.Job;
 import org.loamok.jobs.dto.request.JobSearchRequest;
+import org.loamok.jobs.dto.request.JobStatusTransitionRequest;
+import org.loamok.jobs.dto.response.JobActionsResponse;
+import org.loamok.jobs.dto.response.JobDuplicatesResponse;
+import org.loamok.jobs.dto.response.JobSearchResponse;
+import org.loamok.jobs.dto.response.JobStatusTransitionResponse;
+import org.loamok.libs.o2springsecurity.entity.User;
 
 /**
  *
  * @author Huby Franck
  */
 public interface JobService {
-    void registerJob(Job j);
+    List<Integer> registerJob(Job j);
+    void registerJobFor(Job j, User owner);
     void updateJob(Job j);
     Boolean doCheckJobRegistering(Job j, StringBuilder failedValidation);
     Boolean checkNonNullFields(Job j, StringBuilder fieldName);
-    Map<String, Object> searchJobsForCurrentUser(JobSearchRequest searchRequest, int page, int size);
+    JobSearchResponse searchJobsForCurrentUser(JobSearchRequest searchRequest, int page, int size);
+    JobSearchResponse searchJobsForCurrentUserWithEstimatedTotal(JobSearchRequest searchRequest, int page, int size);
+    JobSearchResponse searchJobsForCurrentUserBySlice(JobSearchRequest searchRequest, int page, int size);
+    JobSearchResponse.Facets countFacetsForCurrentUser(JobSearchRequest searchRequest);
+    JobSearchResponse searchJobsForCurrentUserByCursor(JobSearchRequest searchRequest, String cursor, int size);
+    JobStatusTransitionResponse transitionOfferStatusForCurrentUser(JobStatusTransitionRequest request);
+    JobDuplicatesResponse findDuplicatesForCurrentUser();
+    JobActionsResponse findActionsForCurrentUser(Instant until, int limit);
 }
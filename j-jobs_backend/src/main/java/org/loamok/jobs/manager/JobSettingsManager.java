@@ -0,0 +1,85 @@
+package org.loamok.jobs.manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Objects;
+import org.loamok.jobs.config.JobFollowUpProperties;
+import org.loamok.jobs.dto.request.JobSettingsRequest;
+import org.loamok.jobs.dto.response.JobSettingsResponse;
+import org.loamok.jobs.entity.UserJobSettings;
+import org.loamok.jobs.repository.JobDataVersions;
+import org.loamok.jobs.repository.JobNextActions;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.event.IdentifiedHandler;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Réglages du suivi des candidatures de l'utilisateur courant.
+ *
+ * @author Huby Franck
+ */
+@Service
+public class JobSettingsManager extends IdentifiedHandler {
+
+    private final JobFollowUpProperties followUpProperties;
+    private final JobNextActions nextActions;
+    private final JobDataVersions dataVersions;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobSettingsManager(UserRepository userRepository, JobFollowUpProperties followUpProperties,
+            JobNextActions nextActions, JobDataVersions dataVersions) {
+        super(userRepository);
+        this.followUpProperties = followUpProperties;
+        this.nextActions = nextActions;
+        this.dataVersions = dataVersions;
+    }
+
+    @Transactional(readOnly = true)
+    public JobSettingsResponse getForCurrentUser() {
+        return toResponse(entityManager.find(UserJobSettings.class, currentUser().getId()));
+    }
+
+    @Transactional
+    public JobSettingsResponse updateForCurrentUser(JobSettingsRequest request) {
+        Integer userId = currentUser().getId();
+        UserJobSettings settings = entityManager.find(UserJobSettings.class, userId);
+
+        if (settings == null) {
+            settings = UserJobSettings.builder().userId(userId).build();
+            entityManager.persist(settings);
+        }
+        boolean delayChanged = !Objects.equals(settings.getFollowUpDays(), request.getFollowUpDays());
+        settings.setFollowUpDays(request.getFollowUpDays());
+        settings.setDigestOptIn(Boolean.TRUE.equals(request.getDigestOptIn()));
+
+        if (delayChanged) {
+            nextActions.refreshUser(userId);
+        }
+        // version avancée à la validation : les réponses conditionnelles déjà émises sont périmées
+        dataVersions.bump(userId);
+
+        return toResponse(settings);
+    }
+
+    private User currentUser() {
+        User currentUser = getCurrentUser();
+
+        if (currentUser == null) {
+            throw new SecurityException("Utilisateur introuvable");
+        }
+
+        return currentUser;
+    }
+
+    private JobSettingsResponse toResponse(UserJobSettings settings) {
+        Integer followUpDays = settings == null ? null : settings.getFollowUpDays();
+        boolean digestOptIn = settings != null && Boolean.TRUE.equals(settings.getDigestOptIn());
+
+        return new JobSettingsResponse(followUpDays,
+                followUpDays != null ? followUpDays : followUpProperties.getDefaultDays(),
+                digestOptIn);
+    }
+}
@@ -0,0 +1,65 @@
+package org.loamok.jobs.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Exclusion entre instances par verrou consultatif PostgreSQL
+ * (pg_try_advisory_lock), pris sur une connexion dédiée pour toute la durée
+ * de la tâche. Le verrou tombe avec la connexion : une instance arrêtée en
+ * pleine tâche ne bloque pas les suivantes.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+public class AdvisoryScheduledTaskLock implements ScheduledTaskLock {
+
+    // espace des verrous de l'application (première clé de pg_try_advisory_lock(int, int))
+    private static final int NAMESPACE = 0x4A0B5;
+
+    private final DataSource dataSource;
+
+    public AdvisoryScheduledTaskLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public boolean runExclusively(String task, Runnable work) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            if (!call(connection, "SELECT pg_try_advisory_lock(?, hashtext(?))", task)) {
+                log.debug("Tâche {} déjà en cours sur une autre instance", task);
+                return false;
+            }
+
+            try {
+                work.run();
+
+                return true;
+            } finally {
+                if (!call(connection, "SELECT pg_advisory_unlock(?, hashtext(?))", task)) {
+                    log.warn("Verrou de la tâche {} déjà libéré", task);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Verrou de la tâche " + task + " indisponible", e);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql, String task) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, NAMESPACE);
+            statement.setString(2, task);
+
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.loamok.jobs.repository;
+
+import java.util.Optional;
+import org.loamok.jobs.entity.Job;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Recherche plein texte PostgreSQL (configuration « french »).
+ *
+ * Le document jobs_fts_document(position, compagny, city, description) est
+ * indexé en GIN (voir schema-postgresql.sql) ; les fonctions jobs_fts_match et
+ * jobs_fts_rank sont déclarées par {@link PostgresSearchFunctions}.
+ *
+ * @author Huby Franck
+ */
+public class FullTextJobTextualSearch implements JobTextualSearch {
+
+    @Override
+    public Specification<Job> matching(String textual) {
+        return (root, query, cb) -> cb.isTrue(cb.function(
+                "jobs_fts_match", Boolean.class,
+                root.get("position"), root.get("compagny"), root.get("city"), root.get("description"),
+                cb.literal(textual)
+        ));
+    }
+
+    @Override
+    public Optional<Specification<Job>> rankedBy(String textual) {
+        return Optional.of((root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(cb.desc(cb.function(
+                        "jobs_fts_rank", Double.class,
+                        root.get("position"), root.get("compagny"), root.get("city"), root.get("description"),
+                        cb.literal(textual)
+                )));
+            }
+
+            return cb.conjunction();
+        });
+    }
+}
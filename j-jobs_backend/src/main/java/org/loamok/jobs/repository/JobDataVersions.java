@@ -0,0 +1,95 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Versions des données d'offres par utilisateur (job_data_versions),
+ * croissantes et avancées à chaque écriture sur une offre ou son historique
+ * (voir JobDataVersionListener).
+ *
+ * Les versions sont en base : une écriture sur une instance périme les ETag
+ * émis par toutes les autres. Les utilisateurs touchés par une transaction
+ * sont cumulés puis leurs versions avancées juste avant la validation, une
+ * mise à jour par utilisateur, dans la transaction de l'écriture : un
+ * rollback ne les avance pas, et une lecture concurrente voit l'ancienne
+ * version tant que les données ne sont pas validées.
+ *
+ * La version admin, qui couvre tous les utilisateurs, est la somme des
+ * versions.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobDataVersions {
+
+    private static final String UPSERT = "insert into JobDataVersion (userId, version) values (:userId, 1) "
+            + "on conflict (userId) do update set version = version + 1";
+
+    // utilisateurs touchés par session, en attente de la validation
+    private final Map<SessionImplementor, Set<Integer>> pending = new ConcurrentHashMap<>();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long current(Integer userId) {
+        return entityManager.createQuery("SELECT v.version FROM JobDataVersion v WHERE v.userId = :userId", Long.class)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    @Transactional(readOnly = true)
+    public long currentForAdmin() {
+        return entityManager.createQuery("SELECT coalesce(sum(v.version), 0) FROM JobDataVersion v", Long.class)
+                .getSingleResult();
+    }
+
+    /**
+     * Avance la version de l'utilisateur à la validation de la transaction
+     * courante ; à appeler aussi par les mises à jour de masse, qui ne
+     * passent pas par les évènements d'entité.
+     */
+    public void bump(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        pending.computeIfAbsent(session, this::startTracking).add(userId);
+    }
+
+    /**
+     * Premier utilisateur touché par la transaction : une seule étape "avant
+     * validation" avancera toutes les versions.
+     */
+    private Set<Integer> startTracking(SessionImplementor session) {
+        session.getActionQueue().registerProcess(
+                (BeforeTransactionCompletionProcess) s -> applyAll(s, pending.remove(session)));
+        // rollback : rien n'est avancé
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, s) -> pending.remove(session));
+
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    private static void applyAll(SessionImplementor session, Set<Integer> userIds) {
+        if (userIds == null) {
+            return;
+        }
+
+        // ordre stable : deux transactions ne se bloquent pas mutuellement
+        userIds.stream().sorted().forEach(userId -> session.createMutationQuery(UPSERT)
+                .setParameter("userId", userId)
+                .executeUpdate());
+    }
+}
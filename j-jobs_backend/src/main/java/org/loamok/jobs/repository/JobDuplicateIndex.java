@@ -0,0 +1,297 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import org.loamok.jobs.config.JobDuplicatesProperties;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Empreintes MinHash des offres, partitionnées par utilisateur, pour repérer
+ * les doublons probables (même offre saisie deux fois, orthographe voisine).
+ *
+ * L'empreinte d'une offre est calculée sur les trigrammes de caractères de
+ * son intitulé, de son entreprise et de sa ville, normalisés par
+ * {@link TextNormalizer}. Elle est découpée en bandes ; deux offres qui
+ * partagent une bande sont candidates, puis retenues si la part des valeurs
+ * communes de leurs empreintes (estimation de la similarité de Jaccard)
+ * atteint le seuil. Une recherche coûte donc une lecture par bande, quel que
+ * soit le nombre d'offres de l'utilisateur.
+ *
+ * Les partitions sont gérées comme celles de {@link JobTextIndex}, par
+ * {@link UserPartitions}.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobDuplicateIndex {
+
+    private static final int BANDS = 16;
+    private static final int ROWS = 4;
+    private static final int[] SEEDS = new SplittableRandom(0x6A0B5L).ints(BANDS * ROWS).toArray();
+
+    private final boolean enabled;
+    private final double threshold;
+    private final UserPartitions<int[], Partition> partitions;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobDuplicateIndex(JobDuplicatesProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.threshold = properties.getSimilarityThreshold();
+        this.partitions = new UserPartitions<>("Empreintes de doublons",
+                properties.getMaxIndexedJobs(), Partition::new, this::load);
+    }
+
+    /**
+     * Offres de l'utilisateur probablement identiques à celle décrite, de la
+     * plus à la moins semblable.
+     *
+     * @param excludedJobId offre elle-même, à écarter (null pour une nouvelle offre)
+     */
+    public List<Integer> probableDuplicates(Integer userId, String position, String compagny, String city, Integer excludedJobId) {
+        if (!enabled || userId == null) {
+            return List.of();
+        }
+
+        int[] signature = signature(position, compagny, city);
+        if (signature == null) {
+            return List.of();
+        }
+
+        return partitions.get(userId).similarTo(signature, excludedJobId, threshold);
+    }
+
+    /**
+     * Groupes d'offres de l'utilisateur probablement identiques entre elles,
+     * chaque groupe trié par identifiant.
+     */
+    public List<List<Integer>> clusters(Integer userId) {
+        if (!enabled || userId == null) {
+            return List.of();
+        }
+
+        return partitions.get(userId).clusters(threshold);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        if (enabled) {
+            partitions.onJobChanged(event);
+        }
+    }
+
+    private Map<Integer, int[]> load(Integer userId, Integer jobId) {
+        String jpql = "SELECT j.id, j.position, j.compagny, j.city FROM Job j WHERE j.user.id = :userId"
+                + (jobId == null ? "" : " AND j.id = :jobId");
+
+        var query = entityManager.createQuery(jpql, Object[].class).setParameter("userId", userId);
+        if (jobId != null) {
+            query.setParameter("jobId", jobId);
+        }
+
+        Map<Integer, int[]> signatures = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            int[] signature = signature((String) row[1], (String) row[2], (String) row[3]);
+            if (signature != null) {
+                signatures.put((Integer) row[0], signature);
+            }
+        }
+
+        return signatures;
+    }
+
+    /**
+     * Empreinte MinHash de l'offre, ou null si aucun des champs ne contient de mot.
+     */
+    static int[] signature(String position, String compagny, String city) {
+        Set<Integer> shingles = new HashSet<>();
+        addShingles(shingles, 1, position);
+        addShingles(shingles, 2, compagny);
+        addShingles(shingles, 3, city);
+
+        if (shingles.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[SEEDS.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < SEEDS.length; i++) {
+                signature[i] = Math.min(signature[i], mix(shingle ^ SEEDS[i]));
+            }
+        }
+
+        return signature;
+    }
+
+    /**
+     * Trigrammes du champ normalisé, marqués par le champ : « lyon » dans la
+     * ville ne rapproche pas d'une entreprise « Lyon Conseil ».
+     */
+    private static void addShingles(Set<Integer> shingles, int field, String text) {
+        String normalized = String.join(" ", TextNormalizer.tokens(text));
+        if (normalized.isEmpty()) {
+            return;
+        }
+
+        if (normalized.length() < 3) {
+            shingles.add(31 * normalized.hashCode() + field);
+            return;
+        }
+
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            shingles.add(31 * normalized.substring(i, i + 3).hashCode() + field);
+        }
+    }
+
+    /**
+     * Brassage final de MurmurHash3 : une fonction de hachage par graine.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+
+        return h;
+    }
+
+    private static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+
+        return (double) same / a.length;
+    }
+
+    private static long bandKey(int band, int[] signature) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[i];
+        }
+
+        return key;
+    }
+
+    private static final class Partition implements UserPartitions.Partition<int[]> {
+
+        private final Map<Integer, int[]> signatures = new HashMap<>();
+        private final Map<Long, Set<Integer>> buckets = new HashMap<>();
+
+        @Override
+        public synchronized void put(Integer jobId, int[] signature) {
+            signatures.put(jobId, signature);
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(band, signature), k -> new HashSet<>()).add(jobId);
+            }
+        }
+
+        @Override
+        public synchronized void remove(Integer jobId) {
+            int[] signature = signatures.remove(jobId);
+            if (signature == null) {
+                return;
+            }
+
+            for (int band = 0; band < BANDS; band++) {
+                long key = bandKey(band, signature);
+                Set<Integer> ids = buckets.get(key);
+                ids.remove(jobId);
+                if (ids.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+
+        @Override
+        public synchronized int size() {
+            return signatures.size();
+        }
+
+        synchronized List<Integer> similarTo(int[] signature, Integer excludedJobId, double threshold) {
+            Map<Integer, Double> matches = new HashMap<>();
+
+            for (int band = 0; band < BANDS; band++) {
+                for (Integer candidate : buckets.getOrDefault(bandKey(band, signature), Set.of())) {
+                    if (!candidate.equals(excludedJobId) && !matches.containsKey(candidate)) {
+                        matches.put(candidate, similarity(signature, signatures.get(candidate)));
+                    }
+                }
+            }
+
+            return matches.entrySet().stream()
+                    .filter(e -> e.getValue() >= threshold)
+                    .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+
+        synchronized List<List<Integer>> clusters(double threshold) {
+            Map<Integer, Integer> parents = new HashMap<>();
+
+            for (Set<Integer> bucket : buckets.values()) {
+                if (bucket.size() < 2) {
+                    continue;
+                }
+
+                List<Integer> ids = new ArrayList<>(bucket);
+                for (int i = 0; i < ids.size(); i++) {
+                    for (int j = i + 1; j < ids.size(); j++) {
+                        if (similarity(signatures.get(ids.get(i)), signatures.get(ids.get(j))) >= threshold) {
+                            union(parents, ids.get(i), ids.get(j));
+                        }
+                    }
+                }
+            }
+
+            Map<Integer, List<Integer>> groups = new TreeMap<>();
+            parents.keySet().forEach(id -> groups.computeIfAbsent(root(parents, id), r -> new ArrayList<>()).add(id));
+
+            groups.values().forEach(group -> group.sort(Comparator.naturalOrder()));
+
+            return groups.values().stream()
+                    .sorted(Comparator.comparing(group -> group.get(0)))
+                    .toList();
+        }
+
+        private static void union(Map<Integer, Integer> parents, Integer a, Integer b) {
+            Integer rootA = root(parents, a);
+            Integer rootB = root(parents, b);
+            if (!rootA.equals(rootB)) {
+                parents.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+            }
+        }
+
+        private static Integer root(Map<Integer, Integer> parents, Integer id) {
+            parents.putIfAbsent(id, id);
+            Integer root = id;
+            while (!parents.get(root).equals(root)) {
+                root = parents.get(root);
+            }
+            // compression du chemin
+            while (!parents.get(id).equals(root)) {
+                Integer next = parents.get(id);
+                parents.put(id, root);
+                id = next;
+            }
+
+            return root;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Outils de la pagination par clé (keyset / seek).
+ *
+ * Les dates nullables (application_date) sont comparées via COALESCE(col, EPOCH)
+ * afin que l'ordre et le prédicat "après la ligne X" restent cohérents,
+ * indépendamment du placement des NULL propre à chaque SGBD. Les autres clés
+ * sont comparées telles quelles, pour rester servies par leurs index.
+ *
+ * @author Huby Franck
+ */
+public final class JobKeyset {
+
+    private static final Set<String> NULLABLE_DATES = Set.of("applicationDate");
+
+    private JobKeyset() {
+    }
+
+    /**
+     * Valeurs des clés de tri d'une ligne, dans l'ordre du tri, prêtes à être
+     * portées par un curseur.
+     */
+    public static List<String> keysOf(Object row, Sort sort) {
+        DirectFieldAccessor accessor = new DirectFieldAccessor(row);
+
+        return sort.stream()
+                .map(order -> {
+                    Object value = accessor.getPropertyValue(order.getProperty());
+                    if (value == null && NULLABLE_DATES.contains(order.getProperty())) {
+                        value = Instant.EPOCH;
+                    }
+
+                    return value == null ? "" : value.toString();
+                })
+                .toList();
+    }
+
+    static List<Order> orders(Root<?> root, CriteriaBuilder cb, Sort sort) {
+        return sort.stream()
+                .map(order -> order.isAscending()
+                        ? cb.asc(key(root, cb, order.getProperty()))
+                        : cb.desc(key(root, cb, order.getProperty())))
+                .toList();
+    }
+
+    /**
+     * Prédicat "strictement après la ligne de bord" pour le tri donné :
+     * (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... (sens inversé pour les tris DESC).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Predicate after(Root<?> root, CriteriaBuilder cb, Sort sort, List<String> keys) {
+        List<Sort.Order> orders = sort.toList();
+
+        if (keys.size() != orders.size()) {
+            throw new IllegalArgumentException("Curseur incompatible avec le tri demandé");
+        }
+
+        List<Predicate> alternatives = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<Predicate> conjunction = new ArrayList<>();
+
+            for (int j = 0; j < i; j++) {
+                String property = orders.get(j).getProperty();
+                conjunction.add(cb.equal(key(root, cb, property), value(root, property, keys.get(j))));
+            }
+
+            String property = orders.get(i).getProperty();
+            Expression<Comparable> boundary = (Expression<Comparable>) key(root, cb, property);
+            Comparable value = value(root, property, keys.get(i));
+            conjunction.add(orders.get(i).isAscending()
+                    ? cb.greaterThan(boundary, value)
+                    : cb.lessThan(boundary, value));
+
+            alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+        }
+
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static Expression<?> key(Root<?> root, CriteriaBuilder cb, String property) {
+        if (NULLABLE_DATES.contains(property)) {
+            return cb.coalesce(root.<Instant>get(property), Instant.EPOCH);
+        }
+
+        return root.get(property);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable value(Root<?> root, String property, String raw) {
+        Class<?> type = root.get(property).getJavaType();
+
+        if (Instant.class.equals(type)) {
+            return Instant.parse(raw);
+        }
+        if (Integer.class.equals(type) || int.class.equals(type)) {
+            return Integer.valueOf(raw);
+        }
+        if (String.class.equals(type)) {
+            return raw;
+        }
+
+        throw new IllegalArgumentException("Clé de tri non supportée en pagination par curseur: " + property);
+    }
+}
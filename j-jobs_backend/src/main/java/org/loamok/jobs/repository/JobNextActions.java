@@ -0,0 +1,133 @@
+package org.loamok.jobs.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.loamok.jobs.config.JobFollowUpProperties;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.UserJobSettings;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Délais de relance effectifs des utilisateurs et maintien de
+ * jobs.next_action_at (voir {@link Job#nextActionAt}).
+ *
+ * Le délai d'un utilisateur est gardé une minute : un import n'interroge pas
+ * ses réglages pour chaque offre. Un changement de délai le remplace aussitôt
+ * sur l'instance qui l'enregistre, au plus une minute plus tard ailleurs.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobNextActions {
+
+    /**
+     * Statuts dont l'échéance dépend du délai de relance de l'utilisateur.
+     */
+    public static final Set<OfferStatusEnum> WAITING = Set.of(OfferStatusEnum.A_EN_COURS, OfferStatusEnum.B_EN_ATTENTE);
+
+    private final JobFollowUpProperties followUpProperties;
+    private final JobDataVersions dataVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<Integer, Integer> cachedDays = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(1))
+            .build();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobNextActions(JobFollowUpProperties followUpProperties, JobDataVersions dataVersions,
+            ApplicationEventPublisher eventPublisher) {
+        this.followUpProperties = followUpProperties;
+        this.dataVersions = dataVersions;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Délai de relance de l'utilisateur, ou délai par défaut.
+     */
+    public int followUpDays(Integer userId) {
+        if (userId == null) {
+            return followUpProperties.getDefaultDays();
+        }
+
+        return cachedDays.get(userId, id -> {
+            UserJobSettings settings = entityManager.find(UserJobSettings.class, id);
+
+            return settings != null && settings.getFollowUpDays() != null
+                    ? settings.getFollowUpDays()
+                    : followUpProperties.getDefaultDays();
+        });
+    }
+
+    /**
+     * Délais de relance d'un lot d'utilisateurs, en une requête.
+     */
+    public Map<Integer, Integer> followUpDays(Collection<Integer> userIds) {
+        Map<Integer, Integer> days = HashMap.newHashMap(userIds.size());
+        userIds.forEach(userId -> days.put(userId, followUpProperties.getDefaultDays()));
+
+        if (!userIds.isEmpty()) {
+            entityManager.createQuery(
+                    "SELECT s FROM UserJobSettings s WHERE s.userId IN :userIds AND s.followUpDays IS NOT NULL", UserJobSettings.class)
+                    .setParameter("userIds", userIds)
+                    .getResultStream()
+                    .forEach(settings -> days.put(settings.getUserId(), settings.getFollowUpDays()));
+        }
+
+        return days;
+    }
+
+    /**
+     * Échéance d'une offre enregistrée ou modifiée par l'application.
+     */
+    public void refresh(Job job) {
+        job.refreshNextAction(followUpDays(job.getUser() == null ? null : job.getUser().getId()));
+    }
+
+    /**
+     * Nouveau délai de relance de l'utilisateur : échéances de ses
+     * candidatures en cours ou en attente recalculées par une mise à jour de
+     * masse. Elle contourne les évènements d'entité : la version des offres,
+     * la version des données de l'utilisateur et l'évènement de lot sont
+     * avancés ici.
+     */
+    public int refreshUser(Integer userId) {
+        cachedDays.invalidate(userId);
+        int days = followUpDays(userId);
+
+        int updated;
+        if (days <= 0) {
+            updated = entityManager.createQuery(
+                    "UPDATE Job j SET j.nextActionAt = null, j.version = j.version + 1 "
+                    + "WHERE j.user.id = :userId AND j.offerStatus IN :waiting")
+                    .setParameter("userId", userId)
+                    .setParameter("waiting", WAITING)
+                    .executeUpdate();
+        } else {
+            updated = entityManager.createQuery(
+                    "UPDATE Job j SET j.nextActionAt = j.statusChangedAt + :days day, j.version = j.version + 1 "
+                    + "WHERE j.user.id = :userId AND j.offerStatus IN :waiting")
+                    .setParameter("days", days)
+                    .setParameter("userId", userId)
+                    .setParameter("waiting", WAITING)
+                    .executeUpdate();
+        }
+
+        if (updated > 0) {
+            dataVersions.bump(userId);
+            eventPublisher.publishEvent(new JobChangedEvent(null, userId, JobChangedEvent.ChangeTypeEnum.IMPORTED));
+        }
+
+        return updated;
+    }
+}
@@ -1,12 +1,17 @@
 package org.loamok.jobs.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import org.loamok.jobs.dto.JobsDto;
 import org.loamok.jobs.entity.Job;
 import org.loamok.jobs.entity.enums.OfferStatusEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 /**
@@ -19,5 +24,16 @@ public interface JobRepositoryCustom {
     Optional<Job> findByIdFilteredForCurrentUser(Integer id);
     long countFilteredForCurrentUserByOfferStatus(OfferStatusEnum offerStatus);
     Page<Job> findBySearch(Specification<Job> spec, Pageable pageable);
+    Page<JobsDto.JobListingProjection> findListingBySearch(Specification<Job> spec, Pageable pageable, Supplier<Long> total);
+    Slice<JobsDto.JobListingProjection> findListingSliceBySearch(Specification<Job> spec, Pageable pageable);
+    List<JobsDto.JobListingProjection> findListingBySearchAfter(Specification<Job> spec, Sort sort, List<String> after, int limit);
+    List<JobsDto.JobStatusProjection> findStatusesByJobIds(Collection<Integer> jobIds);
+    long countBySearch(Specification<Job> spec);
+    JobsDto.SearchFacets countFacetsBySearch(Specification<Job> spec);
     List<JobsDto.StatusCountProjection> countAllGroupedByStatusForCurrentUser();
+    List<JobsDto.StatusCountProjection> countGroupedByStatusForUser(Integer userId);
+    long countForCurrentUserByOfferStatuses(Collection<OfferStatusEnum> offerStatuses);
+    List<JobsDto.StatusTransition> transitionOfferStatusForCurrentUser(Specification<Job> selection, OfferStatusEnum offerStatus);
+    List<JobsDto.StatusTransition> transitionOfferStatus(Specification<Job> selection, OfferStatusEnum offerStatus);
+    List<JobsDto.JobActionProjection> findActionsForUser(Integer userId, Instant until, int limit);
 }
\ No newline at end of file
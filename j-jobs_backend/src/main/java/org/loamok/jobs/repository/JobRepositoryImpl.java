@@ -1,19 +1,45 @@
 package org.loamok.jobs.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
 import org.loamok.jobs.dto.JobsDto;
 import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.JobHasStatus;
+import org.loamok.jobs.entity.JobStatusCounter;
+import org.loamok.jobs.entity.enums.ContractEnum;
 import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
 import org.loamok.libs.o2springsecurity.entity.User;
 import org.loamok.libs.o2springsecurity.repository.IdentifiedRepository;
 import org.loamok.libs.o2springsecurity.repository.SecuritySpecifications;
 import org.loamok.libs.o2springsecurity.repository.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  *
@@ -21,8 +47,15 @@ import org.springframework.data.jpa.domain.Specification;
  */
 public class JobRepositoryImpl extends IdentifiedRepository implements JobRepositoryCustom {
 
-    public JobRepositoryImpl(UserRepository userRepository) {
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+    // identifiants par clause IN d'une mise à jour de masse
+    private static final int IN_CHUNK = 1000;
+
+    private final JobNextActions nextActions;
+
+    public JobRepositoryImpl(UserRepository userRepository, JobNextActions nextActions) {
         super(userRepository);
+        this.nextActions = nextActions;
     }
 
     @Override
@@ -30,28 +63,191 @@ public class JobRepositoryImpl extends IdentifiedRepository implements JobReposi
         User user = getCurrentUser();
         boolean adminAccess = isAdminWithScopeAdmin();
 
+        if (user == null && !adminAccess) {
+            return List.of();
+        }
+
+        return countGroupedByStatusForUser(adminAccess ? null : user.getId());
+    }
+
+    /**
+     * Lu dans job_status_counters : une ligne par statut, quel que soit le
+     * nombre d'offres. Sans utilisateur, les compteurs de tous les
+     * utilisateurs sont additionnés.
+     */
+    @Override
+    public List<JobsDto.StatusCountProjection> countGroupedByStatusForUser(Integer userId) {
         var cb = em.getCriteriaBuilder();
         var query = cb.createQuery(JobsDto.StatusCountProjection.class);
-        var root = query.from(Job.class);
-
-        Predicate securityPredicate = SecuritySpecifications
-                .<Job>belongsToUserOrAdmin(user, adminAccess)
-                .toPredicate(root, query, cb);
+        var root = query.from(JobStatusCounter.class);
 
-        query.where(securityPredicate);
+        if (userId != null) {
+            query.where(cb.equal(root.get("userId"), userId));
+        }
 
         query.groupBy(root.get("offerStatus"));
 
         query.select(cb.construct(
                 JobsDto.StatusCountProjection.class,
                 root.get("offerStatus"),
-                cb.count(root)
+                cb.sumAsLong(root.get("jobCount"))
         ));
 
         return em.createQuery(query).getResultList();
     }
 
-    private long count(Specification<Job> spec) {
+    @Override
+    public long countForCurrentUserByOfferStatuses(Collection<OfferStatusEnum> offerStatuses) {
+        User user = getCurrentUser();
+        boolean adminAccess = isAdminWithScopeAdmin();
+
+        if (offerStatuses.isEmpty() || (user == null && !adminAccess)) {
+            return 0L;
+        }
+
+        var cb = em.getCriteriaBuilder();
+        var query = cb.createQuery(Long.class);
+        var root = query.from(JobStatusCounter.class);
+
+        Predicate statusPredicate = root.get("offerStatus").in(offerStatuses);
+        query.where(adminAccess
+                ? statusPredicate
+                : cb.and(statusPredicate, cb.equal(root.get("userId"), user.getId())));
+
+        query.select(cb.coalesce(cb.sumAsLong(root.get("jobCount")), 0L));
+
+        return em.createQuery(query).getSingleResult();
+    }
+
+    /**
+     * Passe au statut indiqué les offres de la sélection qui n'y sont pas
+     * déjà, dans la transaction courante :
+     * - une lecture verrouille les offres concernées (ancien statut, propriétaire) ;
+     * - un UPDATE de masse, restreint par la règle de propriété, change leur statut ;
+     * - les lignes d'historique sont insérées par lots JDBC ;
+     * - les compteurs par statut sont ajustés avant la validation.
+     *
+     * Les offres lues restent en lecture seule dans le contexte de persistance,
+     * avec leur nouveau statut en mémoire : aucune mise à jour ligne à ligne.
+     */
+    @Override
+    public List<JobsDto.StatusTransition> transitionOfferStatusForCurrentUser(Specification<Job> selection, OfferStatusEnum offerStatus) {
+        User user = getCurrentUser();
+        boolean adminAccess = isAdminWithScopeAdmin();
+
+        if (user == null && !adminAccess) {
+            return List.of();
+        }
+
+        return transition(SecuritySpecifications.belongsToUserOrAdmin(user, adminAccess), adminAccess ? null : user.getId(),
+                selection, offerStatus);
+    }
+
+    /**
+     * Même changement de statut, sans règle de propriété : réservé aux tâches
+     * de l'application (relances planifiées).
+     */
+    @Override
+    public List<JobsDto.StatusTransition> transitionOfferStatus(Specification<Job> selection, OfferStatusEnum offerStatus) {
+        return transition((root, query, cb) -> cb.conjunction(), null, selection, offerStatus);
+    }
+
+    /**
+     * @param ownerId propriétaire auquel l'UPDATE est restreint, null pour
+     * l'admin et les tâches de l'application
+     */
+    private List<JobsDto.StatusTransition> transition(Specification<Job> security, Integer ownerId,
+            Specification<Job> selection, OfferStatusEnum offerStatus) {
+        var cb = em.getCriteriaBuilder();
+
+        var query = cb.createQuery(Job.class);
+        var root = query.from(Job.class);
+        query.where(
+                security.and(selection).toPredicate(root, query, cb),
+                cb.notEqual(root.get("offerStatus"), offerStatus)
+        );
+
+        List<Job> jobs = em.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+        if (jobs.isEmpty()) {
+            return List.of();
+        }
+
+        Instant now = Instant.now();
+        // l'échéance de la prochaine action ne dépend que du délai de relance du propriétaire
+        Map<Integer, Integer> followUpDays = JobNextActions.WAITING.contains(offerStatus)
+                ? nextActions.followUpDays(jobs.stream().map(job -> job.getUser().getId()).collect(Collectors.toSet()))
+                : Map.of();
+        Map<Integer, List<Integer>> idsByDays = jobs.stream().collect(Collectors.groupingBy(
+                job -> followUpDays.getOrDefault(job.getUser().getId(), 0),
+                Collectors.mapping(Job::getId, Collectors.toList())));
+
+        for (var group : idsByDays.entrySet()) {
+            updateStatus(ownerId, group.getValue(), offerStatus, now, group.getKey());
+        }
+
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        List<JobsDto.StatusTransition> transitions = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            Integer userId = job.getUser().getId();
+            transitions.add(new JobsDto.StatusTransition(job.getId(), userId, job.getOfferStatus(), offerStatus));
+
+            JobStatusCounterListener.track(session, userId, job.getOfferStatus(), -1);
+            JobStatusCounterListener.track(session, userId, offerStatus, 1);
+
+            job.setOfferStatus(offerStatus);
+            job.setStatusChangedAt(now);
+            job.refreshNextAction(followUpDays.getOrDefault(userId, 0));
+            em.persist(JobHasStatus.builder()
+                    .jobStatus(offerStatus.toJobStatus())
+                    .offerStatus(offerStatus)
+                    .job(job)
+                    .build());
+        }
+
+        return transitions;
+    }
+
+    private void updateStatus(Integer ownerId, List<Integer> ids, OfferStatusEnum offerStatus, Instant now,
+            int followUpDays) {
+        var cb = em.getCriteriaBuilder();
+        Instant nextActionAt = Job.nextActionAt(offerStatus, now, null, followUpDays);
+
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+
+            var update = cb.createCriteriaUpdate(Job.class);
+            var updated = update.from(Job.class);
+            Path<Instant> applicationDate = updated.get("applicationDate");
+            Path<Long> version = updated.get("version");
+            update.set(updated.<OfferStatusEnum>get("offerStatus"), offerStatus)
+                    .set(updated.<Instant>get("updatedAt"), now)
+                    // les ETag déjà servis pour ces offres deviennent périmés
+                    .set(version, cb.sum(cb.coalesce(version, 0L), 1L))
+                    .set(updated.<Instant>get("lastActivityAt"), cb.<Instant>selectCase()
+                            .when(cb.greaterThan(applicationDate, now), applicationDate)
+                            .otherwise(now))
+                    .set(updated.<Instant>get("statusChangedAt"), now)
+                    .where(
+                            // règle de propriété posée sur la racine de l'UPDATE, sans requête de sélection
+                            ownerId == null ? cb.conjunction() : cb.equal(updated.get("user").get("id"), ownerId),
+                            updated.get("id").in(chunk)
+                    );
+            // entretien : l'échéance est la date propre à chaque offre
+            if (offerStatus == OfferStatusEnum.D_ENTRETIEN) {
+                update.set(updated.<Instant>get("nextActionAt"), updated.<Instant>get("interviewAt"));
+            } else {
+                update.set(updated.<Instant>get("nextActionAt"),
+                        nextActionAt == null ? cb.nullLiteral(Instant.class) : cb.literal(nextActionAt));
+            }
+            em.createQuery(update).executeUpdate();
+        }
+    }
+
+    @Override
+    public long countBySearch(Specification<Job> spec) {
         var cb = em.getCriteriaBuilder();
         var query = cb.createQuery(Long.class);
         var root = query.from(Job.class);
@@ -63,23 +259,209 @@ public class JobRepositoryImpl extends IdentifiedRepository implements JobReposi
         return em.createQuery(query).getSingleResult();
     }
 
+    /**
+     * Facettes en une seule requête : une somme conditionnelle par valeur
+     * d'énumération, sur les lignes retenues par la Specification.
+     */
     @Override
-    public Page<Job> findBySearch(Specification<Job> spec, Pageable pageable) {
+    public JobsDto.SearchFacets countFacetsBySearch(Specification<Job> spec) {
         var cb = em.getCriteriaBuilder();
-        var query = cb.createQuery(Job.class);
+        var query = cb.createTupleQuery();
         var root = query.from(Job.class);
 
         query.where(spec.toPredicate(root, query, cb));
+        // un tri posé par la Specification (pertinence) n'a pas de sens sur un agrégat
+        query.orderBy(List.of());
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selectFacet(selections, root, cb, "contract", ContractEnum.class);
+        selectFacet(selections, root, cb, "workMode", WorkModeEnum.class);
+        selectFacet(selections, root, cb, "workTime", WorkTimeEnum.class);
+        selectFacet(selections, root, cb, "offerStatus", OfferStatusEnum.class);
+        query.multiselect(selections);
+
+        Tuple counts = em.createQuery(query).getSingleResult();
+
+        return new JobsDto.SearchFacets(
+                facetCounts(counts, "contract", ContractEnum.class),
+                facetCounts(counts, "workMode", WorkModeEnum.class),
+                facetCounts(counts, "workTime", WorkTimeEnum.class),
+                facetCounts(counts, "offerStatus", OfferStatusEnum.class)
+        );
+    }
+
+    private <E extends Enum<E>> void selectFacet(List<Selection<?>> selections, Root<Job> root, CriteriaBuilder cb, String attribute, Class<E> type) {
+        for (E value : type.getEnumConstants()) {
+            selections.add(cb.sum(
+                    cb.<Long>selectCase()
+                            .when(cb.equal(root.get(attribute), value), 1L)
+                            .otherwise(0L)
+            ).alias(attribute + "_" + value.name()));
+        }
+    }
+
+    private <E extends Enum<E>> Map<E, Long> facetCounts(Tuple counts, String attribute, Class<E> type) {
+        Map<E, Long> facet = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            Number count = (Number) counts.get(attribute + "_" + value.name());
+            // SUM sur zéro ligne renvoie NULL
+            facet.put(value, count == null ? 0L : count.longValue());
+        }
+
+        return facet;
+    }
+
+    /**
+     * Sélection de la requête de recherche : l'entité, ou la projection de liste
+     * construite directement depuis les colonnes (rien n'entre dans le contexte
+     * de persistance).
+     */
+    @SuppressWarnings("unchecked")
+    private <R> void select(CriteriaQuery<R> query, Root<Job> root, CriteriaBuilder cb) {
+        if (JobsDto.JobListingProjection.class.equals(query.getResultType())) {
+            query.select((Selection<R>) cb.construct(
+                    JobsDto.JobListingProjection.class,
+                    root.get("id"),
+                    root.get("position"),
+                    root.get("compagny"),
+                    root.get("city"),
+                    root.get("fromOfficialDom"),
+                    root.get("applicationDate"),
+                    root.get("createdAt"),
+                    root.get("updatedAt"),
+                    root.get("contract"),
+                    root.get("workTime"),
+                    root.get("workMode"),
+                    root.get("offerStatus")
+            ));
+        } else {
+            query.select((Selection<R>) root);
+        }
+    }
 
-        query.orderBy(
-                pageable.getSort().stream()
+    private <R> TypedQuery<R> searchQuery(Class<R> resultType, Specification<Job> spec, Sort sort) {
+        var cb = em.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(resultType);
+        Root<Job> root = query.from(Job.class);
+        select(query, root, cb);
+
+        query.where(spec.toPredicate(root, query, cb));
+
+        // un ordre posé par la Specification (pertinence) reste prioritaire sur le tri demandé
+        List<Order> orders = new ArrayList<>(query.getOrderList());
+        orders.addAll(
+                sort.stream()
                         .map(order -> order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty())))
                         .toList()
         );
+        query.orderBy(orders);
 
-        TypedQuery<Job> typedQuery = em.createQuery(query);
+        return em.createQuery(query);
+    }
 
-        return paginateQuery(typedQuery, pageable, () -> count(spec));
+    /**
+     * Plan de chargement des listes d'entités : l'historique des statuts de
+     * toute la page est chargé en une requête, dans le même contexte de
+     * persistance, au lieu d'une requête par offre à la sérialisation.
+     * Un fetch join sur la requête paginée forcerait la pagination en mémoire.
+     * Les identifiants partent par tranches de IN_CHUNK : une liste non
+     * paginée d'admin dépasserait la limite de paramètres liés du pilote.
+     */
+    private Page<Job> withStatuses(Page<Job> jobs) {
+        List<Integer> ids = jobs.getContent().stream().map(Job::getId).toList();
+
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            em.createQuery("SELECT j FROM Job j WHERE j.id IN :ids", Job.class)
+                    .setParameter("ids", ids.subList(from, Math.min(from + IN_CHUNK, ids.size())))
+                    .setHint(FETCH_GRAPH, em.getEntityGraph(Job.GRAPH_WITH_STATUSES))
+                    .getResultList();
+        }
+
+        return jobs;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Job> findBySearch(Specification<Job> spec, Pageable pageable) {
+        return withStatuses(paginateQuery(searchQuery(Job.class, spec, pageable.getSort()), pageable, () -> countBySearch(spec)));
+    }
+
+    @Override
+    public Page<JobsDto.JobListingProjection> findListingBySearch(Specification<Job> spec, Pageable pageable, Supplier<Long> total) {
+        return paginateQuery(searchQuery(JobsDto.JobListingProjection.class, spec, pageable.getSort()), pageable, () -> total.get());
+    }
+
+    @Override
+    public Slice<JobsDto.JobListingProjection> findListingSliceBySearch(Specification<Job> spec, Pageable pageable) {
+        // une ligne de plus que demandé suffit à savoir s'il existe une page suivante, sans count
+        List<JobsDto.JobListingProjection> rows = searchQuery(JobsDto.JobListingProjection.class, spec, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<JobsDto.JobListingProjection> findListingBySearchAfter(Specification<Job> spec, Sort sort, List<String> after, int limit) {
+        var cb = em.getCriteriaBuilder();
+        var query = cb.createQuery(JobsDto.JobListingProjection.class);
+        var root = query.from(Job.class);
+        select(query, root, cb);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (after != null) {
+            // Pas d'OFFSET : on repart de la dernière ligne vue, la page N coûte autant que la page 1
+            predicate = cb.and(predicate, JobKeyset.after(root, cb, sort, after));
+        }
+
+        query.where(predicate);
+        query.orderBy(JobKeyset.orders(root, cb, sort));
+
+        return em.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<JobsDto.JobStatusProjection> findStatusesByJobIds(Collection<Integer> jobIds) {
+        if (jobIds.isEmpty()) {
+            return List.of();
+        }
+
+        // une seule requête pour l'historique de toute la page
+        return em.createQuery(
+                "SELECT new org.loamok.jobs.dto.JobsDto$JobStatusProjection(jhs.job.id, jhs.id, jhs.jobStatus, jhs.offerStatus, jhs.appliedAt) "
+                + "FROM JobHasStatus jhs WHERE jhs.job.id IN :jobIds ORDER BY jhs.job.id, jhs.appliedAt, jhs.id",
+                JobsDto.JobStatusProjection.class
+            )
+            .setParameter("jobIds", jobIds)
+            .getResultList();
+    }
+
+    /**
+     * Lecture d'un intervalle de l'index id_user, next_action_at : les offres
+     * sans action attendue n'y figurent pas.
+     */
+    @Override
+    public List<JobsDto.JobActionProjection> findActionsForUser(Integer userId, Instant until, int limit) {
+        TypedQuery<JobsDto.JobActionProjection> query = em.createQuery(
+                "SELECT new org.loamok.jobs.dto.JobsDto$JobActionProjection(j.id, j.position, j.compagny, j.city, j.offerStatus, "
+                + "j.interviewAt, j.nextActionAt) "
+                + "FROM Job j WHERE j.user.id = :userId AND j.nextActionAt IS NOT NULL"
+                + (until == null ? "" : " AND j.nextActionAt < :until")
+                + " ORDER BY j.nextActionAt, j.id",
+                JobsDto.JobActionProjection.class
+            )
+            .setParameter("userId", userId)
+            .setMaxResults(limit);
+        if (until != null) {
+            query.setParameter("until", until);
+        }
+
+        return query.getResultList();
     }
 
     @Override
@@ -88,6 +470,7 @@ public class JobRepositoryImpl extends IdentifiedRepository implements JobReposi
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Job> findAllFilteredForCurrentUser(Pageable pageable) {
         User user = getCurrentUser();
         boolean adminAccess = isAdminWithScopeAdmin();
@@ -104,7 +487,7 @@ public class JobRepositoryImpl extends IdentifiedRepository implements JobReposi
         query.where(predicate);
 
         TypedQuery<Job> typedQuery = em.createQuery(query);
-        return paginateQuery(typedQuery, pageable, () -> countJobs(user, adminAccess));
+        return withStatuses(paginateQuery(typedQuery, pageable, () -> countJobs(user, adminAccess)));
     }
 
     @Override
@@ -122,7 +505,10 @@ public class JobRepositoryImpl extends IdentifiedRepository implements JobReposi
 
         query.where(predicate);
 
-        return em.createQuery(query).getResultStream().findFirst();
+        return em.createQuery(query)
+                .setHint(FETCH_GRAPH, em.getEntityGraph(Job.GRAPH_WITH_STATUSES))
+                .getResultStream()
+                .findFirst();
     }
 
     @Override
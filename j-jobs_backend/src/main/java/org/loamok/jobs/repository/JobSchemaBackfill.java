@@ -0,0 +1,209 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Statement;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reprises de données PostgreSQL trop lourdes pour schema-postgresql.sql :
+ * dates d'activité et version des offres antérieures à last_activity_at,
+ * first_activity_at et version, codes des énumérations (LabelledEnum#getCode) repris des
+ * anciennes colonnes texte de jobs, puis dernier changement de statut et
+ * échéance des offres antérieures à status_changed_at et next_action_at.
+ *
+ * Exécutées au démarrage, après le script et avant l'ouverture du serveur
+ * web, par lots bornés d'identifiants validés un à un : chaque lot ne
+ * verrouille que ses lignes, et les autres instances continuent d'écrire.
+ * Les dates d'activité, la version et les colonnes *_code ne passent NOT NULL qu'une fois toutes les lignes
+ * reprises, par une contrainte CHECK posée NOT VALID (verrou bref, sans
+ * parcours) puis validée sans bloquer les écritures : le SET NOT NULL qui
+ * suit s'appuie sur elle au lieu de parcourir la table sous verrou exclusif.
+ *
+ * Chaque étape est rejouable : une reprise interrompue se poursuit au
+ * démarrage suivant.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Component
+public class JobSchemaBackfill implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final List<String> ACTIVITY_COLUMNS = List.of("last_activity_at", "first_activity_at");
+    private static final List<String> CODE_COLUMNS = List.of(
+            "contract_code", "work_time_code", "work_mode_code", "offer_status_code");
+
+    private static final String INACTIVE_ROWS = "last_activity_at IS NULL OR first_activity_at IS NULL";
+    private static final String ACTIVITY = """
+            UPDATE jobs
+            SET last_activity_at = greatest(created_at, updated_at, application_date),
+                first_activity_at = least(created_at, updated_at, application_date)
+            WHERE (last_activity_at IS NULL OR first_activity_at IS NULL) AND id_job >= ? AND id_job < ?
+            """;
+
+    // verrouillage optimiste : une offre antérieure à la colonne part de la version 0
+    private static final String UNVERSIONED_ROWS = "version IS NULL";
+    private static final String VERSION = """
+            UPDATE jobs SET version = 0
+            WHERE version IS NULL AND id_job >= ? AND id_job < ?
+            """;
+
+    private static final String LEGACY_ROWS = "offer_status IS NOT NULL";
+    private static final String CODES = """
+            UPDATE jobs
+            SET contract_code = CASE contract
+                    WHEN 'CDD' THEN 0 WHEN 'CDI' THEN 1 WHEN 'FREELANCE' THEN 2 WHEN 'INTERIM' THEN 3 WHEN 'MISSION' THEN 4
+                END,
+                work_time_code = CASE work_time
+                    WHEN 'PLEIN_TEMPS' THEN 0 WHEN 'TEMPS_PARTIEL' THEN 1
+                END,
+                work_mode_code = CASE work_mode
+                    WHEN 'DISTANCIEL' THEN 0 WHEN 'HYBRIDE' THEN 1 WHEN 'SUR_SITE' THEN 2
+                END,
+                offer_status_code = CASE offer_status
+                    WHEN 'A_EN_COURS' THEN 0 WHEN 'B_EN_ATTENTE' THEN 1 WHEN 'B_RELANCE_A' THEN 2 WHEN 'B_RELANCE_E' THEN 3
+                    WHEN 'C_REFUSE' THEN 4 WHEN 'D_ENTRETIEN' THEN 5 WHEN 'O_ACCEPT' THEN 6 WHEN 'O_REFUS' THEN 7
+                END,
+                contract = NULL, work_time = NULL, work_mode = NULL, offer_status = NULL
+            WHERE offer_status IS NOT NULL AND id_job >= ? AND id_job < ?
+            """;
+
+    // dernier changement de statut pris dans l'historique
+    private static final String UNDATED_ROWS = "status_changed_at IS NULL";
+    private static final String STATUS_CHANGED = """
+            UPDATE jobs j
+            SET status_changed_at = coalesce((SELECT max(h.applied_at) FROM jobs_has_status h WHERE h.job_id = j.id_job), j.created_at)
+            WHERE j.status_changed_at IS NULL AND j.id_job >= ? AND j.id_job < ?
+            """;
+
+    // 7 = loamok.jobs.follow-up.default-days (codes : 0 A_EN_COURS, 1 B_EN_ATTENTE, 2 B_RELANCE_A, 5 D_ENTRETIEN)
+    private static final String PENDING_ROWS = "next_action_at IS NULL AND offer_status_code IN (0, 1, 2, 5)";
+    private static final String NEXT_ACTION = """
+            UPDATE jobs j
+            SET next_action_at = CASE
+                    WHEN j.offer_status_code = 2 THEN j.status_changed_at
+                    WHEN j.offer_status_code = 5 THEN j.interview_at
+                    ELSE j.status_changed_at + make_interval(days => coalesce(
+                        (SELECT s.follow_up_days FROM user_job_settings s WHERE s.id_user = j.id_user), 7))
+                END
+            WHERE j.next_action_at IS NULL
+              AND (j.offer_status_code IN (2, 5)
+                OR (j.offer_status_code IN (0, 1)
+                  AND coalesce((SELECT s.follow_up_days FROM user_job_settings s WHERE s.id_user = j.id_user), 7) > 0))
+              AND j.id_job >= ? AND j.id_job < ?
+            """;
+
+    private final boolean postgres;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScheduledTaskLock taskLock;
+
+    public JobSchemaBackfill(EntityManagerFactory entityManagerFactory, DataSource dataSource, ScheduledTaskLock taskLock) {
+        this.postgres = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.taskLock = taskLock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (postgres) {
+            taskLock.runExclusively("job-schema-backfill", this::run);
+        }
+    }
+
+    private void run() {
+        try {
+            backfill("dates d'activité", INACTIVE_ROWS, ACTIVITY);
+            ACTIVITY_COLUMNS.forEach(this::setNotNull);
+            setDefault("version", "0");
+            backfill("versions", UNVERSIONED_ROWS, VERSION);
+            setNotNull("version");
+            backfill("codes des énumérations", LEGACY_ROWS, CODES);
+            CODE_COLUMNS.forEach(this::setNotNull);
+            backfill("dates de changement de statut", UNDATED_ROWS, STATUS_CHANGED);
+            backfill("échéances", PENDING_ROWS, NEXT_ACTION);
+        } catch (DataAccessException e) {
+            // les colonnes restent nullables : la reprise reprendra au prochain démarrage
+            log.warn("Reprise du schéma des offres interrompue : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applique la mise à jour par tranches de BATCH_SIZE identifiants, entre
+     * le plus petit et le plus grand identifiant des lignes à reprendre.
+     */
+    private void backfill(String name, String pendingRows, String update) {
+        long[] bounds = jdbcTemplate.queryForObject(
+                "SELECT min(id_job), max(id_job) FROM jobs WHERE " + pendingRows,
+                (result, row) -> result.getObject(1) == null ? null : new long[]{result.getLong(1), result.getLong(2)});
+        if (bounds == null) {
+            return;
+        }
+
+        long updated = 0;
+        for (long from = bounds[0]; from <= bounds[1]; from += BATCH_SIZE) {
+            updated += jdbcTemplate.update(update, from, from + BATCH_SIZE);
+        }
+
+        log.info("Reprise des {} : {} offres", name, updated);
+    }
+
+    private void setNotNull(String column) {
+        if (!"YES".equals(columnAttribute("is_nullable", column))) {
+            return;
+        }
+
+        String check = "jobs_" + column + "_not_null";
+        alter("ALTER TABLE jobs DROP CONSTRAINT IF EXISTS " + check,
+                "ALTER TABLE jobs ADD CONSTRAINT " + check + " CHECK (" + column + " IS NOT NULL) NOT VALID",
+                "ALTER TABLE jobs VALIDATE CONSTRAINT " + check,
+                "ALTER TABLE jobs ALTER COLUMN " + column + " SET NOT NULL",
+                "ALTER TABLE jobs DROP CONSTRAINT " + check);
+
+        log.info("Colonne jobs.{} passée NOT NULL", column);
+    }
+
+    private void setDefault(String column, String value) {
+        if (columnAttribute("column_default", column) != null) {
+            return;
+        }
+
+        alter("ALTER TABLE jobs ALTER COLUMN " + column + " SET DEFAULT " + value);
+    }
+
+    private String columnAttribute(String attribute, String column) {
+        return jdbcTemplate.queryForObject("SELECT " + attribute + " FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'jobs' AND column_name = ?", String.class, column);
+    }
+
+    /**
+     * Instructions jouées sur une même connexion, sous délai d'attente de verrou.
+     */
+    private void alter(String... statements) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // un verrou exclusif attendu trop longtemps bloquerait les requêtes suivantes
+                statement.execute("SET lock_timeout = '5s'");
+                try {
+                    for (String sql : statements) {
+                        statement.execute(sql);
+                    }
+                } finally {
+                    statement.execute("RESET lock_timeout");
+                }
+            }
+
+            return null;
+        });
+    }
+}
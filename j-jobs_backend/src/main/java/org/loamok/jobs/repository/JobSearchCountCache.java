@@ -0,0 +1,64 @@
+package org.loamok.jobs.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Totaux de recherche mémorisés par (utilisateur, forme du filtre), pour le
+ * mode de pagination ESTIMATED.
+ *
+ * Un total reste valable jusqu'à la prochaine écriture sur les offres de
+ * l'utilisateur ; les totaux admin, qui couvrent tous les utilisateurs,
+ * tombent à chaque écriture.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobSearchCountCache {
+
+    private static final String ADMIN_SCOPE = "admin|";
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<String, Long> totals = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    public long get(User user, boolean adminAccess, String filterShape, Supplier<Long> count) {
+        String key = scope(adminAccess ? null : user.getId()) + filterShape;
+
+        Long total = totals.get(key);
+        if (total != null) {
+            return total;
+        }
+
+        long changesBefore = changes.get();
+        total = count.get();
+
+        // une écriture pendant le comptage : le total n'est pas mémorisé
+        if (changes.get() == changesBefore) {
+            if (totals.size() >= MAX_ENTRIES) {
+                totals.clear();
+            }
+            totals.put(key, total);
+        }
+
+        return total;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        changes.incrementAndGet();
+
+        String userScope = scope(event.userId());
+        totals.keySet().removeIf(key -> key.startsWith(userScope) || key.startsWith(ADMIN_SCOPE));
+    }
+
+    private String scope(Integer userId) {
+        return userId == null ? ADMIN_SCOPE : "u" + userId + "|";
+    }
+}
@@ -0,0 +1,84 @@
+package org.loamok.jobs.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.loamok.jobs.config.JobSearchProperties;
+import org.loamok.jobs.dto.response.JobSearchResponse;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Réponses de recherche mémorisées par (utilisateur, requête normalisée,
+ * position, taille de page).
+ *
+ * Le cache est borné en nombre d'entrées et en durée de vie. Une écriture sur
+ * les offres d'un utilisateur écarte ses réponses ainsi que toutes les
+ * réponses admin, qui couvrent tous les utilisateurs. Les compteurs
+ * (hits, miss, évictions) sont publiés sous le nom {@value #CACHE_NAME}.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobSearchResultCache {
+
+    public static final String CACHE_NAME = "jobs.search.results";
+    private static final String ADMIN_SCOPE = "admin|";
+
+    private final boolean enabled;
+    private final Cache<String, JobSearchResponse> responses;
+    private final AtomicLong changes = new AtomicLong();
+
+    public JobSearchResultCache(JobSearchProperties properties, MeterRegistry meterRegistry) {
+        JobSearchProperties.ResultCache settings = properties.getResultCache();
+
+        this.enabled = settings.isEnabled();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getTimeToLive())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    public JobSearchResponse get(User user, boolean adminAccess, String request, Supplier<JobSearchResponse> search) {
+        if (!enabled) {
+            return search.get();
+        }
+
+        String key = scope(adminAccess ? null : user.getId()) + request;
+
+        JobSearchResponse response = responses.getIfPresent(key);
+        if (response != null) {
+            return response;
+        }
+
+        long changesBefore = changes.get();
+        response = search.get();
+
+        // une écriture pendant la recherche : la réponse n'est pas mémorisée
+        if (changes.get() == changesBefore) {
+            responses.put(key, response);
+        }
+
+        return response;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        changes.incrementAndGet();
+
+        String userScope = scope(event.userId());
+        responses.asMap().keySet().removeIf(key -> key.startsWith(userScope) || key.startsWith(ADMIN_SCOPE));
+    }
+
+    private String scope(Integer userId) {
+        return userId == null ? ADMIN_SCOPE : "u" + userId + "|";
+    }
+}
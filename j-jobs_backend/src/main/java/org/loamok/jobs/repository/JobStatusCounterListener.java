@@ -0,0 +1,183 @@
+package org.loamok.jobs.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.JobStatusCounter;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.libs.o2springsecurity.entity.User;
+
+/**
+ * Maintien de job_status_counters à chaque insertion, modification de statut
+ * (ou de propriétaire) et suppression d'une offre.
+ *
+ * Les écarts sont cumulés par (utilisateur, statut) et appliqués juste avant
+ * la validation, dans la transaction de l'écriture : un rollback n'altère donc
+ * pas les compteurs, et un lot de N offres ne coûte qu'une mise à jour par
+ * compteur touché. Une modification sans état précédent connu (offre
+ * détachée) est laissée au rapprochement périodique de
+ * JobStatusCounterReconciler.
+ *
+ * @author Huby Franck
+ */
+public class JobStatusCounterListener implements Integrator,
+        PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    /**
+     * Création ou incrément du compteur en une instruction : deux premières
+     * écritures concurrentes d'un même (utilisateur, statut) se rejoignent sur
+     * la clé au lieu de se heurter. Hibernate la rend en INSERT ... ON
+     * CONFLICT DO UPDATE (PostgreSQL) ou en MERGE selon la base.
+     */
+    private static final String UPSERT = "insert into JobStatusCounter (userId, offerStatus, jobCount) "
+            + "values (:userId, :offerStatus, :created) "
+            + "on conflict (userId, offerStatus) do update set jobCount = jobCount + :delta";
+
+    // écarts cumulés par session, en attente de la validation
+    private static final Map<SessionImplementor, Map<JobStatusCounter.Key, Long>> PENDING = new ConcurrentHashMap<>();
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Job job) {
+            track(event.getSession(), userId(job.getUser()), job.getOfferStatus(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Job) || event.getOldState() == null) {
+            return;
+        }
+
+        String[] properties = event.getPersister().getPropertyNames();
+        int status = indexOf(properties, "offerStatus");
+        int user = indexOf(properties, "user");
+
+        Integer oldUser = userId((User) event.getOldState()[user]);
+        Integer newUser = userId((User) event.getState()[user]);
+        OfferStatusEnum oldStatus = (OfferStatusEnum) event.getOldState()[status];
+        OfferStatusEnum newStatus = (OfferStatusEnum) event.getState()[status];
+
+        if (oldStatus == newStatus && (oldUser == null ? newUser == null : oldUser.equals(newUser))) {
+            return;
+        }
+
+        track(event.getSession(), oldUser, oldStatus, -1);
+        track(event.getSession(), newUser, newStatus, 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Job job) {
+            track(event.getSession(), userId(job.getUser()), job.getOfferStatus(), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Écart à appliquer avant la validation de la transaction de la session :
+     * sert aussi aux mises à jour de masse, qui ne passent pas par les
+     * évènements d'entité.
+     */
+    static void track(SessionImplementor session, Integer userId, OfferStatusEnum offerStatus, long delta) {
+        if (userId == null || offerStatus == null) {
+            return;
+        }
+
+        PENDING.computeIfAbsent(session, JobStatusCounterListener::startTracking)
+                .merge(new JobStatusCounter.Key(userId, offerStatus), delta, Long::sum);
+    }
+
+    /**
+     * Création à zéro du compteur (utilisateur, statut) par la même instruction
+     * que les écarts : sans effet sur un compteur existant, et une insertion
+     * concurrente s'y rejoint au lieu de se heurter à la clé.
+     */
+    static void create(SessionImplementor session, Integer userId, OfferStatusEnum offerStatus) {
+        apply(session, userId, offerStatus, 0);
+    }
+
+    /**
+     * Premier écart de la transaction : une seule étape "avant validation"
+     * appliquera tous les écarts cumulés.
+     */
+    private static Map<JobStatusCounter.Key, Long> startTracking(SessionImplementor session) {
+        session.getActionQueue().registerProcess(
+                (BeforeTransactionCompletionProcess) s -> applyAll(s, PENDING.remove(session)));
+        // rollback : les écarts sont abandonnés
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, s) -> PENDING.remove(session));
+
+        return new LinkedHashMap<>();
+    }
+
+    private static void applyAll(SessionImplementor session, Map<JobStatusCounter.Key, Long> deltas) {
+        if (deltas == null) {
+            return;
+        }
+
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                apply(session, key.getUserId(), key.getOfferStatus(), delta);
+            }
+        });
+    }
+
+    private static void apply(SessionImplementor session, Integer userId, OfferStatusEnum offerStatus, long delta) {
+        session.createMutationQuery(UPSERT)
+                .setParameter("userId", userId)
+                .setParameter("offerStatus", offerStatus)
+                .setParameter("created", Math.max(delta, 0))
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    private static Integer userId(User user) {
+        return user == null ? null : user.getId();
+    }
+
+    private static int indexOf(String[] properties, String name) {
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i].equals(name)) {
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("Propriété introuvable sur Job: " + name);
+    }
+}
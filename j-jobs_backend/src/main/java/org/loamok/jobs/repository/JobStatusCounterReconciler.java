@@ -0,0 +1,138 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.loamok.jobs.entity.JobStatusCounter;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rapprochement de job_status_counters avec le contenu réel de jobs.
+ *
+ * Exécuté au démarrage (remplissage initial, en arrière-plan pour ne pas
+ * retarder la disponibilité de l'application) puis périodiquement, sur une
+ * seule instance à la fois (ScheduledTaskLock). Utilisateur par utilisateur et
+ * chacun dans sa propre transaction : les compteurs de l'utilisateur sont
+ * verrouillés avant le comptage, de sorte qu'une écriture concurrente est soit
+ * comptée, soit appliquée après la correction. Un utilisateur en échec est
+ * journalisé et laissé au passage suivant sans interrompre les autres.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@Component
+public class JobStatusCounterReconciler {
+
+    private static final String TASK = "job-status-counters";
+
+    @PersistenceContext
+    private EntityManager em;
+    private final ScheduledTaskLock taskLock;
+    private final TransactionTemplate transactionTemplate;
+
+    public JobStatusCounterReconciler(ScheduledTaskLock taskLock, PlatformTransactionManager transactionManager) {
+        this.taskLock = taskLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        Thread.ofVirtual().name(TASK).start(this::scheduledRun);
+    }
+
+    @Scheduled(cron = "${loamok.jobs.status-counters.reconcile-cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        AtomicInteger repaired = new AtomicInteger();
+        if (taskLock.runExclusively(TASK, () -> repaired.set(reconcile())) && repaired.get() > 0) {
+            log.warn("Compteurs de statuts corrigés : {}", repaired.get());
+        }
+    }
+
+    /**
+     * @return le nombre de compteurs corrigés
+     */
+    public int reconcile() {
+        Set<Integer> userIds = new LinkedHashSet<>();
+        userIds.addAll(transactionTemplate.execute(status -> em
+                .createQuery("SELECT DISTINCT j.user.id FROM Job j", Integer.class)
+                .getResultList()));
+        userIds.addAll(transactionTemplate.execute(status -> em
+                .createQuery("SELECT DISTINCT c.userId FROM JobStatusCounter c", Integer.class)
+                .getResultList()));
+
+        int repaired = 0;
+        for (Integer userId : userIds) {
+            try {
+                repaired += transactionTemplate.execute(status -> reconcileUser(userId));
+            } catch (RuntimeException e) {
+                log.warn("Rapprochement des compteurs de statuts de l'utilisateur {} en échec : {}", userId, e.getMessage());
+            }
+        }
+
+        return repaired;
+    }
+
+    private int reconcileUser(Integer userId) {
+        Map<OfferStatusEnum, JobStatusCounter> counters = lockCounters(userId);
+        Map<OfferStatusEnum, Long> actual = countJobs(userId);
+
+        if (!counters.keySet().containsAll(actual.keySet())) {
+            // compteurs manquants créés par l'instruction de l'écouteur, puis verrouillés et recomptés avec les autres
+            SessionImplementor session = em.unwrap(SessionImplementor.class);
+            actual.keySet().stream()
+                    .filter(offerStatus -> !counters.containsKey(offerStatus))
+                    .forEach(offerStatus -> JobStatusCounterListener.create(session, userId, offerStatus));
+
+            counters.putAll(lockCounters(userId));
+            actual = countJobs(userId);
+        }
+
+        int repaired = 0;
+        for (Map.Entry<OfferStatusEnum, JobStatusCounter> entry : counters.entrySet()) {
+            long expected = actual.getOrDefault(entry.getKey(), 0L);
+            JobStatusCounter counter = entry.getValue();
+
+            if (counter.getJobCount() != expected) {
+                counter.setJobCount(expected);
+                repaired++;
+            }
+        }
+
+        return repaired;
+    }
+
+    private Map<OfferStatusEnum, JobStatusCounter> lockCounters(Integer userId) {
+        Map<OfferStatusEnum, JobStatusCounter> counters = new EnumMap<>(OfferStatusEnum.class);
+        em.createQuery("SELECT c FROM JobStatusCounter c WHERE c.userId = :userId", JobStatusCounter.class)
+                .setParameter("userId", userId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList()
+                .forEach(c -> counters.put(c.getOfferStatus(), c));
+
+        return counters;
+    }
+
+    private Map<OfferStatusEnum, Long> countJobs(Integer userId) {
+        Map<OfferStatusEnum, Long> actual = new EnumMap<>(OfferStatusEnum.class);
+        em.createQuery("SELECT j.offerStatus, COUNT(j) FROM Job j WHERE j.user.id = :userId GROUP BY j.offerStatus",
+                Object[].class)
+                .setParameter("userId", userId)
+                .getResultList()
+                .forEach(row -> actual.put((OfferStatusEnum) row[0], (Long) row[1]));
+
+        return actual;
+    }
+}
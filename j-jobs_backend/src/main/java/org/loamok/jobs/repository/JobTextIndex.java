@@ -0,0 +1,143 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import org.loamok.jobs.config.JobSearchProperties;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Index inversé en mémoire de la recherche libre, partitionné par utilisateur
+ * (voir {@link UserPartitions} pour la construction, la mise à jour et la
+ * limite mémoire des partitions).
+ *
+ * Un terme recherché correspond à tout mot indexé qui commence par lui
+ * (« lyo » → « lyon »), et tous les termes saisis doivent correspondre.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobTextIndex {
+
+    private final boolean enabled;
+    private final UserPartitions<List<String>, Partition> partitions;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JobTextIndex(JobSearchProperties properties) {
+        this.enabled = properties.getInMemoryIndex().isEnabled();
+        this.partitions = new UserPartitions<>("Index de recherche",
+                properties.getInMemoryIndex().getMaxIndexedJobs(), Partition::new, this::load);
+    }
+
+    /**
+     * Identifiants des offres de l'utilisateur correspondant au texte saisi,
+     * ou vide si l'index ne peut pas répondre (désactivé, texte sans mot).
+     */
+    public Optional<Set<Integer>> candidates(Integer userId, String textual) {
+        if (!enabled || userId == null) {
+            return Optional.empty();
+        }
+
+        List<String> terms = TextNormalizer.tokens(textual);
+        if (terms.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(partitions.get(userId).search(terms));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobChanged(JobChangedEvent event) {
+        if (enabled) {
+            partitions.onJobChanged(event);
+        }
+    }
+
+    private Map<Integer, List<String>> load(Integer userId, Integer jobId) {
+        String jpql = "SELECT j.id, j.position, j.compagny, j.city, j.description FROM Job j WHERE j.user.id = :userId"
+                + (jobId == null ? "" : " AND j.id = :jobId");
+
+        var query = entityManager.createQuery(jpql, Object[].class).setParameter("userId", userId);
+        if (jobId != null) {
+            query.setParameter("jobId", jobId);
+        }
+
+        Map<Integer, List<String>> documents = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            List<String> tokens = new ArrayList<>();
+            for (int i = 1; i < row.length; i++) {
+                tokens.addAll(TextNormalizer.tokens((String) row[i]));
+            }
+            documents.put((Integer) row[0], tokens);
+        }
+
+        return documents;
+    }
+
+    private static final class Partition implements UserPartitions.Partition<List<String>> {
+
+        private final NavigableMap<String, Set<Integer>> postings = new TreeMap<>();
+        private final Map<Integer, Set<String>> terms = new HashMap<>();
+
+        @Override
+        public synchronized void put(Integer jobId, List<String> tokens) {
+            Set<String> jobTerms = new HashSet<>(tokens);
+            terms.put(jobId, jobTerms);
+            jobTerms.forEach(term -> postings.computeIfAbsent(term, t -> new HashSet<>()).add(jobId));
+        }
+
+        @Override
+        public synchronized void remove(Integer jobId) {
+            Set<String> jobTerms = terms.remove(jobId);
+            if (jobTerms == null) {
+                return;
+            }
+
+            for (String term : jobTerms) {
+                Set<Integer> ids = postings.get(term);
+                ids.remove(jobId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        @Override
+        public synchronized int size() {
+            return terms.size();
+        }
+
+        synchronized Set<Integer> search(List<String> queryTerms) {
+            Set<Integer> result = null;
+
+            for (String term : queryTerms) {
+                Set<Integer> matches = new HashSet<>();
+                postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                        .values()
+                        .forEach(matches::addAll);
+
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.retainAll(matches);
+                }
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.loamok.jobs.repository;
+
+import java.util.Optional;
+import org.loamok.jobs.entity.Job;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Moteur de la recherche libre (champ « textual » de la recherche).
+ *
+ * @author Huby Franck
+ */
+public interface JobTextualSearch {
+
+    /**
+     * Réglages de session propres au moteur, appelés dans la transaction de
+     * recherche avant les requêtes.
+     */
+    default void prepare() {
+    }
+
+    /**
+     * Prédicat de correspondance du texte saisi.
+     */
+    Specification<Job> matching(String textual);
+
+    /**
+     * Tri par pertinence, lorsque le moteur sait la calculer. La Specification
+     * pose l'ordre sur la requête de résultats (jamais sur la requête de comptage).
+     */
+    default Optional<Specification<Job>> rankedBy(String textual) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,25 @@
+package org.loamok.jobs.repository;
+
+import org.loamok.jobs.entity.Job;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Recherche libre par LIKE '%x%' : portable (H2, tests), mais non indexable.
+ *
+ * @author Huby Franck
+ */
+public class LikeJobTextualSearch implements JobTextualSearch {
+
+    @Override
+    public Specification<Job> matching(String textual) {
+        String searchPattern = "%" + textual.toLowerCase() + "%";
+
+        return (root, query, cb)
+                -> cb.or(
+                        cb.like(cb.lower(root.get("position")), searchPattern),
+                        cb.like(cb.lower(root.get("compagny")), searchPattern),
+                        cb.like(cb.lower(root.get("city")), searchPattern),
+                        cb.like(cb.lower(root.get("description")), searchPattern)
+                );
+    }
+}
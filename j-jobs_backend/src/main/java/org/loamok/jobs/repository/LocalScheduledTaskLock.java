@@ -0,0 +1,30 @@
+package org.loamok.jobs.repository;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exclusion limitée à l'instance courante : base sans verrous consultatifs
+ * (H2), déploiement sur une seule instance.
+ *
+ * @author Huby Franck
+ */
+public class LocalScheduledTaskLock implements ScheduledTaskLock {
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean runExclusively(String task, Runnable work) {
+        if (!running.add(task)) {
+            return false;
+        }
+
+        try {
+            work.run();
+
+            return true;
+        } finally {
+            running.remove(task);
+        }
+    }
+}
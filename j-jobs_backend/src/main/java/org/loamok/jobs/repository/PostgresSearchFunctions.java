@@ -0,0 +1,50 @@
+package org.loamok.jobs.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.BasicTypeRegistry;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Fonctions HQL/Criteria propres à la recherche PostgreSQL.
+ *
+ * Les expressions reprennent à l'identique celles des index GIN de
+ * schema-postgresql.sql (idx_jobs_fts, idx_jobs_*_trgm) pour que le
+ * planificateur puisse les utiliser.
+ *
+ * @author Huby Franck
+ */
+public class PostgresSearchFunctions implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (!(functionContributions.getDialect() instanceof PostgreSQLDialect)) {
+            return;
+        }
+
+        BasicTypeRegistry types = functionContributions.getTypeConfiguration().getBasicTypeRegistry();
+
+        functionContributions.getFunctionRegistry().registerPattern(
+                "jobs_fts_match",
+                "(jobs_fts_document(?1, ?2, ?3, ?4) @@ websearch_to_tsquery('french', ?5))",
+                types.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        functionContributions.getFunctionRegistry().registerPattern(
+                "jobs_fts_rank",
+                "ts_rank(jobs_fts_document(?1, ?2, ?3, ?4), websearch_to_tsquery('french', ?5))",
+                types.resolve(StandardBasicTypes.DOUBLE)
+        );
+        // ?1 colonne, ?2 motif LIKE '%x%', ?3 texte saisi (minuscules)
+        functionContributions.getFunctionRegistry().registerPattern(
+                "jobs_trgm_match",
+                "(lower(?1) like ?2 or ?3 <% lower(?1))",
+                types.resolve(StandardBasicTypes.BOOLEAN)
+        );
+        functionContributions.getFunctionRegistry().registerPattern(
+                "jobs_trgm_rank",
+                "greatest(word_similarity(?4, lower(?1)), word_similarity(?4, lower(?2)), word_similarity(?4, lower(?3)))",
+                types.resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package org.loamok.jobs.repository;
+
+/**
+ * Exclusion des tâches planifiées entre les instances de l'application : une
+ * tâche ne s'exécute que sur l'instance qui obtient son verrou.
+ *
+ * @author Huby Franck
+ */
+public interface ScheduledTaskLock {
+
+    /**
+     * @return false si la tâche est déjà en cours (sur cette instance ou une autre)
+     */
+    boolean runExclusively(String task, Runnable work);
+}
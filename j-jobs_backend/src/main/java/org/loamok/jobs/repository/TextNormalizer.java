@@ -0,0 +1,39 @@
+package org.loamok.jobs.repository;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalisation des textes libres pour les traitements en mémoire :
+ * minuscules, accents retirés (« Développeur » → « developpeur »),
+ * découpage sur tout ce qui n'est ni lettre ni chiffre.
+ *
+ * @author Huby Franck
+ */
+public final class TextNormalizer {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextNormalizer() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+
+        return MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokens(String text) {
+        return Arrays.stream(SEPARATORS.split(fold(text)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.Locale;
+import java.util.Optional;
+import org.loamok.jobs.entity.Job;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Recherche par trigrammes PostgreSQL (pg_trgm) sur l'intitulé, l'entreprise
+ * et la ville : fragments (« capgem », « Lyo ») et fautes de frappe.
+ *
+ * Chaque colonne est testée par lower(col) LIKE '%x%' ou x <% lower(col)
+ * (similarité de mot), deux opérateurs servis par les index GIN gin_trgm_ops
+ * de schema-postgresql.sql. La description, non indexée, n'est pas parcourue.
+ *
+ * Le seuil de similarité est celui de la session (pg_trgm.word_similarity_threshold),
+ * positionné pour la transaction courante par {@link #prepare()}.
+ *
+ * @author Huby Franck
+ */
+public class TrigramJobTextualSearch implements JobTextualSearch {
+
+    private static final String[] COLUMNS = {"position", "compagny", "city"};
+
+    private final EntityManager entityManager;
+    private final double similarityThreshold;
+
+    public TrigramJobTextualSearch(EntityManager entityManager, double similarityThreshold) {
+        this.entityManager = entityManager;
+        this.similarityThreshold = similarityThreshold;
+    }
+
+    @Override
+    public void prepare() {
+        // set_config(..., true) : réglage local à la transaction, rendu au pool intact
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", String.valueOf(similarityThreshold))
+                .getSingleResult();
+    }
+
+    @Override
+    public Specification<Job> matching(String textual) {
+        String lowered = textual.toLowerCase(Locale.ROOT);
+        String searchPattern = "%" + lowered + "%";
+
+        return (root, query, cb) -> cb.or(
+                trigramMatch(root, cb, "position", searchPattern, lowered),
+                trigramMatch(root, cb, "compagny", searchPattern, lowered),
+                trigramMatch(root, cb, "city", searchPattern, lowered)
+        );
+    }
+
+    @Override
+    public Optional<Specification<Job>> rankedBy(String textual) {
+        String lowered = textual.toLowerCase(Locale.ROOT);
+
+        return Optional.of((root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                query.orderBy(cb.desc(cb.function(
+                        "jobs_trgm_rank", Double.class,
+                        root.get(COLUMNS[0]), root.get(COLUMNS[1]), root.get(COLUMNS[2]),
+                        cb.literal(lowered)
+                )));
+            }
+
+            return cb.conjunction();
+        });
+    }
+
+    private Predicate trigramMatch(Root<Job> root, CriteriaBuilder cb, String column, String searchPattern, String lowered) {
+        return cb.isTrue(cb.function(
+                "jobs_trgm_match", Boolean.class,
+                root.get(column), cb.literal(searchPattern), cb.literal(lowered)
+        ));
+    }
+}
@@ -0,0 +1,147 @@
+package org.loamok.jobs.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.loamok.jobs.event.JobChangedEvent;
+
+/**
+ * Partitions par utilisateur d'un index en mémoire des offres (voir
+ * {@link JobTextIndex} et {@link JobDuplicateIndex}).
+ *
+ * Une partition est construite au premier appel de l'utilisateur, puis tenue
+ * à jour par les {@link JobChangedEvent} : l'offre modifiée est rechargée, un
+ * lot d'offres fait écarter la partition. La mémoire est bornée par le nombre
+ * total d'offres indexées : au-delà, les partitions les moins récemment
+ * utilisées sont écartées.
+ *
+ * @param <D> contenu indexé d'une offre
+ * @param <P> partition d'un utilisateur
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+final class UserPartitions<D, P extends UserPartitions.Partition<D>> {
+
+    /**
+     * Offres indexées d'un utilisateur ; ses méthodes peuvent être appelées
+     * en concurrence.
+     */
+    interface Partition<D> {
+
+        void put(Integer jobId, D document);
+
+        void remove(Integer jobId);
+
+        int size();
+    }
+
+    /**
+     * Lecture en base des offres de l'utilisateur, ou de la seule offre
+     * jobId si elle n'est pas null.
+     */
+    @FunctionalInterface
+    interface Loader<D> {
+
+        Map<Integer, D> load(Integer userId, Integer jobId);
+    }
+
+    private final String name;
+    private final int maxIndexedJobs;
+    private final Supplier<P> factory;
+    private final Loader<D> loader;
+    // accessOrder = true : l'itération commence par la partition la moins récemment utilisée
+    private final LinkedHashMap<Integer, P> partitions = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong changes = new AtomicLong();
+
+    UserPartitions(String name, int maxIndexedJobs, Supplier<P> factory, Loader<D> loader) {
+        this.name = name;
+        this.maxIndexedJobs = maxIndexedJobs;
+        this.factory = factory;
+        this.loader = loader;
+    }
+
+    /**
+     * Partition de l'utilisateur, construite si besoin.
+     */
+    P get(Integer userId) {
+        synchronized (partitions) {
+            P partition = partitions.get(userId);
+            if (partition != null) {
+                return partition;
+            }
+        }
+
+        long changesBefore = changes.get();
+        P built = factory.get();
+        loader.load(userId, null).forEach(built::put);
+
+        synchronized (partitions) {
+            P partition = partitions.get(userId);
+            if (partition != null) {
+                return partition;
+            }
+
+            // une écriture a pu échapper au chargement : la partition ne sert que pour cet appel
+            if (changes.get() != changesBefore) {
+                return built;
+            }
+
+            partitions.put(userId, built);
+            evict();
+            log.debug("{} : partition chargée pour l'utilisateur {} ({} offres)", name, userId, built.size());
+
+            return built;
+        }
+    }
+
+    void onJobChanged(JobChangedEvent event) {
+        // les partitions ne portent pas le statut des offres
+        if (event.type() == JobChangedEvent.ChangeTypeEnum.STATUS_CHANGED) {
+            return;
+        }
+
+        changes.incrementAndGet();
+
+        if (event.userId() == null) {
+            return;
+        }
+
+        P partition;
+        synchronized (partitions) {
+            partition = partitions.get(event.userId());
+        }
+        if (partition == null) {
+            return;
+        }
+
+        // lot d'offres : la partition sera rechargée au prochain appel
+        if (event.jobId() == null) {
+            synchronized (partitions) {
+                partitions.remove(event.userId(), partition);
+            }
+            return;
+        }
+
+        partition.remove(event.jobId());
+        if (event.type() != JobChangedEvent.ChangeTypeEnum.DELETED) {
+            loader.load(event.userId(), event.jobId()).forEach(partition::put);
+        }
+
+        synchronized (partitions) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        int indexed = partitions.values().stream().mapToInt(Partition::size).sum();
+
+        var eldest = partitions.entrySet().iterator();
+        while (indexed > maxIndexedJobs && partitions.size() > 1 && eldest.hasNext()) {
+            indexed -= eldest.next().getValue().size();
+            eldest.remove();
+        }
+    }
+}
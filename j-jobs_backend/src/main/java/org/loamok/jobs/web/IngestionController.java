@@ -0,0 +1,44 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.ingestion.OfficialOfferIngestion;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class IngestionController {
+
+    private final OfficialOfferIngestion ingestion;
+
+    @PostMapping("/ingestion")
+    @Operation(summary = "Récupère les offres officielles publiées depuis le dernier passage pour l'utilisateur courant")
+    public ResponseEntity<?> ingest() {
+        try {
+            return ResponseEntity.ok(ingestion.runForCurrentUser());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "error", "conflict",
+                "error_description", e.getMessage()
+            ));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of(
+                "error", "source_unavailable",
+                "error_description", "Source des offres officielles indisponible: " + e.getMessage()
+            ));
+        }
+    }
+}
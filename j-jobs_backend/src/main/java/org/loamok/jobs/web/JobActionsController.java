@@ -0,0 +1,40 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.dto.response.JobActionsResponse;
+import org.loamok.jobs.manager.JobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class JobActionsController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final JobService jobService;
+
+    @GetMapping("/actions")
+    @Operation(summary = "Liste les offres de l'utilisateur courant par échéance de la prochaine action (relance, entretien, candidature sans nouvelle)")
+    public ResponseEntity<JobActionsResponse> actions(
+        @Parameter(description = "Limite aux échéances antérieures à cet instant (ISO-8601)")
+        @RequestParam(required = false) Instant until,
+        @Parameter(description = "Nombre maximal d'offres (1 à 200)")
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(jobService.findActionsForCurrentUser(until, Math.clamp(limit, 1, MAX_LIMIT)));
+    }
+}
@@ -0,0 +1,34 @@
+package org.loamok.jobs.web;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Écriture concurrente détectée à la validation (version de l'offre changée
+ * depuis sa lecture) : 412, comme un If-Match périmé, plutôt que le 409 de
+ * Spring Data REST. Le client relit l'offre et sa nouvelle version.
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class JobConcurrencyExceptionHandler {
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        log.debug("Écriture concurrente refusée : {}", e.getMessage());
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of(
+            "error", "precondition_failed",
+            "error_description", "L'offre a été modifiée entre-temps, relisez-la avant de la modifier"
+        ));
+    }
+}
@@ -0,0 +1,231 @@
+package org.loamok.jobs.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.loamok.jobs.repository.JobDataVersions;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * ETag et requêtes conditionnelles des lectures d'offres : la liste /jobs, la
+ * recherche /jobs/search (GET ou POST) et les compteurs /jobs/statuscount et
+ * /jobs/countbystatus.
+ *
+ * L'ETag combine la version des données de l'utilisateur (ou la version admin)
+ * et l'empreinte de la requête (chemin, paramètres, Accept, corps de la
+ * recherche). Un If-None-Match correspondant reçoit un 304 avant tout accès
+ * à la base. La version est lue avant le traitement : une écriture concurrente
+ * ne peut que rendre l'ETag déjà périmé, jamais l'inverse.
+ *
+ * Les autres ressources ne sont pas concernées : une offre seule (/jobs/{id})
+ * garde l'ETag de Spring Data REST, tiré de sa version, que le client renvoie
+ * en If-Match pour la modifier ; /jobs/settings n'est pas couvert par la
+ * version des offres et /jobs/actions dépend aussi de la date du jour.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class JobConditionalRequestFilter extends OncePerRequestFilter {
+
+    private static final String SEARCH = "/jobs/search";
+    private static final Set<String> READS = Set.of("/jobs", SEARCH, "/jobs/statuscount", "/jobs/countbystatus");
+
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final JobDataVersions versions;
+    private final UserRepository userRepository;
+    private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+
+    public JobConditionalRequestFilter(JobDataVersions versions, UserRepository userRepository) {
+        this.versions = versions;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (!READS.contains(path)) {
+            return true;
+        }
+
+        return switch (request.getMethod()) {
+            case "GET", "HEAD" -> false;
+            case "POST" -> !path.equals(SEARCH);
+            default -> true;
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean adminAccess = authentication.getAuthorities().stream()
+                .anyMatch(a -> "SCOPE_admin".equals(a.getAuthority()));
+        Integer userId = adminAccess ? null : userIdOf(authentication.getName());
+
+        if (!adminAccess && userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String scope = adminAccess
+                ? "a" + versions.currentForAdmin()
+                : "u" + userId + "." + versions.current(userId);
+
+        HttpServletRequest processed = request;
+        byte[] body = new byte[0];
+        if ("POST".equals(request.getMethod())) {
+            body = request.getInputStream().readAllBytes();
+            processed = new CachedBodyRequest(request, body);
+        }
+
+        String etag = "\"" + scope + "-" + fingerprint(request, body) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // le navigateur garde la réponse mais la revalide à chaque appel
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        filterChain.doFilter(processed, response);
+    }
+
+    /**
+     * Identifiant de l'utilisateur authentifié : lu une fois en base, puis
+     * servi de mémoire.
+     */
+    private Integer userIdOf(String email) {
+        Integer userId = userIds.get(email);
+        if (userId != null) {
+            return userId;
+        }
+
+        User user = userRepository.findByEmail(email);
+        if (user == null) {
+            return null;
+        }
+
+        if (userIds.size() >= MAX_CACHED_USERS) {
+            userIds.clear();
+        }
+        userIds.put(email, user.getId());
+
+        return user.getId();
+    }
+
+    private String fingerprint(HttpServletRequest request, byte[] body) {
+        String target = String.join("\n",
+                request.getMethod(),
+                request.getRequestURI(),
+                String.valueOf(request.getQueryString()),
+                String.valueOf(request.getHeader(HttpHeaders.ACCEPT))
+        );
+
+        byte[] head = target.getBytes(StandardCharsets.UTF_8);
+        byte[] signed = Arrays.copyOf(head, head.length + body.length);
+        System.arraycopy(body, 0, signed, head.length, body.length);
+
+        return DigestUtils.md5DigestAsHex(signed);
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals(etag) || candidate.equals("*"));
+    }
+
+    /**
+     * Requête dont le corps, déjà lu pour l'empreinte, est relu par le contrôleur.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // corps déjà en mémoire : tout est lisible immédiatement
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
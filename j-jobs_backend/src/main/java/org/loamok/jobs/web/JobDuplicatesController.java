@@ -0,0 +1,30 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.dto.response.JobDuplicatesResponse;
+import org.loamok.jobs.manager.JobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class JobDuplicatesController {
+
+    private final JobService jobService;
+
+    @GetMapping("/duplicates")
+    @Operation(summary = "Liste les groupes d'offres probablement saisies plusieurs fois par l'utilisateur courant")
+    public ResponseEntity<JobDuplicatesResponse> duplicates() {
+        return ResponseEntity.ok(jobService.findDuplicatesForCurrentUser());
+    }
+}
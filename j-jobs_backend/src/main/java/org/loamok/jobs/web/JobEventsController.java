@@ -0,0 +1,30 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.event.JobEventStreams;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class JobEventsController {
+
+    private final JobEventStreams jobEventStreams;
+
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Flux SSE des compteurs par statut (status-count) et des offres modifiées (job-changed) de l'utilisateur courant (ou Admin)")
+    public SseEmitter events() {
+        return jobEventStreams.openForCurrentUser();
+    }
+}
@@ -0,0 +1,56 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.manager.JobImporter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class JobImportController {
+
+    public static final String TEXT_CSV = "text/csv";
+
+    private final JobImporter jobImporter;
+
+    @PostMapping(path = "/import", consumes = TEXT_CSV)
+    @Operation(summary = "Importe des offres depuis un CSV (en-tête = noms des champs d'une offre, séparateur , ou ;) pour l'utilisateur courant")
+    public ResponseEntity<?> importCsv(InputStream body) {
+        try {
+            return ResponseEntity.ok(jobImporter.importCsvForCurrentUser(body));
+        } catch (IOException e) {
+            return badRequest(e);
+        }
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importe des offres depuis un tableau JSON (offres au format de POST /jobs) pour l'utilisateur courant")
+    public ResponseEntity<?> importJson(InputStream body) {
+        try {
+            return ResponseEntity.ok(jobImporter.importJsonForCurrentUser(body));
+        } catch (IOException | IllegalArgumentException e) {
+            return badRequest(e);
+        }
+    }
+
+    private ResponseEntity<?> badRequest(Exception e) {
+        return ResponseEntity.badRequest().body(Map.of(
+            "error", "invalid_request",
+            "error_description", "Fichier d'import illisible: " + e.getMessage()
+        ));
+    }
+}
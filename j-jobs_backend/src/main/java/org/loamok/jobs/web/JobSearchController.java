@@ -7,6 +7,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.dto.request.PaginationModeEnum;
+import org.loamok.jobs.dto.response.JobSearchResponse;
 import org.loamok.jobs.manager.JobService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,10 +26,24 @@ public class JobSearchController {
         @Parameter(description = "Objet contenant la recherche", required = true)
         @Valid @RequestBody JobSearchRequest searchRequest,
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "3") int size
+        @RequestParam(defaultValue = "3") int size,
+        @Parameter(description = "Mode de pagination : OFFSET (numéro de page), KEYSET (curseur), SLICE (sans total) ou ESTIMATED (total mémorisé)")
+        @RequestParam(defaultValue = "OFFSET") PaginationModeEnum mode,
+        @Parameter(description = "Curseur opaque issu des liens next/prev (mode KEYSET)")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Ajoute les compteurs par contrat, mode, temps de travail et statut (section facets)")
+        @RequestParam(defaultValue = "false") boolean facets
     ) {
         try {
-            Map<String, Object> response = jobService.searchJobsForCurrentUser(searchRequest, page, size);
+            JobSearchResponse response = switch (mode) {
+                case KEYSET -> jobService.searchJobsForCurrentUserByCursor(searchRequest, cursor, size);
+                case OFFSET -> jobService.searchJobsForCurrentUser(searchRequest, page, size);
+                case SLICE -> jobService.searchJobsForCurrentUserBySlice(searchRequest, page, size);
+                case ESTIMATED -> jobService.searchJobsForCurrentUserWithEstimatedTotal(searchRequest, page, size);
+            };
+            if (facets) {
+                response = response.withFacets(jobService.countFacetsForCurrentUser(searchRequest));
+            }
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -0,0 +1,44 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.dto.request.JobSettingsRequest;
+import org.loamok.jobs.dto.response.JobSettingsResponse;
+import org.loamok.jobs.manager.JobSettingsManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class JobSettingsController {
+
+    private final JobSettingsManager settingsManager;
+
+    @GetMapping("/settings")
+    @Operation(summary = "Réglages du suivi des candidatures de l'utilisateur courant")
+    public ResponseEntity<JobSettingsResponse> get() {
+        return ResponseEntity.ok(settingsManager.getForCurrentUser());
+    }
+
+    @PutMapping("/settings")
+    @Operation(summary = "Modifie les réglages du suivi des candidatures de l'utilisateur courant")
+    public ResponseEntity<JobSettingsResponse> update(
+        @Parameter(description = "Nouveaux réglages", required = true)
+        @Valid @RequestBody JobSettingsRequest settingsRequest
+    ) {
+        return ResponseEntity.ok(settingsManager.updateForCurrentUser(settingsRequest));
+    }
+}
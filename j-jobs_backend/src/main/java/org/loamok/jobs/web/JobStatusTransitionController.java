@@ -0,0 +1,45 @@
+package org.loamok.jobs.web;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.dto.request.JobStatusTransitionRequest;
+import org.loamok.jobs.exceptions.MissingFieldsException;
+import org.loamok.jobs.manager.JobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Jobs", description = "Opérations sécurisées sur les offres d'emploi")
+public class JobStatusTransitionController {
+
+    private final JobService jobService;
+
+    @PostMapping("/transition")
+    @Operation(summary = "Change le statut de plusieurs offres de l'utilisateur courant (ou Admin) en une seule transaction")
+    public ResponseEntity<?> transition(
+        @Parameter(description = "Offres visées (identifiants et/ou critères) et nouveau statut", required = true)
+        @Valid @RequestBody JobStatusTransitionRequest transitionRequest
+    ) {
+        try {
+            return ResponseEntity.ok(jobService.transitionOfferStatusForCurrentUser(transitionRequest));
+        } catch (MissingFieldsException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "invalid_request",
+                "error_description", "Changement de statut incorrect: " + e.getMessage()
+            ));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.loamok.jobs.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.loamok.jobs.config.LabelsProperties;
+import org.loamok.jobs.entity.enums.LabelledEnum;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Libellés de toutes les énumérations {@link LabelledEnum}, sérialisés une fois
+ * au démarrage pour chaque langue servie.
+ *
+ * Les traductions viennent de i18n/labels_*.properties (clé
+ * NomDeLEnum.CONSTANTE) ; à défaut, le libellé français de l'énumération est
+ * repris.
+ *
+ * @author Huby Franck
+ */
+@Component
+public class LabelBundles {
+
+    private static final String ENUMS_PACKAGE = "org.loamok.jobs.entity.enums";
+
+    /**
+     * Corps JSON prêt à l'envoi et son ETag (empreinte du contenu).
+     */
+    public record Bundle(Locale locale, byte[] body, String etag) {
+    }
+
+    private final Map<String, Bundle> bundles = new LinkedHashMap<>();
+    private final Bundle defaultBundle;
+
+    public LabelBundles(LabelsProperties properties, ObjectMapper objectMapper) throws JsonProcessingException {
+        if (properties.getLocales().isEmpty()) {
+            throw new IllegalStateException("loamok.jobs.labels.locales doit contenir au moins une langue");
+        }
+
+        ResourceBundleMessageSource translations = new ResourceBundleMessageSource();
+        translations.setBasename("i18n/labels");
+        translations.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        translations.setFallbackToSystemLocale(false);
+
+        List<Class<? extends LabelledEnum>> enumClasses = labelledEnums();
+
+        for (Locale locale : properties.getLocales()) {
+            Map<String, Map<String, String>> labels = new LinkedHashMap<>();
+
+            for (Class<? extends LabelledEnum> enumClass : enumClasses) {
+                Map<String, String> labelsMap = new LinkedHashMap<>();
+
+                Arrays.stream(enumClass.getEnumConstants())
+                        .forEach(e -> labelsMap.put(e.getName(), translations.getMessage(
+                                enumClass.getSimpleName() + "." + e.getName(), null, e.getLabel(), locale)));
+
+                labels.put(enumClass.getSimpleName(), labelsMap);
+            }
+
+            byte[] body = objectMapper.writeValueAsBytes(labels);
+            bundles.put(locale.getLanguage(), new Bundle(locale, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\""));
+        }
+
+        defaultBundle = bundles.get(properties.getLocales().get(0).getLanguage());
+    }
+
+    /**
+     * Lot de la langue demandée, ou de la langue par défaut si elle n'est pas servie.
+     */
+    public Bundle forLocale(Locale locale) {
+        if (locale == null) {
+            return defaultBundle;
+        }
+
+        return bundles.getOrDefault(locale.getLanguage(), defaultBundle);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Class<? extends LabelledEnum>> labelledEnums() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AssignableTypeFilter(LabelledEnum.class));
+
+        return scanner.findCandidateComponents(ENUMS_PACKAGE).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .<Class<? extends LabelledEnum>>map(name -> (Class<? extends LabelledEnum>) ClassUtils
+                        .resolveClassName(name, LabelBundles.class.getClassLoader()))
+                .filter(Class::isEnum)
+                .sorted(Comparator.comparing(Class::getSimpleName))
+                .toList();
+    }
+}
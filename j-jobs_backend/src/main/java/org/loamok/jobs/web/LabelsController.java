@@ -1,25 +1,24 @@
 package org.loamok.jobs.web;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import org.loamok.jobs.entity.enums.ContractEnum;
-import org.loamok.jobs.entity.enums.OfferStatusEnum;
-import org.loamok.jobs.entity.enums.WorkModeEnum;
-import org.loamok.jobs.entity.enums.WorkTimeEnum;
-import org.loamok.jobs.entity.enums.LabelledEnum;
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.loamok.jobs.config.LabelsProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.LinkedHashMap;
-import java.util.List;
-import org.loamok.jobs.entity.enums.JobStatusEnum;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  *
@@ -27,16 +26,11 @@ import org.loamok.jobs.entity.enums.JobStatusEnum;
  */
 @RestController
 @RequestMapping("/labels")
+@RequiredArgsConstructor
 public class LabelsController {
 
-    private Map<String, String> getEnumLabels(Class<? extends LabelledEnum> enumClass) {
-        Map<String, String> labelsMap = new LinkedHashMap<>();
-
-        Arrays.stream(enumClass.getEnumConstants())
-                .forEach(e -> labelsMap.put(e.getName(), e.getLabel()));
-
-        return labelsMap;
-    }
+    private final LabelBundles labelBundles;
+    private final LabelsProperties properties;
 
     @Operation(summary = "Récupère les labels de tous les Enums métier",
             description = "Retourne un Map global contenant, pour chaque Enum pertinent, le mapping entre la constante (clé) et le label descriptif (valeur).") // 👈 Ajout
@@ -50,22 +44,29 @@ public class LabelsController {
                 )
         )
     })
-    @GetMapping
-    public ResponseEntity<Map<String, Map<String, String>>> getAllEnumLabels() {
-        Map<String, Map<String, String>> response = new HashMap<>();
-
-        List<Class<? extends LabelledEnum>> enumClasses = List.of(
-                ContractEnum.class,
-                WorkModeEnum.class,
-                WorkTimeEnum.class,
-                OfferStatusEnum.class,
-                JobStatusEnum.class
-        );
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllEnumLabels(
+            @Parameter(description = "Langue des libellés (ex: fr, en) ; à défaut, celle de l'en-tête Accept-Language")
+            @RequestParam(name = "lang", required = false) Locale lang,
+            Locale locale,
+            WebRequest request) {
+        LabelBundles.Bundle bundle = labelBundles.forLocale(lang != null ? lang : locale);
+        CacheControl cacheControl = CacheControl.maxAge(properties.getMaxAge()).cachePublic();
 
-        enumClasses.forEach(enumClass
-                -> response.put(enumClass.getSimpleName(), getEnumLabels(enumClass))
-        );
+        if (request.checkNotModified(bundle.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(bundle.etag())
+                    .cacheControl(cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+                    .build();
+        }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(bundle.etag())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+                .header(HttpHeaders.CONTENT_LANGUAGE, bundle.locale().toLanguageTag())
+                .body(bundle.body());
     }
 }
@@ -0,0 +1,62 @@
+-- Objets PostgreSQL complémentaires au schéma généré par Hibernate (ddl-auto: update).
+-- Joué à chaque démarrage après Hibernate : chaque instruction doit rester idempotente
+-- et ne pas contenir de ';' hors fin d'instruction (séparateur de spring.sql.init).
+
+-- Document plein texte d'une offre : intitulé (A), entreprise et ville (B), description (C)
+CREATE OR REPLACE FUNCTION jobs_fts_document(p_position text, p_compagny text, p_city text, p_description text)
+RETURNS tsvector
+LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$
+    SELECT setweight(to_tsvector('french', coalesce(p_position, '')), 'A')
+        || setweight(to_tsvector('french', coalesce(p_compagny, '')), 'B')
+        || setweight(to_tsvector('french', coalesce(p_city, '')), 'B')
+        || setweight(to_tsvector('french', coalesce(p_description, '')), 'C')
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_jobs_fts ON jobs USING GIN (jobs_fts_document(position, compagny, city, description));
+
+-- Recherche par fragments / fautes de frappe (moteur TRIGRAM) : LIKE '%x%' et <% sur lower(col)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_jobs_position_trgm ON jobs USING GIN (lower(position) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_jobs_compagny_trgm ON jobs USING GIN (lower(compagny) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_jobs_city_trgm ON jobs USING GIN (lower(city) gin_trgm_ops);
+
+-- Dates d'activité dénormalisées : les offres antérieures à ces colonnes (ajoutées nullables
+-- par Hibernate) sont reprises au démarrage par lots bornés, puis les colonnes passées NOT NULL
+-- sans parcours de la table sous verrou exclusif (voir JobSchemaBackfill)
+
+-- Identifiants par séquence (pooled, pas de 50) : les séquences créées par Hibernate
+-- repartent au-delà des identifiants attribués du temps des colonnes IDENTITY
+SELECT setval('jobs_seq', greatest((SELECT coalesce(max(id_job), 0) + 50 FROM jobs), (SELECT last_value FROM jobs_seq)));
+SELECT setval('jobs_has_status_seq', greatest((SELECT coalesce(max(id_jhs), 0) + 50 FROM jobs_has_status), (SELECT last_value FROM jobs_has_status_seq)));
+
+-- Version des offres (verrouillage optimiste) : valeur par défaut, rattrapage des offres
+-- antérieures à la colonne et NOT NULL posés au démarrage (voir JobSchemaBackfill)
+
+-- Énumérations en codes smallint (LabelledEnum#getCode) : les colonnes *_code sont ajoutées
+-- (nullables) par Hibernate, les anciennes colonnes texte de jobs restent en place, nullables,
+-- pour être reprises au démarrage par lots bornés puis vidées, et les colonnes *_code passées
+-- NOT NULL sans parcours de la table sous verrou exclusif (voir JobSchemaBackfill). Créées
+-- vides sur une base neuve, elles ne coûtent qu'un bit de la carte des NULL par ligne.
+ALTER TABLE jobs ADD COLUMN IF NOT EXISTS contract varchar(50),
+    ADD COLUMN IF NOT EXISTS work_time varchar(50),
+    ADD COLUMN IF NOT EXISTS work_mode varchar(50),
+    ADD COLUMN IF NOT EXISTS offer_status varchar(50);
+
+ALTER TABLE jobs ALTER COLUMN contract DROP NOT NULL,
+    ALTER COLUMN work_time DROP NOT NULL,
+    ALTER COLUMN work_mode DROP NOT NULL,
+    ALTER COLUMN offer_status DROP NOT NULL;
+
+-- Index des anciennes colonnes, remplacés par idx_jobs_offer_status_code_id et idx_jobs_user_offer_status_code
+DROP INDEX IF EXISTS idx_jobs_status_id;
+DROP INDEX IF EXISTS idx_jobs_user_status;
+
+-- Historique : les rangs déjà stockés sont les codes (mêmes valeurs), seules les bornes posées
+-- par Hibernate sur les rangs tombent pour laisser place à de nouveaux codes
+ALTER TABLE jobs_has_status DROP CONSTRAINT IF EXISTS jobs_has_status_job_status_check;
+ALTER TABLE jobs_has_status DROP CONSTRAINT IF EXISTS jobs_has_status_offer_status_check;
+
+-- Prochaine action (liste « à faire ») : les offres antérieures aux colonnes sont reprises au
+-- démarrage, après les codes des énumérations dont dépend l'échéance (voir JobSchemaBackfill)
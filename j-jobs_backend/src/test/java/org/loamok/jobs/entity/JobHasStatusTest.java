@@ -1,7 +1,11 @@
 package org.loamok.jobs.entity;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.AfterEach;
@@ -41,6 +45,8 @@ public class JobHasStatusTest {
     UserRepository userRepository;
     @Autowired
     RoleRepository roleRepository;
+    @PersistenceContext
+    EntityManager em;
 
     Job myJob;
     User myUser;
@@ -359,4 +365,30 @@ public class JobHasStatusTest {
         assertEquals(myJob.getJobHasStatuses().getFirst().hashCode(), result);
     }
 
+    /**
+     * Test of codes stockés, classes LabelledEnumConverter : les énumérations
+     * sont écrites par leur code (smallint), relues à l'identique.
+     */
+    @Test
+    public void test_16_StoredCodes() {
+        System.out.println("stored codes");
+        Integer id = jobRepository.saveAndFlush(myJob).getId();
+        em.clear();
+
+        Object[] job = (Object[]) em.createNativeQuery(
+                "SELECT contract_code, work_time_code, work_mode_code, offer_status_code FROM jobs WHERE id_job = :id")
+                .setParameter("id", id)
+                .getSingleResult();
+        assertEquals(List.of(3, 0, 0, 7), Stream.of(job).map(code -> ((Number) code).intValue()).toList());
+
+        Object[] history = (Object[]) em.createNativeQuery(
+                "SELECT job_status, offer_status FROM jobs_has_status WHERE job_id = :id")
+                .setParameter("id", id)
+                .getSingleResult();
+        assertEquals(List.of(5, 7), Stream.of(history).map(code -> ((Number) code).intValue()).toList());
+
+        JobHasStatus reloaded = em.find(Job.class, id).getJobHasStatuses().getFirst();
+        assertEquals(JobStatusEnum.AUTRE, reloaded.getJobStatus());
+        assertEquals(OfferStatusEnum.O_REFUS, reloaded.getOfferStatus());
+    }
 }
@@ -2,6 +2,7 @@ package org.loamok.jobs.entity;
 
 import jakarta.transaction.Transactional;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.assertj.core.api.Assertions;
@@ -611,4 +612,25 @@ public class JobTest {
         Assertions.assertThat(result).isEqualTo(expResult);
     }
 
+    /**
+     * Test of refreshActivityDates method, of class Job.
+     */
+    @Test
+    public void test_35_refreshActivityDates() {
+        System.out.println("refreshActivityDates");
+        Instant applicationDate = Instant.now().minus(3, ChronoUnit.DAYS);
+        myJob.setApplicationDate(applicationDate);
+
+        Job saved = jobRepository.saveAndFlush(myJob);
+        Instant firstSave = saved.getLastActivityAt();
+
+        assertEquals(applicationDate, saved.getFirstActivityAt());
+        assertTrue(firstSave.isAfter(applicationDate));
+
+        saved.setCity("Tucson");
+        saved = jobRepository.saveAndFlush(saved);
+
+        assertEquals(applicationDate, saved.getFirstActivityAt());
+        assertFalse(saved.getLastActivityAt().isBefore(firstSave));
+    }
 }
@@ -0,0 +1,395 @@
+package org.loamok.jobs.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import static org.junit.jupiter.api.Assertions.*;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.loamok.jobs.repository.JobRepository;
+import org.loamok.jobs.web.JobEventsController;
+import org.loamok.libs.o2springsecurity.entity.Role;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.repository.RoleRepository;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitterReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Chaque flux est raccordé, comme par Spring MVC, à une réponse simulée dont
+ * on relit le contenu ; les évènements sont publiés hors transaction (envoi
+ * immédiat), les données sont supprimées à la main.
+ *
+ * @author Huby Franck
+ */
+@SpringBootTest(properties = {
+    "loamok.jobs.events.max-streams-per-user=2",
+    "loamok.jobs.events.max-pending-events=4"
+})
+@TestMethodOrder(MethodOrderer.MethodName.class)
+@ActiveProfiles("test")
+public class JobEventStreamsTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    @Autowired
+    JobEventStreams jobEventStreams;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    JobRepository jobRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    RoleRepository roleRepository;
+
+    final List<Client> clients = new ArrayList<>();
+    User myUser;
+    User otherUser;
+    User adminUser;
+    Role myRole;
+
+    public JobEventStreamsTest() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        myRole = roleRepository.save(Role.builder()
+                .role("ROLE_USER")
+                .isAdmin(Boolean.FALSE)
+                .build());
+        myUser = userRepository.save(buildAUser("bip.bip@acme.com"));
+        otherUser = userRepository.save(buildAUser("wile.e@acme.com"));
+        adminUser = userRepository.save(buildAUser("admin@acme.com"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        clients.forEach(Client::close);
+        clients.clear();
+        jobRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        myUser = null;
+        otherUser = null;
+        adminUser = null;
+        myRole = null;
+    }
+
+    private User buildAUser(String email) {
+        return User.builder()
+                .email(email)
+                .name("Runner")
+                .firstname("road")
+                .password("bip-bipMotherF!")
+                .enabled(true)
+                .gdproptin(true)
+                .role(myRole)
+                .build();
+    }
+
+    private Job buildAJob(User owner) {
+        return Job.builder()
+                .contract(ContractEnum.CDI)
+                .compagny("ACME")
+                .city("New Mexico")
+                .offerStatus(OfferStatusEnum.B_EN_ATTENTE)
+                .position("Coyote")
+                .workMode(WorkModeEnum.SUR_SITE)
+                .workTime(WorkTimeEnum.PLEIN_TEMPS)
+                .user(owner)
+                .build();
+    }
+
+    private Client open(User user, boolean adminAccess) throws Exception {
+        Client client = new Client(jobEventStreams.open(user, adminAccess));
+        client.attach(objectMapper);
+        clients.add(client);
+
+        return client;
+    }
+
+    private void publish(Integer jobId, User owner) {
+        eventPublisher.publishEvent(new JobChangedEvent(jobId, owner.getId(), JobChangedEvent.ChangeTypeEnum.UPDATED));
+    }
+
+    private static void await(BooleanSupplier condition, String description) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Délai dépassé : " + description);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Test of onJobChanged method, of class JobEventStreams : le propriétaire
+     * reçoit job-changed puis ses compteurs s'ils ont changé, un autre
+     * utilisateur ne reçoit rien.
+     */
+    @Test
+    public void test_01_onJobChanged_ownerOnly() throws Exception {
+        System.out.println("onJobChanged");
+        Client mine = open(myUser, false);
+        Client other = open(otherUser, false);
+        await(() -> mine.count(JobEventStreams.STATUS_COUNT) == 1, "compteurs initiaux");
+        assertTrue(mine.content().contains("\"EN_ATTENTE\":0"));
+
+        Job job = jobRepository.save(buildAJob(myUser));
+        publish(job.getId(), myUser);
+
+        await(() -> mine.count(JobEventStreams.STATUS_COUNT) == 2, "compteurs après écriture");
+        assertEquals(1, mine.count(JobEventStreams.JOB_CHANGED));
+        assertTrue(mine.content().contains("\"job_id\":" + job.getId()));
+        assertTrue(mine.content().contains("\"EN_ATTENTE\":1"));
+
+        // compteurs inchangés : seul job-changed part
+        publish(job.getId(), myUser);
+        await(() -> mine.count(JobEventStreams.JOB_CHANGED) == 2, "second job-changed");
+        assertEquals(2, mine.count(JobEventStreams.STATUS_COUNT));
+
+        assertEquals(1, other.count(JobEventStreams.STATUS_COUNT));
+        assertEquals(0, other.count(JobEventStreams.JOB_CHANGED));
+    }
+
+    /**
+     * Test of onJobChanged method, of class JobEventStreams : un flux admin
+     * reçoit les changements de tous les utilisateurs, une seule fois.
+     */
+    @Test
+    public void test_02_onJobChanged_adminFanOut() throws Exception {
+        System.out.println("onJobChanged admin");
+        Client admin = open(adminUser, true);
+        Client mine = open(myUser, false);
+
+        publish(1, myUser);
+        publish(2, otherUser);
+        publish(3, adminUser);
+
+        await(() -> admin.count(JobEventStreams.JOB_CHANGED) == 3, "job-changed de chaque utilisateur");
+        await(() -> mine.count(JobEventStreams.JOB_CHANGED) == 1, "job-changed du propriétaire");
+        Thread.sleep(100);
+        assertEquals(3, admin.count(JobEventStreams.JOB_CHANGED));
+        assertEquals(1, mine.count(JobEventStreams.JOB_CHANGED));
+    }
+
+    /**
+     * Test of open method, of class JobEventStreams : au-delà du nombre de
+     * flux par utilisateur, le plus ancien est fermé et ne reçoit plus rien.
+     */
+    @Test
+    public void test_03_open_capsStreamsPerUser() throws Exception {
+        System.out.println("open cap");
+        Client first = open(myUser, false);
+        Client second = open(myUser, false);
+        Client third = open(myUser, false);
+
+        assertEquals(2, jobEventStreams.activeStreams(myUser.getId()));
+        await(first::completed, "fermeture du flux le plus ancien");
+
+        publish(1, myUser);
+        await(() -> second.count(JobEventStreams.JOB_CHANGED) == 1, "job-changed du deuxième flux");
+        await(() -> third.count(JobEventStreams.JOB_CHANGED) == 1, "job-changed du troisième flux");
+        assertEquals(0, first.count(JobEventStreams.JOB_CHANGED));
+    }
+
+    /**
+     * Test of onJobChanged method, of class JobEventStreams : un client lent
+     * dont la file déborde reçoit un unique resync à la place des évènements
+     * manqués ; un flux inactif reçoit le battement, un flux occupé non.
+     */
+    @Test
+    public void test_04_slowClient_resyncAndHeartbeat() throws Exception {
+        System.out.println("resync / heartbeat");
+        Client slow = open(myUser, false);
+        Client idle = open(otherUser, false);
+        await(() -> slow.count(JobEventStreams.STATUS_COUNT) == 1, "compteurs initiaux");
+
+        slow.block();
+        publish(1, myUser);
+        assertTrue(slow.writing.await(TIMEOUT_MS, TimeUnit.MILLISECONDS), "envoi bloqué");
+        // 4 en attente, le cinquième fait déborder la file
+        for (int jobId = 2; jobId <= 6; jobId++) {
+            publish(jobId, myUser);
+        }
+        jobEventStreams.heartbeat();
+        slow.release();
+
+        await(() -> slow.count(JobEventStreams.RESYNC) == 1, "resync");
+        await(idle::heartbeats, "battement du flux inactif");
+        Thread.sleep(100);
+        assertEquals(1, slow.count(JobEventStreams.JOB_CHANGED));
+        assertFalse(slow.heartbeats());
+
+        // après le resync, les évènements suivants repartent normalement
+        publish(7, myUser);
+        await(() -> slow.count(JobEventStreams.JOB_CHANGED) == 2, "job-changed après resync");
+    }
+
+    /**
+     * Client SSE simulé : la réponse reçoit ce que Spring MVC y écrirait pour
+     * le SseEmitter ; block() suspend les écritures, comme un client lent.
+     */
+    static final class Client {
+
+        final SseEmitter emitter;
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/jobs/events");
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        volatile CountDownLatch gate;
+        volatile CountDownLatch writing = new CountDownLatch(1);
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void attach(ObjectMapper objectMapper) throws Exception {
+            request.setAsyncSupported(true);
+            HttpServletResponseWrapper blockable = new HttpServletResponseWrapper(response) {
+                @Override
+                public ServletOutputStream getOutputStream() throws IOException {
+                    return new GatedOutputStream(response.getOutputStream());
+                }
+            };
+            ServletWebRequest webRequest = new ServletWebRequest(request, blockable);
+            WebAsyncUtils.getAsyncManager(webRequest)
+                    .setAsyncWebRequest(WebAsyncUtils.createAsyncWebRequest(request, blockable));
+
+            new ResponseBodyEmitterReturnValueHandler(List.of(
+                    new StringHttpMessageConverter(StandardCharsets.UTF_8),
+                    new MappingJackson2HttpMessageConverter(objectMapper)))
+                    .handleReturnValue(emitter, new MethodParameter(JobEventsController.class.getMethod("events"), -1),
+                            new ModelAndViewContainer(), webRequest);
+        }
+
+        void block() {
+            writing = new CountDownLatch(1);
+            gate = new CountDownLatch(1);
+        }
+
+        void release() {
+            gate.countDown();
+        }
+
+        String content() {
+            try {
+                return response.getContentAsString(StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        long count(String eventName) {
+            return content().lines().filter(line -> line.equals("event:" + eventName)).count();
+        }
+
+        boolean heartbeats() {
+            return content().lines().anyMatch(line -> line.equals(":heartbeat"));
+        }
+
+        /**
+         * Flux terminé côté serveur : le résultat de la requête asynchrone est posé.
+         */
+        boolean completed() {
+            return WebAsyncUtils.getAsyncManager(request).hasConcurrentResult();
+        }
+
+        /**
+         * Fin de la requête asynchrone, comme à la déconnexion du client :
+         * le flux est retiré de JobEventStreams.
+         */
+        void close() {
+            if (gate != null) {
+                release();
+            }
+            if (!completed()) {
+                emitter.complete();
+            }
+            if (request.getAsyncContext() != null) {
+                request.getAsyncContext().complete();
+            }
+        }
+
+        private final class GatedOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream target;
+
+            private GatedOutputStream(ServletOutputStream target) {
+                this.target = target;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                pass();
+                target.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                pass();
+                target.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                target.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                target.setWriteListener(listener);
+            }
+
+            private void pass() throws IOException {
+                CountDownLatch current = gate;
+                if (current == null) {
+                    return;
+                }
+
+                writing.countDown();
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.loamok.jobs.ingestion;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import static org.junit.jupiter.api.Assertions.*;
+import org.loamok.jobs.dto.response.IngestionReport;
+import org.loamok.jobs.entity.IngestedOffer;
+import org.loamok.jobs.entity.IngestionCheckpoint;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.JobHasStatus;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.loamok.jobs.repository.JobRepository;
+import org.loamok.libs.o2springsecurity.entity.Role;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.repository.RoleRepository;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Les lots sont enregistrés par les ouvriers, dans leurs propres transactions :
+ * les données de test sont validées puis supprimées à la main.
+ *
+ * @author Huby Franck
+ */
+@SpringBootTest(properties = "loamok.jobs.ingestion.batch-size=2")
+@TestMethodOrder(MethodOrderer.MethodName.class)
+@ActiveProfiles("test")
+public class OfficialOfferIngestionTest {
+
+    @Autowired
+    OfficialOfferIngestion ingestion;
+    @Autowired
+    OfficialOfferSource source;
+    @Autowired
+    JobRepository jobRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    EntityManager em;
+
+    User myUser;
+    Role myRole;
+
+    public OfficialOfferIngestionTest() {
+    }
+
+    @BeforeEach
+    public void setUp() {
+        myRole = roleRepository.save(Role.builder()
+                .role("ROLE_USER")
+                .isAdmin(Boolean.FALSE)
+                .build());
+
+        myUser = userRepository.save(User.builder()
+                .email("bip.bip@acme.com")
+                .name("Runner")
+                .firstname("road")
+                .password("bip-bipMotherF!")
+                .enabled(true)
+                .gdproptin(true)
+                .role(myRole)
+                .build());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("DELETE FROM IngestedOffer").executeUpdate();
+            em.createQuery("DELETE FROM IngestionCheckpoint").executeUpdate();
+            em.createQuery("DELETE FROM JobStatusCounter").executeUpdate();
+        });
+        jobRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        myUser = null;
+        myRole = null;
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    /**
+     * Test of run method, of class OfficialOfferIngestion : offres créées par
+     * lots, offre saisie à la main rattachée, point de reprise enregistré.
+     */
+    @Test
+    public void test_01_run_createsAndLinks() throws Exception {
+        System.out.println("run");
+        Job handTyped = Job.builder()
+                .contract(ContractEnum.CDI)
+                .compagny("CLOUD RHONE")
+                .city("lyon")
+                .offerStatus(OfferStatusEnum.A_EN_COURS)
+                .position("Ingénieur  Devops")
+                .workMode(WorkModeEnum.SUR_SITE)
+                .workTime(WorkTimeEnum.PLEIN_TEMPS)
+                .user(myUser)
+                .build();
+        handTyped.getJobHasStatuses().add(JobHasStatus.builder()
+                .jobStatus(handTyped.getOfferStatus().toJobStatus())
+                .offerStatus(handTyped.getOfferStatus())
+                .job(handTyped)
+                .build());
+        jobRepository.save(handTyped);
+
+        IngestionReport report = ingestion.run(myUser);
+
+        assertEquals("file", report.source());
+        assertEquals(6, report.fetched());
+        assertEquals(5, report.created());
+        assertEquals(1, report.linked());
+        assertEquals(0, report.rejected());
+        assertTrue(report.complete());
+
+        List<Job> jobs = inTransaction(() -> em.createQuery(
+                "SELECT j FROM Job j WHERE j.user.id = :userId ORDER BY j.id", Job.class)
+                .setParameter("userId", myUser.getId())
+                .getResultList());
+        assertEquals(6, jobs.size());
+        assertTrue(jobs.stream().allMatch(Job::isFromOfficialDom));
+        // le rattachement ne touche ni au contenu ni au statut de l'offre saisie
+        assertEquals(OfferStatusEnum.A_EN_COURS, jobs.get(0).getOfferStatus());
+        assertEquals("CLOUD RHONE", jobs.get(0).getCompagny());
+        assertEquals(OfferStatusEnum.B_EN_ATTENTE, jobs.get(1).getOfferStatus());
+
+        List<OfficialOffer> offers = source.fetchAfter(null, 10);
+        IngestionCheckpoint checkpoint = inTransaction(() -> em.find(IngestionCheckpoint.class,
+                new IngestionCheckpoint.Key(myUser.getId(), source.name())));
+        assertEquals(offers.get(offers.size() - 1).checkpoint(), checkpoint.getPosition());
+        assertEquals(6L, inTransaction(() -> em.createQuery(
+                "SELECT count(o) FROM IngestedOffer o WHERE o.userId = :userId", Long.class)
+                .setParameter("userId", myUser.getId())
+                .getSingleResult()));
+    }
+
+    /**
+     * Test of run method, of class OfficialOfferIngestion : un second passage
+     * reprend après le point de reprise ; sans point de reprise, les offres
+     * déjà reçues ne sont ni recréées ni réécrites.
+     */
+    @Test
+    public void test_02_run_isIncremental() throws Exception {
+        System.out.println("run");
+        ingestion.run(myUser);
+
+        IngestionReport again = ingestion.run(myUser);
+        assertEquals(0, again.fetched());
+        assertTrue(again.complete());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                em.createQuery("DELETE FROM IngestionCheckpoint").executeUpdate());
+
+        IngestionReport replay = ingestion.run(myUser);
+        assertEquals(6, replay.fetched());
+        assertEquals(0, replay.created());
+        assertEquals(0, replay.linked());
+        assertEquals(6, replay.unchanged());
+        assertEquals(6L, jobRepository.count());
+    }
+}
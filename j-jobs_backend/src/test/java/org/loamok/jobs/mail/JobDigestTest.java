@@ -0,0 +1,320 @@
+package org.loamok.jobs.mail;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import static org.junit.jupiter.api.Assertions.*;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.JobDigestMail;
+import org.loamok.jobs.entity.UserJobSettings;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.loamok.jobs.repository.JobRepository;
+import org.loamok.libs.o2springsecurity.entity.Role;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.repository.RoleRepository;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Les courriels partent vers un serveur SMTP local minimal, démarré par le
+ * test ; l'envoi a lieu hors de la transaction de test : les données sont
+ * validées puis supprimées à la main.
+ *
+ * @author Huby Franck
+ */
+@SpringBootTest(properties = {
+    "loamok.jobs.digest.delivery.max-attempts=2",
+    "spring.mail.properties.mail.smtp.auth=false",
+    "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+@TestMethodOrder(MethodOrderer.MethodName.class)
+@ActiveProfiles("test")
+public class JobDigestTest {
+
+    private static final SmtpStub SMTP = SmtpStub.start();
+
+    @Autowired
+    JobDigestScheduler digestScheduler;
+    @Autowired
+    JobDigestSender digestSender;
+    @Autowired
+    JobRepository jobRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    EntityManager em;
+
+    User myUser;
+    User otherUser;
+    Role myRole;
+
+    public JobDigestTest() {
+    }
+
+    @DynamicPropertySource
+    static void smtp(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::port);
+    }
+
+    @AfterAll
+    public static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        SMTP.messages.clear();
+        SMTP.rejecting = false;
+
+        myRole = roleRepository.save(Role.builder()
+                .role("ROLE_USER")
+                .isAdmin(Boolean.FALSE)
+                .build());
+        myUser = userRepository.save(buildAUser("bip.bip@acme.com"));
+        otherUser = userRepository.save(buildAUser("wile.e@acme.com"));
+
+        Instant now = Instant.now();
+        jobRepository.save(buildAJob(myUser, "Coyote", OfferStatusEnum.B_RELANCE_A, null));
+        jobRepository.save(buildAJob(myUser, "Acme tester", OfferStatusEnum.D_ENTRETIEN, now.plus(2, ChronoUnit.DAYS)));
+        jobRepository.save(buildAJob(myUser, "Desert guide", OfferStatusEnum.D_ENTRETIEN, now.minus(2, ChronoUnit.DAYS)));
+        jobRepository.save(buildAJob(myUser, "Anvil carrier", OfferStatusEnum.B_EN_ATTENTE, null));
+        jobRepository.save(buildAJob(otherUser, "Rocket skates", OfferStatusEnum.B_RELANCE_A, null));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.persist(UserJobSettings.builder().userId(myUser.getId()).digestOptIn(true).build());
+            em.persist(UserJobSettings.builder().userId(otherUser.getId()).digestOptIn(false).build());
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("DELETE FROM JobDigestMail").executeUpdate();
+            em.createQuery("DELETE FROM UserJobSettings").executeUpdate();
+            em.createQuery("DELETE FROM JobStatusCounter").executeUpdate();
+        });
+        jobRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+
+        myUser = null;
+        otherUser = null;
+        myRole = null;
+    }
+
+    private User buildAUser(String email) {
+        return User.builder()
+                .email(email)
+                .name("Runner")
+                .firstname("road")
+                .password("bip-bipMotherF!")
+                .enabled(true)
+                .gdproptin(true)
+                .role(myRole)
+                .build();
+    }
+
+    private Job buildAJob(User owner, String position, OfferStatusEnum offerStatus, Instant interviewAt) {
+        return Job.builder()
+                .contract(ContractEnum.CDI)
+                .compagny("ACME")
+                .city("New Mexico")
+                .offerStatus(offerStatus)
+                .position(position)
+                .workMode(WorkModeEnum.SUR_SITE)
+                .workTime(WorkTimeEnum.PLEIN_TEMPS)
+                .interviewAt(interviewAt)
+                .user(owner)
+                .build();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private JobDigestMail mailOf(User user, LocalDate day) {
+        return inTransaction(() -> em.find(JobDigestMail.class, new JobDigestMail.Key(user.getId(), day)));
+    }
+
+    /**
+     * Test of prepare and deliver methods, of classes JobDigestScheduler et
+     * JobDigestSender : un récapitulatif pour le seul utilisateur inscrit,
+     * limité aux relances et aux entretiens à venir, préparé une fois par jour.
+     */
+    @Test
+    public void test_01_prepareAndDeliver() {
+        System.out.println("prepare / deliver");
+        // précision de la base : l'échéance enregistrée ne doit pas dépasser l'instant du passage
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDate today = LocalDate.now();
+
+        assertEquals(1, digestScheduler.prepare(today, now));
+        assertEquals(0, digestScheduler.prepare(today, now));
+        assertNull(mailOf(otherUser, today));
+
+        assertEquals(1, digestSender.deliver(now));
+        assertEquals(0, digestSender.deliver(now));
+
+        assertEquals(1, SMTP.messages.size());
+        String message = SMTP.messages.get(0);
+        assertTrue(message.contains("To: bip.bip@acme.com"));
+        assertTrue(message.contains("Coyote"));
+        assertTrue(message.contains("Acme tester"));
+        assertFalse(message.contains("Desert guide"));
+        assertFalse(message.contains("Anvil carrier"));
+        assertFalse(message.contains("Rocket skates"));
+
+        JobDigestMail mail = mailOf(myUser, today);
+        assertEquals(JobDigestMail.State.SENT, mail.getState());
+        assertEquals(1, mail.getAttempts());
+    }
+
+    /**
+     * Test of deliver method, of class JobDigestSender : un refus du serveur
+     * est retenté à l'échéance suivante, puis abandonné au-delà du nombre
+     * maximal de tentatives.
+     */
+    @Test
+    public void test_02_deliver_retriesThenGivesUp() {
+        System.out.println("deliver");
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDate today = LocalDate.now();
+        digestScheduler.prepare(today, now);
+
+        SMTP.rejecting = true;
+        assertEquals(0, digestSender.deliver(now));
+        JobDigestMail mail = mailOf(myUser, today);
+        assertEquals(JobDigestMail.State.PENDING, mail.getState());
+        assertEquals(1, mail.getAttempts());
+        assertNotNull(mail.getLastError());
+        assertTrue(mail.getNextAttemptAt().isAfter(now));
+
+        // pas encore dû
+        assertEquals(0, digestSender.deliver(now));
+        assertEquals(1, mailOf(myUser, today).getAttempts());
+
+        Instant later = mail.getNextAttemptAt();
+        assertEquals(0, digestSender.deliver(later));
+        assertEquals(JobDigestMail.State.FAILED, mailOf(myUser, today).getState());
+        assertEquals(0, digestSender.deliver(later.plus(1, ChronoUnit.DAYS)));
+
+        SMTP.rejecting = false;
+        inTransaction(() -> em.createQuery("UPDATE JobDigestMail m SET m.state = :pending")
+                .setParameter("pending", JobDigestMail.State.PENDING)
+                .executeUpdate());
+        assertEquals(1, digestSender.deliver(later));
+        assertEquals(1, SMTP.messages.size());
+    }
+
+    /**
+     * Serveur SMTP réduit au dialogue d'un envoi ; refuse l'expéditeur
+     * (451, erreur temporaire) tant que rejecting est vrai.
+     */
+    static final class SmtpStub implements AutoCloseable {
+
+        final List<String> messages = new CopyOnWriteArrayList<>();
+        volatile boolean rejecting;
+        private final ServerSocket server;
+
+        private SmtpStub(ServerSocket server) {
+            this.server = server;
+        }
+
+        static SmtpStub start() {
+            try {
+                SmtpStub stub = new SmtpStub(new ServerSocket(0));
+                Thread acceptor = new Thread(stub::accept, "smtp-stub");
+                acceptor.setDaemon(true);
+                acceptor.start();
+
+                return stub;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try (Socket socket = server.accept()) {
+                    converse(socket);
+                } catch (IOException e) {
+                    // connexion interrompue ou serveur arrêté
+                }
+            }
+        }
+
+        private void converse(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            reply(out, "220 stub");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "MAIL" -> reply(out, rejecting ? "451 try again later" : "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 end with <CRLF>.<CRLF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(data.toString());
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 OK");
+                }
+            }
+        }
+
+        private static void reply(PrintWriter out, String response) {
+            out.print(response + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
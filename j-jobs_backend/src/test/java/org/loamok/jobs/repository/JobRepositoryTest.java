@@ -0,0 +1,1017 @@
+package org.loamok.jobs.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.TestMethodOrder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.loamok.jobs.config.JobFollowUpProperties;
+import org.loamok.jobs.dto.JobsDto;
+import org.loamok.jobs.dto.request.JobSettingsRequest;
+import org.loamok.jobs.dto.request.JobStatusTransitionRequest;
+import org.loamok.jobs.dto.response.JobDuplicatesResponse;
+import org.loamok.jobs.dto.response.JobImportReport;
+import org.loamok.jobs.dto.response.JobStatusTransitionResponse;
+import org.loamok.jobs.dto.response.JobSearchResponse;
+import org.loamok.jobs.entity.Job;
+import org.loamok.jobs.entity.JobHasStatus;
+import org.loamok.jobs.entity.JobStatusCounter;
+import org.loamok.jobs.entity.UserJobSettings;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.OfferStatusEnum;
+import org.loamok.jobs.entity.enums.WorkModeEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.loamok.jobs.event.JobChangedEvent;
+import org.loamok.jobs.manager.JobFollowUpScheduler;
+import org.loamok.jobs.manager.JobImporter;
+import org.loamok.jobs.manager.JobService;
+import org.loamok.jobs.manager.JobSettingsManager;
+import org.loamok.jobs.web.JobConditionalRequestFilter;
+import org.loamok.libs.o2springsecurity.entity.Role;
+import org.loamok.libs.o2springsecurity.entity.User;
+import org.loamok.libs.o2springsecurity.repository.RoleRepository;
+import org.loamok.libs.o2springsecurity.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@SpringBootTest(properties = "loamok.jobs.search.in-memory-index.enabled=true")
+@TestMethodOrder(MethodOrderer.MethodName.class)
+@ActiveProfiles("test")
+@RecordApplicationEvents
+@Transactional
+public class JobRepositoryTest {
+
+    @Autowired
+    JobRepository jobRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    RoleRepository roleRepository;
+    @Autowired
+    JobTextIndex jobTextIndex;
+    @Autowired
+    JobDuplicateIndex jobDuplicateIndex;
+    @Autowired
+    JobSearchCountCache jobSearchCountCache;
+    @Autowired
+    JobSearchResultCache jobSearchResultCache;
+    @Autowired
+    JobStatusCounterReconciler jobStatusCounterReconciler;
+    @Autowired
+    JobDataVersions jobDataVersions;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    JobService jobService;
+    @Autowired
+    JobImporter jobImporter;
+    @Autowired
+    JobFollowUpScheduler jobFollowUpScheduler;
+    @Autowired
+    JobFollowUpProperties jobFollowUpProperties;
+    @Autowired
+    JobNextActions jobNextActions;
+    @Autowired
+    JobConditionalRequestFilter jobConditionalRequestFilter;
+    @Autowired
+    JobSettingsManager jobSettingsManager;
+    @Autowired
+    ApplicationEvents applicationEvents;
+    @PersistenceContext
+    EntityManager em;
+
+    User myUser;
+    Role myRole;
+    List<Job> myJobs;
+
+    public JobRepositoryTest() {
+    }
+
+    private Job buildAJob(String position, Instant applicationDate) {
+        Job newJob = Job.builder()
+                .contract(ContractEnum.CDI)
+                .compagny("ACME")
+                .city("New Mexico")
+                .offerStatus(OfferStatusEnum.B_EN_ATTENTE)
+                .position(position)
+                .workMode(WorkModeEnum.SUR_SITE)
+                .workTime(WorkTimeEnum.PLEIN_TEMPS)
+                .applicationDate(applicationDate)
+                .user(myUser)
+                .build();
+
+        newJob.getJobHasStatuses().add(
+                JobHasStatus.builder()
+                        .jobStatus(newJob.getOfferStatus().toJobStatus())
+                        .offerStatus(newJob.getOfferStatus())
+                        .job(newJob)
+                        .build()
+        );
+
+        return newJob;
+    }
+
+    private long statusCount(OfferStatusEnum offerStatus) {
+        JobStatusCounter counter = em.find(JobStatusCounter.class, new JobStatusCounter.Key(myUser.getId(), offerStatus));
+
+        return counter == null ? 0L : counter.getJobCount();
+    }
+
+    private List<Integer> walkKeyset(Sort sort, int size) {
+        Specification<Job> spec = (root, query, cb) -> cb.equal(root.get("user"), myUser);
+        List<Integer> seen = new ArrayList<>();
+        List<String> after = null;
+
+        for (int pages = 0; pages <= myJobs.size(); pages++) {
+            List<JobsDto.JobListingProjection> page = jobRepository.findListingBySearchAfter(spec, sort, after, size);
+            if (page.isEmpty()) {
+                return seen;
+            }
+
+            page.forEach(j -> seen.add(j.id()));
+            after = JobKeyset.keysOf(page.get(page.size() - 1), sort);
+        }
+
+        return fail("Le parcours par curseur ne se termine pas : " + seen);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        myRole = Role.builder()
+                .role("ROLE_USER")
+                .isAdmin(Boolean.FALSE)
+                .build();
+        roleRepository.save(myRole);
+
+        myUser = User.builder()
+                .email("bip.bip@acme.com")
+                .name("Runner")
+                .firstname("road")
+                .password("bip-bipMotherF!")
+                .enabled(true)
+                .gdproptin(true)
+                .role(myRole)
+                .build();
+        userRepository.save(myUser);
+
+        Instant now = Instant.now();
+        myJobs = jobRepository.saveAll(List.of(
+                buildAJob("Coyote", now.minus(3, ChronoUnit.DAYS)),
+                buildAJob("Acme tester", null),
+                buildAJob("Bip bip", now.minus(1, ChronoUnit.DAYS)),
+                buildAJob("Bip bip", null),
+                buildAJob("Desert guide", now),
+                buildAJob("Bip bip", now.minus(2, ChronoUnit.DAYS)),
+                buildAJob("Anvil carrier", now.minus(5, ChronoUnit.DAYS))
+        ));
+
+        // les lignes relues doivent porter les dates telles que stockées (précision microseconde)
+        em.flush();
+        em.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        myJobs = null;
+        myUser = null;
+        myRole = null;
+
+        jobRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    /**
+     * Test of findListingBySearchAfter method, of class JobRepositoryImpl, sur un tri alphabétique
+     * avec des positions en double (départage par id_job).
+     */
+    @Test
+    public void test_01_findListingBySearchAfter_alphabetical() {
+        System.out.println("findListingBySearchAfter A-Z");
+        Sort sort = Sort.by(Sort.Direction.ASC, "position").and(Sort.by(Sort.Direction.ASC, "id"));
+
+        List<Integer> expResult = myJobs.stream()
+                .sorted((a, b) -> a.getPosition().equals(b.getPosition())
+                        ? a.getId().compareTo(b.getId())
+                        : a.getPosition().compareTo(b.getPosition()))
+                .map(Job::getId)
+                .toList();
+
+        assertEquals(expResult, walkKeyset(sort, 2));
+    }
+
+    /**
+     * Test of findListingBySearchAfter method, of class JobRepositoryImpl, sur un tri par dates
+     * descendant avec des dates de candidature nulles.
+     */
+    @Test
+    public void test_02_findListingBySearchAfter_datesWithNulls() {
+        System.out.println("findListingBySearchAfter DATE_DESC");
+        Sort sort = Sort.by(Sort.Direction.DESC, "updatedAt", "createdAt", "applicationDate")
+                .and(Sort.by(Sort.Direction.DESC, "id"));
+
+        List<Integer> result = walkKeyset(sort, 3);
+
+        assertEquals(myJobs.size(), result.size());
+        assertEquals(myJobs.size(), result.stream().distinct().count());
+    }
+
+    /**
+     * Test of findListingBySearchAfter method, of class JobRepositoryImpl, parcours arrière depuis
+     * la dernière ligne.
+     */
+    @Test
+    public void test_03_findListingBySearchAfter_backward() {
+        System.out.println("findListingBySearchAfter backward");
+        Sort sort = Sort.by(Sort.Direction.ASC, "position").and(Sort.by(Sort.Direction.ASC, "id"));
+        List<Integer> forward = walkKeyset(sort, 3);
+
+        Integer lastId = forward.get(forward.size() - 1);
+        Job last = myJobs.stream().filter(j -> j.getId().equals(lastId)).findFirst().orElseThrow();
+        Specification<Job> spec = (root, query, cb) -> cb.equal(root.get("user"), myUser);
+        List<JobsDto.JobListingProjection> previous = jobRepository.findListingBySearchAfter(spec, sort.reverse(), JobKeyset.keysOf(last, sort), 2);
+
+        assertEquals(forward.get(forward.size() - 2), previous.get(0).id());
+        assertEquals(forward.get(forward.size() - 3), previous.get(1).id());
+    }
+
+    private Set<Integer> idsOf(String... positions) {
+        List<String> wanted = List.of(positions);
+
+        return Set.copyOf(myJobs.stream()
+                .filter(j -> wanted.contains(j.getPosition()))
+                .map(Job::getId)
+                .toList());
+    }
+
+    /**
+     * Test of candidates method, of class JobTextIndex : préfixes, accents et
+     * termes multiples.
+     */
+    @Test
+    public void test_04_textIndex_candidates() {
+        System.out.println("JobTextIndex candidates");
+
+        assertEquals(idsOf("Bip bip"), jobTextIndex.candidates(myUser.getId(), "BIP").orElseThrow());
+        assertEquals(idsOf("Desert guide"), jobTextIndex.candidates(myUser.getId(), "Dés gui").orElseThrow());
+        assertEquals(myJobs.size(), jobTextIndex.candidates(myUser.getId(), "new mex").orElseThrow().size());
+        assertTrue(jobTextIndex.candidates(myUser.getId(), "roadrunner").orElseThrow().isEmpty());
+        assertTrue(jobTextIndex.candidates(myUser.getId(), " - ").isEmpty());
+    }
+
+    /**
+     * Test of onJobChanged method, of class JobTextIndex : mise à jour
+     * incrémentale d'une partition déjà chargée.
+     */
+    @Test
+    public void test_05_textIndex_incremental() {
+        System.out.println("JobTextIndex onJobChanged");
+        assertEquals(idsOf("Coyote"), jobTextIndex.candidates(myUser.getId(), "coyote").orElseThrow());
+
+        Job created = jobRepository.saveAndFlush(buildAJob("Coyote émérite", null));
+        jobTextIndex.onJobChanged(JobChangedEvent.of(created, JobChangedEvent.ChangeTypeEnum.CREATED));
+
+        Set<Integer> expResult = new HashSet<>(idsOf("Coyote"));
+        expResult.add(created.getId());
+        assertEquals(expResult, jobTextIndex.candidates(myUser.getId(), "coyote").orElseThrow());
+        assertEquals(Set.of(created.getId()), jobTextIndex.candidates(myUser.getId(), "emerite").orElseThrow());
+
+        jobTextIndex.onJobChanged(JobChangedEvent.of(created, JobChangedEvent.ChangeTypeEnum.DELETED));
+        assertEquals(idsOf("Coyote"), jobTextIndex.candidates(myUser.getId(), "coyote").orElseThrow());
+    }
+
+    /**
+     * Test of findListingSliceBySearch method, of class JobRepositoryImpl : page suivante
+     * détectée sans comptage.
+     */
+    @Test
+    public void test_06_findListingSliceBySearch() {
+        System.out.println("findListingSliceBySearch");
+        Specification<Job> spec = (root, query, cb) -> cb.equal(root.get("user"), myUser);
+        Sort sort = Sort.by(Sort.Direction.ASC, "position", "id");
+
+        Slice<JobsDto.JobListingProjection> first = jobRepository.findListingSliceBySearch(spec, PageRequest.of(0, 3, sort));
+        assertEquals(3, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+
+        Slice<JobsDto.JobListingProjection> last = jobRepository.findListingSliceBySearch(spec, PageRequest.of(2, 3, sort));
+        assertEquals(1, last.getNumberOfElements());
+        assertFalse(last.hasNext());
+    }
+
+    /**
+     * Test of get method, of class JobSearchCountCache : total mémorisé jusqu'à
+     * la prochaine écriture de l'utilisateur.
+     */
+    @Test
+    public void test_07_countCache_invalidatedByWrite() {
+        System.out.println("JobSearchCountCache get");
+        AtomicInteger counts = new AtomicInteger();
+        Supplier<Long> count = () -> {
+            counts.incrementAndGet();
+            return (long) myJobs.size();
+        };
+
+        assertEquals(myJobs.size(), jobSearchCountCache.get(myUser, false, "shape", count));
+        assertEquals(myJobs.size(), jobSearchCountCache.get(myUser, false, "shape", count));
+        assertEquals(1, counts.get());
+
+        jobSearchCountCache.onJobChanged(JobChangedEvent.of(myJobs.get(0), JobChangedEvent.ChangeTypeEnum.UPDATED));
+        jobSearchCountCache.get(myUser, false, "shape", count);
+        assertEquals(2, counts.get());
+    }
+
+    /**
+     * Test of findStatusesByJobIds method, of class JobRepositoryImpl : la liste
+     * et son historique ne chargent aucune entité dans le contexte de persistance.
+     */
+    @Test
+    public void test_08_listing_withoutManagedEntities() {
+        System.out.println("findListingSliceBySearch + findStatusesByJobIds");
+        Specification<Job> spec = (root, query, cb) -> cb.equal(root.get("user"), myUser);
+
+        List<JobsDto.JobListingProjection> rows = jobRepository
+                .findListingSliceBySearch(spec, PageRequest.of(0, myJobs.size(), Sort.by("id")))
+                .getContent();
+        List<JobsDto.JobStatusProjection> statuses = jobRepository
+                .findStatusesByJobIds(rows.stream().map(JobsDto.JobListingProjection::id).toList());
+
+        assertEquals(myJobs.size(), rows.size());
+        assertEquals(myJobs.size(), statuses.size());
+        assertEquals(rows.get(0).id(), statuses.get(0).jobId());
+        assertEquals(0, em.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    /**
+     * Test of findBySearch method, of class JobRepositoryImpl : le nombre de
+     * requêtes d'une page d'offres et de leurs historiques ne dépend pas de la
+     * taille de la page.
+     */
+    @Test
+    public void test_09_findBySearch_boundedStatements() {
+        System.out.println("findBySearch statements");
+        Specification<Job> spec = (root, query, cb) -> cb.equal(root.get("user"), myUser);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Job> jobs = jobRepository.findBySearch(spec, PageRequest.of(0, myJobs.size(), Sort.by("id"))).getContent();
+        jobs.forEach(j -> assertEquals(1, j.getJobHasStatuses().size()));
+
+        assertEquals(myJobs.size(), jobs.size());
+        // page + historique de la page (+ count éventuel)
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "Requêtes exécutées : " + statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test of countFacetsBySearch method, of class JobRepositoryImpl.
+     */
+    @Test
+    public void test_10_countFacetsBySearch() {
+        System.out.println("countFacetsBySearch");
+        Specification<Job> spec = (root, query, cb) -> cb.and(
+                cb.equal(root.get("user"), myUser),
+                cb.equal(root.get("position"), "Bip bip")
+        );
+
+        JobsDto.SearchFacets result = jobRepository.countFacetsBySearch(spec);
+
+        assertEquals(ContractEnum.values().length, result.contract().size());
+        assertEquals(3L, result.contract().get(ContractEnum.CDI));
+        assertEquals(0L, result.contract().get(ContractEnum.CDD));
+        assertEquals(3L, result.workMode().get(WorkModeEnum.SUR_SITE));
+        assertEquals(3L, result.workTime().get(WorkTimeEnum.PLEIN_TEMPS));
+        assertEquals(3L, result.offerStatus().get(OfferStatusEnum.B_EN_ATTENTE));
+    }
+
+    /**
+     * Test of get method, of class JobSearchResultCache : réponse mémorisée
+     * jusqu'à la prochaine écriture de l'utilisateur, compteurs publiés.
+     */
+    @Test
+    public void test_11_resultCache_invalidatedByWrite() {
+        System.out.println("JobSearchResultCache get");
+        AtomicInteger searches = new AtomicInteger();
+        Supplier<JobSearchResponse> search = () -> {
+            searches.incrementAndGet();
+            return new JobSearchResponse(null, null, null);
+        };
+        double hitsBefore = meterRegistry.get("cache.gets")
+                .tag("cache", JobSearchResultCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count();
+
+        JobSearchResponse first = jobSearchResultCache.get(myUser, false, "OFFSET|A-Z|0|10|shape", search);
+        assertSame(first, jobSearchResultCache.get(myUser, false, "OFFSET|A-Z|0|10|shape", search));
+        jobSearchResultCache.get(myUser, false, "OFFSET|A-Z|1|10|shape", search);
+        assertEquals(2, searches.get());
+        assertEquals(hitsBefore + 1, meterRegistry.get("cache.gets")
+                .tag("cache", JobSearchResultCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count());
+
+        jobSearchResultCache.onJobChanged(JobChangedEvent.of(myJobs.get(0), JobChangedEvent.ChangeTypeEnum.CREATED));
+        assertNotSame(first, jobSearchResultCache.get(myUser, false, "OFFSET|A-Z|0|10|shape", search));
+        assertEquals(3, searches.get());
+    }
+
+    /**
+     * Test of JobStatusCounterListener : les compteurs suivent créations,
+     * changements de statut et suppressions au moment de la validation.
+     */
+    @Test
+    public void test_12_statusCounters_appliedBeforeCommit() {
+        System.out.println("JobStatusCounterListener");
+        // la validation de la transaction de test n'a jamais lieu : on en joue l'étape "avant validation"
+        ActionQueue actions = em.unwrap(SessionImplementor.class).getActionQueue();
+        actions.beforeTransactionCompletion();
+        em.clear();
+        assertEquals(myJobs.size(), statusCount(OfferStatusEnum.B_EN_ATTENTE));
+
+        Job job = em.find(Job.class, myJobs.get(0).getId());
+        job.setOfferStatus(OfferStatusEnum.A_EN_COURS);
+        em.flush();
+        actions.beforeTransactionCompletion();
+        em.clear();
+        assertEquals(myJobs.size() - 1, statusCount(OfferStatusEnum.B_EN_ATTENTE));
+        assertEquals(1L, statusCount(OfferStatusEnum.A_EN_COURS));
+
+        em.remove(em.find(Job.class, myJobs.get(0).getId()));
+        em.flush();
+        actions.beforeTransactionCompletion();
+        em.clear();
+        assertEquals(0L, statusCount(OfferStatusEnum.A_EN_COURS));
+    }
+
+    /**
+     * Test of reconcile method, of class JobStatusCounterReconciler.
+     */
+    @Test
+    public void test_13_statusCounters_reconcile() {
+        System.out.println("JobStatusCounterReconciler reconcile");
+        assertEquals(0L, statusCount(OfferStatusEnum.B_EN_ATTENTE));
+
+        assertTrue(jobStatusCounterReconciler.reconcile() >= 1);
+        em.flush();
+        em.clear();
+        assertEquals(myJobs.size(), statusCount(OfferStatusEnum.B_EN_ATTENTE));
+
+        em.find(JobStatusCounter.class, new JobStatusCounter.Key(myUser.getId(), OfferStatusEnum.B_EN_ATTENTE))
+                .setJobCount(42);
+        em.flush();
+        em.clear();
+        assertEquals(1, jobStatusCounterReconciler.reconcile());
+        em.flush();
+        em.clear();
+        assertEquals(myJobs.size(), statusCount(OfferStatusEnum.B_EN_ATTENTE));
+    }
+
+    /**
+     * Test of JobDataVersionListener : chaque écriture sur une offre avance la
+     * version des données de son propriétaire et la version admin.
+     */
+    @Test
+    public void test_14_dataVersions_bumpedByWrites() {
+        System.out.println("JobDataVersions bump");
+        // la validation de la transaction de test n'a jamais lieu : on en joue l'étape "avant validation"
+        ActionQueue actions = em.unwrap(SessionImplementor.class).getActionQueue();
+        actions.beforeTransactionCompletion();
+        long userVersion = jobDataVersions.current(myUser.getId());
+        long adminVersion = jobDataVersions.currentForAdmin();
+        assertTrue(userVersion > 0);
+
+        Job job = em.find(Job.class, myJobs.get(0).getId());
+        job.setPosition("Coyote en chef");
+        em.flush();
+        // avancée seulement à la validation, une fois par transaction
+        assertEquals(userVersion, jobDataVersions.current(myUser.getId()));
+
+        actions.beforeTransactionCompletion();
+        assertEquals(userVersion + 1, jobDataVersions.current(myUser.getId()));
+        assertEquals(adminVersion + 1, jobDataVersions.currentForAdmin());
+    }
+
+    /**
+     * Test of updateJob method, of class JobManager : le changement de statut
+     * est lu dans l'état chargé de l'offre, sans relecture en base.
+     */
+    @Test
+    public void test_15_updateJob_statusFromLoadedState() {
+        System.out.println("updateJob loaded state");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        try {
+            // lecture faite par Spring Data REST avant d'appliquer le PATCH
+            Job job = jobRepository.findById(myJobs.get(0).getId()).orElseThrow();
+            job.setOfferStatus(OfferStatusEnum.A_EN_COURS);
+
+            statistics.clear();
+            jobService.updateJob(job);
+            em.flush();
+
+            assertEquals(2, job.getJobHasStatuses().size());
+            assertEquals(OfferStatusEnum.A_EN_COURS, job.getJobHasStatuses().get(1).getOfferStatus());
+            // utilisateur courant + délai de relance (prochaine action) + update de l'offre + insert de l'historique
+            assertEquals(4, statistics.getPrepareStatementCount(),
+                    "Requêtes exécutées : " + statistics.getPrepareStatementCount());
+
+            job.setPosition("Coyote en chef");
+            jobService.updateJob(job);
+            em.flush();
+            assertEquals(2, job.getJobHasStatuses().size());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Test of importCsvForCurrentUser method, of class JobImporter : lignes
+     * valides enregistrées, lignes incomplètes ou invalides rapportées.
+     */
+    @Test
+    public void test_16_importCsv_reportsRowErrors() throws Exception {
+        System.out.println("importCsvForCurrentUser");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+        String csv = "\uFEFFPosition;Compagny;City;contract;work_time;workMode;Offer status;description\r\n"
+                + "Dresseur;ACME;Phoenix;CDI;PLEIN_TEMPS;SUR_SITE;B_EN_ATTENTE;\"Piège; ressort\nrouleau\"\r\n"
+                + "Fusée;ACME;Tucson;;PLEIN_TEMPS;SUR_SITE;B_EN_ATTENTE;\r\n"
+                + "Enclume;ACME;Tucson;CDX;PLEIN_TEMPS;SUR_SITE;B_EN_ATTENTE;\r\n"
+                + "Aimant;\"ACME \"\"Deluxe\"\"\";Mesa;CDD;TEMPS_PARTIEL;HYBRIDE;A_EN_COURS;\r\n";
+
+        try {
+            JobImportReport report = jobImporter.importCsvForCurrentUser(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+            // chaque lot est écrit puis retiré du contexte de persistance
+            assertEquals(0, Arrays.stream(em.unwrap(SessionImplementor.class).getPersistenceContextInternal()
+                    .reentrantSafeEntityEntries()).filter(e -> e.getKey() instanceof Job).count());
+
+            assertEquals(4, report.rows());
+            assertEquals(2, report.imported());
+            assertEquals(2, report.rejected());
+            assertFalse(report.truncated());
+            assertEquals(2, report.errors().get(0).row());
+            assertEquals("contract", report.errors().get(0).field());
+            assertEquals(3, report.errors().get(1).row());
+
+            List<Job> imported = em.createQuery("SELECT j FROM Job j WHERE j.city IN ('Phoenix', 'Mesa') ORDER BY j.city DESC", Job.class)
+                    .getResultList();
+            assertEquals(2, imported.size());
+            assertEquals("Piège; ressort\nrouleau", imported.get(0).getDescription());
+            assertEquals("ACME \"Deluxe\"", imported.get(1).getCompagny());
+            assertEquals(myUser.getId(), imported.get(1).getUser().getId());
+            assertEquals(1, imported.get(1).getJobHasStatuses().size());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Test of transitionOfferStatusForCurrentUser method, of class JobManager :
+     * une lecture, un UPDATE et les historiques, offres d'autrui exclues.
+     */
+    @Test
+    public void test_17_transitionOfferStatus_bulk() {
+        System.out.println("transitionOfferStatusForCurrentUser");
+        User otherUser = userRepository.save(User.builder()
+                .email("wile.e@acme.com")
+                .name("Coyote")
+                .firstname("wile")
+                .password("bip-bipMotherF!")
+                .enabled(true)
+                .gdproptin(true)
+                .role(myRole)
+                .build());
+        Job otherJob = buildAJob("Coyote", null);
+        otherJob.setUser(otherUser);
+        jobRepository.save(otherJob);
+        Job alreadyDone = em.find(Job.class, myJobs.get(2).getId());
+        alreadyDone.setOfferStatus(OfferStatusEnum.B_RELANCE_A);
+        em.flush();
+        em.clear();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        try {
+            JobStatusTransitionRequest request = new JobStatusTransitionRequest();
+            request.setIds(Set.of(myJobs.get(0).getId(), myJobs.get(1).getId(), myJobs.get(2).getId(), otherJob.getId()));
+            request.setOfferStatus(OfferStatusEnum.B_RELANCE_A);
+
+            statistics.clear();
+            applicationEvents.clear();
+            JobStatusTransitionResponse response = jobService.transitionOfferStatusForCurrentUser(request);
+            em.flush();
+            long statements = statistics.getPrepareStatementCount();
+            em.clear();
+
+            assertEquals(2, response.updated());
+            assertEquals("B_EN_ATTENTE", response.jobs().get(0).from());
+            // utilisateur courant (x2) + lecture verrouillée + UPDATE + insertion groupée des historiques
+            assertTrue(statements <= 6, "Requêtes exécutées : " + statements);
+            assertEquals(List.of(new JobChangedEvent(null, myUser.getId(), JobChangedEvent.ChangeTypeEnum.STATUS_CHANGED)),
+                    applicationEvents.stream(JobChangedEvent.class).toList());
+
+            Job moved = em.find(Job.class, myJobs.get(0).getId());
+            assertEquals(OfferStatusEnum.B_RELANCE_A, moved.getOfferStatus());
+            assertEquals(2, moved.getJobHasStatuses().size());
+            assertEquals(OfferStatusEnum.B_EN_ATTENTE, em.find(Job.class, otherJob.getId()).getOfferStatus());
+            assertEquals(1, em.find(Job.class, myJobs.get(2).getId()).getJobHasStatuses().size());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Test of registerJob and findDuplicatesForCurrentUser methods, of class JobManager :
+     * doublons probables malgré casse, accents et ponctuation, tenus à jour par les évènements.
+     */
+    @Test
+    public void test_18_duplicates_detectedAtRegistration() {
+        System.out.println("registerJob duplicates");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+
+        try {
+            Job again = buildAJob("BIP-BIP", null);
+            again.setCompagny("Acmé");
+            again.setCity("new  mexico");
+            again.getJobHasStatuses().clear();
+
+            List<Integer> duplicates = jobService.registerJob(again);
+            assertEquals(idsOf("Bip bip"), new HashSet<>(duplicates));
+            assertEquals(duplicates, again.getProbableDuplicates());
+
+            Job other = buildAJob("Desert  guides", null);
+            other.getJobHasStatuses().clear();
+            assertEquals(List.copyOf(idsOf("Desert guide")), jobService.registerJob(other));
+
+            Job unrelated = buildAJob("Roadrunner hunter", null);
+            unrelated.getJobHasStatuses().clear();
+            assertTrue(jobService.registerJob(unrelated).isEmpty());
+
+            JobDuplicatesResponse response = jobService.findDuplicatesForCurrentUser();
+            assertEquals(1, response.clusters().size());
+            assertEquals(idsOf("Bip bip"), response.clusters().get(0).jobs().stream()
+                    .map(JobDuplicatesResponse.Member::id)
+                    .collect(Collectors.toSet()));
+
+            Job saved = jobRepository.saveAndFlush(again);
+            jobDuplicateIndex.onJobChanged(JobChangedEvent.of(saved, JobChangedEvent.ChangeTypeEnum.CREATED));
+            assertEquals(4, jobService.findDuplicatesForCurrentUser().clusters().get(0).jobs().size());
+
+            jobDuplicateIndex.onJobChanged(JobChangedEvent.of(saved, JobChangedEvent.ChangeTypeEnum.DELETED));
+            assertEquals(3, jobService.findDuplicatesForCurrentUser().clusters().get(0).jobs().size());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Test of version property, of class Job : incrémentée par chaque écriture
+     * (changement de masse compris), une copie périmée est refusée.
+     */
+    @Test
+    public void test_19_version_rejectsStaleWrite() {
+        System.out.println("Job version");
+        Integer id = myJobs.get(0).getId();
+
+        Job stale = em.find(Job.class, id);
+        long initial = stale.getVersion();
+        em.detach(stale);
+
+        Job fresh = em.find(Job.class, id);
+        fresh.setOfferStatus(OfferStatusEnum.B_RELANCE_A);
+        em.flush();
+        assertEquals(initial + 1, fresh.getVersion());
+        em.clear();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+        try {
+            JobStatusTransitionRequest request = new JobStatusTransitionRequest();
+            request.setIds(Set.of(id));
+            request.setOfferStatus(OfferStatusEnum.D_ENTRETIEN);
+            jobService.transitionOfferStatusForCurrentUser(request);
+            em.flush();
+            em.clear();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertEquals(initial + 2, em.find(Job.class, id).getVersion());
+        em.clear();
+
+        stale.setDescription("Écrasement d'un autre onglet");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> jobRepository.saveAndFlush(stale));
+    }
+
+    /**
+     * Test of run method, of class JobFollowUpScheduler : délai de
+     * l'utilisateur, parcours par tranches, historique et compteurs.
+     */
+    @Test
+    public void test_20_followUp_flagsOverdueApplications() {
+        System.out.println("JobFollowUpScheduler run");
+        em.persist(UserJobSettings.builder().userId(myUser.getId()).followUpDays(10).build());
+        Job interview = em.find(Job.class, myJobs.get(0).getId());
+        interview.setOfferStatus(OfferStatusEnum.D_ENTRETIEN);
+        em.flush();
+        em.clear();
+
+        int chunkSize = jobFollowUpProperties.getChunkSize();
+        jobFollowUpProperties.setChunkSize(2);
+        try {
+            Instant now = Instant.now();
+            assertEquals(0, jobFollowUpScheduler.run(now.plus(8, ChronoUnit.DAYS)));
+            applicationEvents.clear();
+            assertEquals(myJobs.size() - 1, jobFollowUpScheduler.run(now.plus(11, ChronoUnit.DAYS)));
+            // un évènement par utilisateur et par tranche, et non par offre
+            List<JobChangedEvent> events = applicationEvents.stream(JobChangedEvent.class).toList();
+            assertFalse(events.isEmpty());
+            assertTrue(events.size() <= (myJobs.size() + 1) / 2);
+            assertTrue(events.stream().allMatch(
+                    e -> e.equals(new JobChangedEvent(null, myUser.getId(), JobChangedEvent.ChangeTypeEnum.STATUS_CHANGED))));
+            em.flush();
+            em.unwrap(SessionImplementor.class).getActionQueue().beforeTransactionCompletion();
+            em.clear();
+        } finally {
+            jobFollowUpProperties.setChunkSize(chunkSize);
+        }
+
+        List<Job> jobs = em.createQuery("SELECT j FROM Job j WHERE j.user.id = :userId ORDER BY j.id", Job.class)
+                .setParameter("userId", myUser.getId())
+                .getResultList();
+        assertEquals(OfferStatusEnum.D_ENTRETIEN, jobs.get(0).getOfferStatus());
+        assertTrue(jobs.subList(1, jobs.size()).stream()
+                .allMatch(j -> j.getOfferStatus() == OfferStatusEnum.B_RELANCE_A && j.getJobHasStatuses().size() == 2));
+        assertEquals(myJobs.size() - 1, statusCount(OfferStatusEnum.B_RELANCE_A));
+        assertEquals(0, statusCount(OfferStatusEnum.B_EN_ATTENTE));
+    }
+
+    /**
+     * Test of findActionsForUser method, of class JobRepositoryImpl : échéances
+     * posées à l'enregistrement, tri, borne et limite, puis recalcul de masse
+     * au changement du délai de relance (JobNextActions.refreshUser).
+     */
+    @Test
+    public void test_21_findActionsForUser_byNextAction() {
+        System.out.println("findActionsForUser");
+        em.persist(UserJobSettings.builder().userId(myUser.getId()).followUpDays(5).build());
+        em.flush();
+
+        Instant now = Instant.now();
+        User owner = em.find(User.class, myUser.getId());
+        Job waiting = buildAJob("Anvil tester", null);
+        Job interview = buildAJob("Rocket pilot", null);
+        interview.setOfferStatus(OfferStatusEnum.D_ENTRETIEN);
+        interview.setInterviewAt(now.plus(2, ChronoUnit.DAYS));
+        Job followUp = buildAJob("Trap designer", null);
+        followUp.setOfferStatus(OfferStatusEnum.B_RELANCE_A);
+        Job refused = buildAJob("Road painter", null);
+        refused.setOfferStatus(OfferStatusEnum.C_REFUSE);
+        for (Job job : List.of(waiting, interview, followUp, refused)) {
+            job.getJobHasStatuses().clear();
+            jobService.registerJobFor(job, owner);
+            em.persist(job);
+        }
+        em.flush();
+        em.clear();
+
+        // offres du jeu commun enregistrées sans le service : sans échéance
+        assertEquals(List.of(followUp.getId(), interview.getId(), waiting.getId()),
+                jobRepository.findActionsForUser(myUser.getId(), null, 10).stream().map(JobsDto.JobActionProjection::id).toList());
+        assertEquals(List.of(followUp.getId(), interview.getId()),
+                jobRepository.findActionsForUser(myUser.getId(), now.plus(3, ChronoUnit.DAYS), 10).stream().map(JobsDto.JobActionProjection::id).toList());
+        assertEquals(1, jobRepository.findActionsForUser(myUser.getId(), null, 1).size());
+
+        em.find(UserJobSettings.class, myUser.getId()).setFollowUpDays(1);
+        em.flush();
+        ActionQueue pending = em.unwrap(SessionImplementor.class).getActionQueue();
+        pending.beforeTransactionCompletion();
+        long dataVersion = jobDataVersions.current(myUser.getId());
+        Long jobVersion = em.find(Job.class, waiting.getId()).getVersion();
+        em.clear();
+        applicationEvents.clear();
+
+        assertEquals(myJobs.size() + 1, jobNextActions.refreshUser(myUser.getId()));
+        em.clear();
+
+        // mise à jour de masse : versions et évènement de lot avancés comme pour une écriture d'offre
+        Job reloaded = em.find(Job.class, waiting.getId());
+        assertEquals(reloaded.getStatusChangedAt().plus(1, ChronoUnit.DAYS), reloaded.getNextActionAt());
+        assertEquals(jobVersion + 1, reloaded.getVersion());
+        pending.beforeTransactionCompletion();
+        assertEquals(dataVersion + 1, jobDataVersions.current(myUser.getId()));
+        assertEquals(List.of(new JobChangedEvent(null, myUser.getId(), JobChangedEvent.ChangeTypeEnum.IMPORTED)),
+                applicationEvents.stream(JobChangedEvent.class).toList());
+        List<Integer> actions = jobRepository.findActionsForUser(myUser.getId(), null, 20).stream()
+                .map(JobsDto.JobActionProjection::id)
+                .toList();
+        assertEquals(myJobs.size() + 3, actions.size());
+        assertEquals(followUp.getId(), actions.get(0));
+        assertEquals(interview.getId(), actions.get(actions.size() - 1));
+    }
+
+    /**
+     * Test of JobConditionalRequestFilter : ETag des lectures d'offres, 304 sur
+     * If-None-Match tant que la version des données n'a pas avancé, et
+     * ressources hors du périmètre laissées sans ETag.
+     */
+    @Test
+    public void test_22_conditionalRequests_notModified() throws Exception {
+        System.out.println("JobConditionalRequestFilter If-None-Match");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+        ActionQueue actions = em.unwrap(SessionImplementor.class).getActionQueue();
+        actions.beforeTransactionCompletion();
+
+        try {
+            MockHttpServletResponse first = filter("GET", "/jobs/statuscount", null);
+            String etag = first.getHeader(HttpHeaders.ETAG);
+            assertNotNull(etag);
+            assertEquals(HttpServletResponse.SC_OK, first.getStatus());
+
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse notModified = filter("GET", "/jobs/statuscount", etag, chain);
+            assertEquals(HttpServletResponse.SC_NOT_MODIFIED, notModified.getStatus());
+            assertNull(chain.getRequest());
+
+            Job job = em.find(Job.class, myJobs.get(0).getId());
+            job.setPosition("Coyote en chef");
+            em.flush();
+            actions.beforeTransactionCompletion();
+
+            MockHttpServletResponse modified = filter("GET", "/jobs/statuscount", etag);
+            assertEquals(HttpServletResponse.SC_OK, modified.getStatus());
+            assertNotEquals(etag, modified.getHeader(HttpHeaders.ETAG));
+
+            assertNull(filter("GET", "/jobs/settings", null).getHeader(HttpHeaders.ETAG));
+            assertNull(filter("GET", "/jobs/actions", null).getHeader(HttpHeaders.ETAG));
+            assertNull(filter("GET", "/jobs/" + job.getId(), null).getHeader(HttpHeaders.ETAG));
+
+            // corps de la recherche relu par le contrôleur, y compris en lecture non bloquante
+            MockHttpServletRequest search = new MockHttpServletRequest("POST", "/jobs/search");
+            search.setContent("{\"position\":\"Bip\"}".getBytes(StandardCharsets.UTF_8));
+            MockFilterChain searchChain = new MockFilterChain();
+            MockHttpServletResponse searched = new MockHttpServletResponse();
+            jobConditionalRequestFilter.doFilter(search, searched, searchChain);
+            assertNotNull(searched.getHeader(HttpHeaders.ETAG));
+
+            ServletInputStream body = searchChain.getRequest().getInputStream();
+            List<String> events = new ArrayList<>();
+            body.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("fin");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("erreur");
+                }
+            });
+            assertEquals(List.of("{\"position\":\"Bip\"}", "fin"), events);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Test of updateJob method, of class JobManager : changement de statut
+     * détecté pour une offre détachée (relue sous le filtre de l'utilisateur)
+     * et pour un mandataire, sans état chargé (relecture en base).
+     */
+    @Test
+    public void test_23_updateJob_statusWithoutLoadedState() {
+        System.out.println("updateJob detached");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+
+        try {
+            Job detached = em.find(Job.class, myJobs.get(0).getId());
+            detached.getJobHasStatuses().size();
+            em.detach(detached);
+            detached.setOfferStatus(OfferStatusEnum.A_EN_COURS);
+
+            jobService.updateJob(detached);
+            assertEquals(2, detached.getJobHasStatuses().size());
+            assertEquals(OfferStatusEnum.A_EN_COURS, detached.getJobHasStatuses().get(1).getOfferStatus());
+
+            em.clear();
+            Job reference = em.getReference(Job.class, myJobs.get(1).getId());
+            reference.setOfferStatus(OfferStatusEnum.C_REFUSE);
+            assertNull(em.unwrap(SessionImplementor.class).getPersistenceContextInternal().getEntry(reference));
+
+            jobService.updateJob(reference);
+            assertEquals(2, reference.getJobHasStatuses().size());
+            assertEquals(OfferStatusEnum.C_REFUSE, reference.getJobHasStatuses().get(1).getOfferStatus());
+
+            em.flush();
+            em.clear();
+            assertEquals(2, em.find(Job.class, myJobs.get(1).getId()).getJobHasStatuses().size());
+
+            // sans changement de statut : pas d'historique de plus
+            Job unchanged = em.getReference(Job.class, myJobs.get(1).getId());
+            unchanged.setPosition("Coyote en chef");
+            jobService.updateJob(unchanged);
+            assertEquals(2, unchanged.getJobHasStatuses().size());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * Test of updateForCurrentUser method, of class JobSettingsManager : la
+     * version des données avance à la validation, même sans offre modifiée.
+     */
+    @Test
+    public void test_24_updateSettings_bumpsDataVersion() {
+        System.out.println("updateForCurrentUser data version");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                myUser.getEmail(), null, AuthorityUtils.createAuthorityList("SCOPE_user")));
+        ActionQueue actions = em.unwrap(SessionImplementor.class).getActionQueue();
+        actions.beforeTransactionCompletion();
+        long version = jobDataVersions.current(myUser.getId());
+
+        try {
+            JobSettingsRequest request = new JobSettingsRequest();
+            request.setDigestOptIn(true);
+            jobSettingsManager.updateForCurrentUser(request);
+            em.flush();
+            actions.beforeTransactionCompletion();
+
+            assertEquals(version + 1, jobDataVersions.current(myUser.getId()));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private MockHttpServletResponse filter(String method, String path, String ifNoneMatch) throws Exception {
+        return filter(method, path, ifNoneMatch, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse filter(String method, String path, String ifNoneMatch, MockFilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jobConditionalRequestFilter.doFilter(request, response, chain);
+
+        return response;
+    }
+}
@@ -0,0 +1,125 @@
+package org.loamok.jobs.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.loamok.jobs.config.LabelsProperties;
+import org.loamok.jobs.entity.enums.ContractEnum;
+import org.loamok.jobs.entity.enums.WorkTimeEnum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ *
+ * @author Huby Franck
+ */
+@Slf4j
+@SpringBootTest
+@TestMethodOrder(MethodOrderer.MethodName.class)
+@ActiveProfiles("test")
+public class LabelBundlesTest {
+
+    @Autowired
+    LabelBundles labelBundles;
+    @Autowired
+    LabelsController labelsController;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    public LabelBundlesTest() {
+    }
+
+    private Map<String, Map<String, String>> labelsOf(byte[] body) throws Exception {
+        return objectMapper.readValue(body, new TypeReference<Map<String, Map<String, String>>>() {
+        });
+    }
+
+    private ResponseEntity<byte[]> getLabels(Locale lang, Locale locale, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/labels");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        return labelsController.getAllEnumLabels(lang, locale,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+    }
+
+    /**
+     * Test of forLocale method, of class LabelBundles : langue servie, langue
+     * non servie et absence de langue.
+     */
+    @Test
+    public void test_01_forLocale_selectsServedLanguage() throws Exception {
+        System.out.println("forLocale");
+        LabelBundles.Bundle french = labelBundles.forLocale(Locale.FRENCH);
+        LabelBundles.Bundle english = labelBundles.forLocale(Locale.UK);
+
+        assertEquals(Locale.ENGLISH, english.locale());
+        assertEquals("Permanent contract", labelsOf(english.body()).get("ContractEnum").get("CDI"));
+        assertEquals(ContractEnum.CDI.getLabel(), labelsOf(french.body()).get("ContractEnum").get("CDI"));
+        assertNotEquals(french.etag(), english.etag());
+
+        // langue non servie ou absente : langue par défaut, la première configurée
+        assertSame(french, labelBundles.forLocale(Locale.GERMAN));
+        assertSame(french, labelBundles.forLocale(null));
+    }
+
+    /**
+     * Test of LabelBundles : une langue sans traduction reprend le libellé
+     * français porté par l'énumération.
+     */
+    @Test
+    public void test_02_missingTranslation_fallsBackToEnumLabel() throws Exception {
+        System.out.println("LabelBundles fallback");
+        LabelsProperties properties = new LabelsProperties();
+        properties.setLocales(List.of(Locale.GERMAN));
+        LabelBundles german = new LabelBundles(properties, objectMapper);
+
+        Map<String, Map<String, String>> labels = labelsOf(german.forLocale(Locale.GERMAN).body());
+        for (WorkTimeEnum workTime : WorkTimeEnum.values()) {
+            assertEquals(workTime.getLabel(), labels.get("WorkTimeEnum").get(workTime.getName()));
+        }
+        assertArrayEquals(labelBundles.forLocale(Locale.FRENCH).body(), german.forLocale(Locale.GERMAN).body());
+    }
+
+    /**
+     * Test of getAllEnumLabels method, of class LabelsController : revalidation
+     * par ETag, Vary: Accept-Language sur le 200 comme sur le 304.
+     */
+    @Test
+    public void test_03_getAllEnumLabels_revalidatesByEtag() {
+        System.out.println("getAllEnumLabels");
+        ResponseEntity<byte[]> first = getLabels(null, Locale.ENGLISH, null);
+        String etag = first.getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(labelBundles.forLocale(Locale.ENGLISH).etag(), etag);
+        assertEquals(List.of(HttpHeaders.ACCEPT_LANGUAGE), first.getHeaders().getVary());
+        assertEquals("en", first.getHeaders().getFirst(HttpHeaders.CONTENT_LANGUAGE));
+
+        ResponseEntity<byte[]> notModified = getLabels(null, Locale.ENGLISH, etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(etag, notModified.getHeaders().getETag());
+        assertEquals(List.of(HttpHeaders.ACCEPT_LANGUAGE), notModified.getHeaders().getVary());
+
+        // autre langue : autre ETag, le contenu est renvoyé
+        ResponseEntity<byte[]> french = getLabels(Locale.FRENCH, Locale.ENGLISH, etag);
+        assertEquals(HttpStatus.OK, french.getStatusCode());
+        assertNotEquals(etag, french.getHeaders().getETag());
+    }
+}
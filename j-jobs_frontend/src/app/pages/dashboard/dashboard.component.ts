@@ -15,6 +15,7 @@ import { Router } from '@angular/router';
 import { PageTitleService } from '@app/services/page-title.service';
 import { MenuDataNoTitle, MenuService } from '@app/services/menu.service';
 import { StatusStatsService, Stats } from '@app/services/status-stats.service';
+import { JobEventsService } from '@app/services/job-events.service';
 import {
     JobsService, Job, GetJobsResponse,
     PageInfo, SearchJobsRequest,
@@ -70,7 +71,8 @@ export class DashboardComponent implements OnInit, OnDestroy {
         private cdRef: ChangeDetectorRef,
         private router: Router,
         private sanitizationService: SanitizationService,
-        private modalService: ModalService
+        private modalService: ModalService,
+        private jobEventsService: JobEventsService,
     ) { }
 
     getIcon(name: string): SafeHtml {
@@ -104,6 +106,18 @@ export class DashboardComponent implements OnInit, OnDestroy {
             }),
         );
 
+        // compteurs et offres modifiés depuis un autre onglet ou un autre appareil
+        this.subscription.add(
+            this.jobEventsService.statusCount$().subscribe((stats) => this.applyStats(stats)),
+        );
+        this.subscription.add(
+            this.jobEventsService.jobsChanged$().subscribe(() => {
+                if (!this.isLoading) {
+                    this.fetchJobs();
+                }
+            }),
+        );
+
         this.subscription.add(
             forkJoin([
                 this.labelsService.fetchLabels(),
@@ -116,11 +130,7 @@ export class DashboardComponent implements OnInit, OnDestroy {
                     this.contractEnum = this.labelsService.getContractEnum();
                     this.workModeEnum = this.labelsService.getWorkModeEnum();
 
-                    this.stats = statsResponse;
-                    this.enCoursCount = this.stats.EN_COURS;
-                    this.enAttenteCount = this.stats.EN_ATTENTE;
-                    this.entretienCount = this.stats.ENTRETIEN;
-                    this.refuseCount = this.stats.REFUSE;
+                    this.applyStats(statsResponse);
 
                     this.fetchJobs();
                 },
@@ -132,6 +142,15 @@ export class DashboardComponent implements OnInit, OnDestroy {
         );
     }
 
+    private applyStats(stats: Stats): void {
+        this.stats = stats;
+        this.enCoursCount = stats.EN_COURS;
+        this.enAttenteCount = stats.EN_ATTENTE;
+        this.entretienCount = stats.ENTRETIEN;
+        this.refuseCount = stats.REFUSE;
+        this.cdRef.markForCheck();
+    }
+
     ngOnDestroy(): void {
         this.subscription?.unsubscribe();
         this.pageTitleService.setTitle('');
@@ -56,8 +56,8 @@ export class JobDetailsComponent implements OnInit, OnDestroy {
         return this.sanitizationService.decodeHtml(value);
     }
 
-    decodeAndPreserveLineBreaks(value: string): string {
-        const decoded = this.sanitizationService.decodeHtml(value);
+    decodeAndPreserveLineBreaks(value?: string): string {
+        const decoded = this.sanitizationService.decodeHtml(value ?? '');
         return decoded.replace(/\n/g, '<br>');
     }
 
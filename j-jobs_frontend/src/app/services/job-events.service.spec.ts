@@ -0,0 +1,16 @@
+import { TestBed } from '@angular/core/testing';
+
+import { JobEventsService } from './job-events.service';
+
+xdescribe('JobEventsService', () => {
+  let service: JobEventsService;
+
+  beforeEach(() => {
+    TestBed.configureTestingModule({});
+    service = TestBed.inject(JobEventsService);
+  });
+
+  it('should be created', () => {
+    expect(service).toBeTruthy();
+  });
+});
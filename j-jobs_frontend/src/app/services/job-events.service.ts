@@ -0,0 +1,110 @@
+// src/app/services/job-events.service.ts
+import { Injectable } from '@angular/core';
+import {
+    HttpClient, HttpDownloadProgressEvent,
+    HttpEvent, HttpEventType,
+} from '@angular/common/http';
+import { ApiurlService } from '@app/environments/apiurl.service';
+import { Observable, defer, filter, map, mergeMap, repeat, retry, share, timer } from 'rxjs';
+import { OAuth2Service } from './oauth2.service';
+import { Stats } from './status-stats.service';
+
+export interface JobChangeNotification {
+    /** absent pour un lot d'offres (import, changement de statut groupé) */
+    job_id: number | null;
+    type: 'CREATED' | 'UPDATED' | 'DELETED' | 'IMPORTED' | 'STATUS_CHANGED';
+}
+
+export type JobStreamEvent =
+    | { name: 'status-count'; data: Stats }
+    | { name: 'job-changed'; data: JobChangeNotification }
+    | { name: 'resync'; data: null };
+
+/**
+ * Flux SSE /jobs/events. Il passe par HttpClient (et donc par l'intercepteur
+ * d'authentification) : EventSource ne sait pas envoyer l'en-tête Authorization.
+ * Le serveur ferme le flux périodiquement, la connexion est alors rouverte.
+ */
+@Injectable({
+    providedIn: 'root',
+})
+export class JobEventsService {
+    private readonly RECONNECT_DELAY_MS = 5000;
+    private readonly url: string;
+    readonly events$: Observable<JobStreamEvent>;
+
+    constructor(
+        private http: HttpClient,
+        private apiurlService: ApiurlService,
+        private oAuth2Service: OAuth2Service,
+    ) {
+        this.url = `${this.apiurlService.getApiBaseUrl()}/jobs/events`;
+        this.events$ = defer(() => this.connect()).pipe(
+            retry({ delay: () => timer(this.RECONNECT_DELAY_MS) }),
+            repeat({ delay: () => timer(this.RECONNECT_DELAY_MS) }),
+            share(),
+        );
+    }
+
+    statusCount$(): Observable<Stats> {
+        return this.events$.pipe(
+            filter((e) => e.name === 'status-count'),
+            map((e) => e.data as Stats),
+        );
+    }
+
+    /** Offres modifiées ailleurs (autre onglet, autre appareil) ou flux à relire. */
+    jobsChanged$(): Observable<JobStreamEvent> {
+        return this.events$.pipe(filter((e) => e.name === 'job-changed' || e.name === 'resync'));
+    }
+
+    private connect(): Observable<JobStreamEvent> {
+        const headers = this.oAuth2Service.buildRequestHeaders(true).set('accept', 'text/event-stream');
+        let consumed = 0;
+
+        return this.http
+            .get(this.url, { headers, observe: 'events', responseType: 'text', reportProgress: true })
+            .pipe(
+                filter((e: HttpEvent<string>): e is HttpDownloadProgressEvent =>
+                    e.type === HttpEventType.DownloadProgress),
+                mergeMap((e) => {
+                    const text = e.partialText ?? '';
+                    const end = text.lastIndexOf('\n\n');
+                    if (end < consumed) {
+                        return [];
+                    }
+
+                    const blocks = text.substring(consumed, end).split('\n\n');
+                    consumed = end + 2;
+
+                    return blocks
+                        .map((block) => this.parse(block))
+                        .filter((event): event is JobStreamEvent => event !== null);
+                }),
+            );
+    }
+
+    private parse(block: string): JobStreamEvent | null {
+        let name = '';
+        const data: string[] = [];
+
+        for (const line of block.split('\n')) {
+            if (line.startsWith('event:')) {
+                name = line.substring(6).trim();
+            } else if (line.startsWith('data:')) {
+                data.push(line.substring(5).trimStart());
+            }
+        }
+
+        switch (name) {
+            case 'status-count':
+            case 'job-changed':
+                return { name, data: JSON.parse(data.join('\n')) } as JobStreamEvent;
+            case 'resync':
+                return { name, data: null };
+            default:
+                // battement de cœur (commentaire) ou évènement inconnu
+                return null;
+        }
+    }
+}
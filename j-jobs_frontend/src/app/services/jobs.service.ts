@@ -1,9 +1,9 @@
 // j-jobs_frontend/src/app/services/jobs.service.ts
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { Injectable } from '@angular/core';
 import { ApiurlService } from '@app/environments/apiurl.service';
 import { OAuth2Service } from './oauth2.service';
-import { Observable, BehaviorSubject, tap } from 'rxjs';
+import { Observable, BehaviorSubject, catchError, map, of, tap, throwError } from 'rxjs';
 
 export interface HalLink {
     href: string;
@@ -22,7 +22,8 @@ export interface JobHasStatus {
 
 export interface Job {
     position: string;
-    description: string;
+    // absente des listes de recherche, présente sur la ressource de l'offre
+    description?: string;
     compagny: string;
     city: string;
     from_official_dom: boolean;
@@ -69,12 +70,20 @@ export interface CreateUpdateJobRequest {
     description?: string;
 }
 
+export interface SearchFacets {
+    contract: { [value: string]: number };
+    workMode: { [value: string]: number };
+    workTime: { [value: string]: number };
+    offerStatus: { [value: string]: number };
+}
+
 export interface GetJobsResponse {
     _embedded: {
         jobs: Job[];
     };
     _links?: HalLinks;
     page: PageInfo;
+    facets?: SearchFacets;
 }
 
 @Injectable({
@@ -82,6 +91,9 @@ export interface GetJobsResponse {
 })
 export class JobsService {
     private readonly apiUrl: string;
+    private readonly MAX_CACHED_SEARCHES = 20;
+    // dernières recherches et leur ETag : le serveur répond 304 tant que rien n'a changé
+    private searchCache = new Map<string, { etag: string; response: GetJobsResponse }>();
     private jobsUpdatedSubject = new BehaviorSubject<boolean>(false);
     jobsUpdated$ = this.jobsUpdatedSubject.asObservable();
 
@@ -146,10 +158,28 @@ export class JobsService {
         page: number = 0,
         size: number = 3,
     ): Observable<GetJobsResponse> {
-        const headers = this.oAuth2Service.buildRequestHeadersHal(true);
         const url = `${this.apiUrl}/search?page=${page}&size=${size}`;
+        const key = `${url}|${JSON.stringify(search)}`;
+        const cached = this.searchCache.get(key);
+        let headers = this.oAuth2Service.buildRequestHeadersHal(true);
+        if (cached) {
+            headers = headers.set('If-None-Match', cached.etag);
+        }
 
-        return this.http.post<GetJobsResponse>(url, search, { headers: headers });
+        return this.http.post<GetJobsResponse>(url, search, { headers: headers, observe: 'response' }).pipe(
+            map((res) => {
+                const etag = res.headers.get('ETag');
+                if (etag && res.body) {
+                    if (this.searchCache.size >= this.MAX_CACHED_SEARCHES) {
+                        this.searchCache.clear();
+                    }
+                    this.searchCache.set(key, { etag, response: res.body });
+                }
+                return res.body as GetJobsResponse;
+            }),
+            catchError((err: HttpErrorResponse) =>
+                err.status === 304 && cached ? of(cached.response) : throwError(() => err)),
+        );
     }
 
     getJobs(page: number = 0, size: number = 3): Observable<GetJobsResponse> {